@@ -0,0 +1,28 @@
+package com.thewealthweb.srbackend.aspects;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Records every call of the method in the security audit trail (see SecurityAuditAspect),
+ * for sensitive operations that are not guarded by @PreAuthorize.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Audited {
+
+    /**
+     * Action name written to the trail, e.g. stripe.connection.connect.
+     */
+    String value();
+
+    /**
+     * Names of the parameters identifying the resource acted on; their values become the event target.
+     * Only list parameters that are safe to store (never passwords or tokens).
+     */
+    String[] targets() default {};
+}
@@ -0,0 +1,109 @@
+package com.thewealthweb.srbackend.aspects;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every service method into a Micrometer timer ("service.method", tagged with class, method
+ * and exception), so latency percentiles come from the metrics endpoint instead of log lines.
+ * The hot path is a nanoTime pair and a cached-timer lookup: no string building, no toString() of
+ * return values. Per-call log lines are off by default; when enabled, only slow calls and a sampled
+ * fraction of the rest are logged, through the async appender configured in logback-spring.xml.
+ */
+@Aspect
+@Component
+@Order(1)
+@ConditionalOnProperty(name = "service.timing.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class MethodTimingAspect {
+
+    static final String METRIC_NAME = "service.method";
+    private static final String NO_EXCEPTION = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final double[] percentiles;
+    private final boolean percentileHistogram;
+    private final boolean logEnabled;
+    private final double logSampleRate;
+    private final long slowThresholdNanos;
+
+    // One timer per (method, outcome); built once, then a map lookup per call.
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public MethodTimingAspect(MeterRegistry meterRegistry,
+                              @Value("${service.timing.percentiles:0.5,0.95,0.99}") double[] percentiles,
+                              @Value("${service.timing.percentile-histogram:false}") boolean percentileHistogram,
+                              @Value("${service.timing.log.enabled:false}") boolean logEnabled,
+                              @Value("${service.timing.log.sample-rate:0.01}") double logSampleRate,
+                              @Value("${service.timing.log.slow-threshold:PT1S}") Duration slowThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.percentiles = percentiles;
+        this.percentileHistogram = percentileHistogram;
+        this.logEnabled = logEnabled;
+        this.logSampleRate = logSampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Around("execution(* com.thewealthweb..service..*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        Class<?> failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable t) {
+            failure = t.getClass();
+            throw t;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+            timerFor(method, failure).record(elapsed, TimeUnit.NANOSECONDS);
+            if (logEnabled) {
+                logCall(method, failure, elapsed);
+            }
+        }
+    }
+
+    private Timer timerFor(Method method, Class<?> failure) {
+        return timers.computeIfAbsent(new TimerKey(method, failure), key -> Timer.builder(METRIC_NAME)
+                .description("Execution time of service methods")
+                .tag("class", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("exception", failure == null ? NO_EXCEPTION : failure.getSimpleName())
+                .publishPercentiles(percentiles)
+                .publishPercentileHistogram(percentileHistogram)
+                .register(meterRegistry));
+    }
+
+    private void logCall(Method method, Class<?> failure, long elapsedNanos) {
+        boolean slow = elapsedNanos >= slowThresholdNanos;
+        if (!slow && ThreadLocalRandom.current().nextDouble() >= logSampleRate) {
+            return;
+        }
+        if (slow) {
+            log.warn("{}.{} took {} ms (exception: {})", method.getDeclaringClass().getSimpleName(), method.getName(),
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), failure == null ? NO_EXCEPTION : failure.getSimpleName());
+        } else if (log.isInfoEnabled()) {
+            log.info("{}.{} took {} µs", method.getDeclaringClass().getSimpleName(), method.getName(),
+                    TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        }
+    }
+
+    private record TimerKey(Method method, Class<?> failure) {
+    }
+}
@@ -1,18 +1,113 @@
 package com.thewealthweb.srbackend.aspects;
 
-import org.aspectj.lang.JoinPoint;
+import com.thewealthweb.srbackend.audit.entity.AuditOutcome;
+import com.thewealthweb.srbackend.audit.service.SecurityAuditTrail;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
-import org.springframework.core.annotation.Order;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.security.authorization.method.AuthorizationInterceptorsOrder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.PathVariable;
 
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Feeds the security audit trail: every call that passed a @PreAuthorize check (on the method or its class),
+ * and every @Audited method, is recorded with the caller, the tenant, the action and the resource acted on.
+ * The aspect is ordered just inside the @PreAuthorize interceptor, so a refused call never reaches it;
+ * GlobalExceptionHandler records those denials, once.
+ * Per call this costs a cached lookup and a non-blocking enqueue; the database write happens in batches later.
+ */
 @Aspect
 @Component
-@Order(2)
-public class SecurityAuditAspect {
+@RequiredArgsConstructor
+public class SecurityAuditAspect implements Ordered {
+
+    private final SecurityAuditTrail securityAuditTrail;
+
+    // How to describe each audited method; built once, then a map lookup per call.
+    private final Map<Method, AuditedMethod> auditedMethods = new ConcurrentHashMap<>();
+
+    @Override
+    public int getOrder() {
+        return AuthorizationInterceptorsOrder.PRE_AUTHORIZE.getOrder() + 1;
+    }
+
+    @Around("@within(org.springframework.security.access.prepost.PreAuthorize) " +
+            "|| @annotation(org.springframework.security.access.prepost.PreAuthorize)")
+    public Object auditAuthorizedCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        return audit(joinPoint);
+    }
+
+    @Around("@annotation(com.thewealthweb.srbackend.aspects.Audited)")
+    public Object auditAnnotatedCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        return audit(joinPoint);
+    }
+
+    private Object audit(ProceedingJoinPoint joinPoint) throws Throwable {
+        AuditedMethod audited = auditedMethods.computeIfAbsent(
+                ((MethodSignature) joinPoint.getSignature()).getMethod(), AuditedMethod::of);
+        try {
+            Object result = joinPoint.proceed();
+            securityAuditTrail.record(audited.action(), audited.target(joinPoint.getArgs()), AuditOutcome.SUCCEEDED, null);
+            return result;
+        } catch (Throwable t) {
+            securityAuditTrail.record(audited.action(), audited.target(joinPoint.getArgs()), AuditOutcome.FAILED,
+                    t.getClass().getSimpleName());
+            throw t;
+        }
+    }
+
+    /**
+     * @param targetIndexes Positions of the arguments that identify the resource (path variables, or @Audited targets).
+     */
+    private record AuditedMethod(String action, int[] targetIndexes, String[] targetNames) {
+
+        static AuditedMethod of(Method method) {
+            Audited audited = method.getAnnotation(Audited.class);
+            String action = audited != null
+                    ? audited.value()
+                    : method.getDeclaringClass().getSimpleName() + "." + method.getName();
+            List<String> wanted = audited != null ? Arrays.asList(audited.targets()) : List.of();
+
+            List<Integer> indexes = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            Parameter[] parameters = method.getParameters();
+            for (int i = 0; i < parameters.length; i++) {
+                PathVariable pathVariable = parameters[i].getAnnotation(PathVariable.class);
+                String name = parameters[i].getName();
+                if (audited != null ? wanted.contains(name) : pathVariable != null) {
+                    if (pathVariable != null && !pathVariable.value().isEmpty()) {
+                        name = pathVariable.value();
+                    }
+                    indexes.add(i);
+                    names.add(name);
+                }
+            }
+            return new AuditedMethod(action, indexes.stream().mapToInt(Integer::intValue).toArray(), names.toArray(String[]::new));
+        }
 
-    @Before("execution(@annotation(org.springframework.security.access.prepost.PreAuthorize)")
-    public void logSecurityCheck(JoinPoint joinPoint) {
-        System.out.println("Security check: " + joinPoint.getSignature());
+        String target(Object[] args) {
+            if (targetIndexes.length == 0) {
+                return null;
+            }
+            StringBuilder target = new StringBuilder();
+            for (int i = 0; i < targetIndexes.length; i++) {
+                if (i > 0) {
+                    target.append(", ");
+                }
+                target.append(targetNames[i]).append('=').append(args[targetIndexes[i]]);
+            }
+            return target.toString();
+        }
     }
 }
@@ -0,0 +1,12 @@
+package com.thewealthweb.srbackend.audit.dto;
+
+import com.thewealthweb.srbackend.audit.entity.AuditOutcome;
+
+import java.time.Instant;
+
+/**
+ * An audit event on its way from the capturing thread to security_audit_events.
+ */
+public record AuditEvent(Instant occurredAt, String actor, String tenantId, String action, String target,
+                         AuditOutcome outcome, String detail) {
+}
@@ -0,0 +1,7 @@
+package com.thewealthweb.srbackend.audit.entity;
+
+public enum AuditOutcome {
+    SUCCEEDED,
+    FAILED, // The call threw; the exception type is in detail
+    DENIED  // Refused by method security
+}
@@ -0,0 +1,47 @@
+package com.thewealthweb.srbackend.audit.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+/**
+ * One row of the security audit trail: who did what to which resource, in which tenant.
+ * Append-only; rows are written in batches by SecurityAuditEventRepositoryImpl and never updated.
+ */
+@Entity
+@Immutable
+@Table(name = "security_audit_events", indexes = {
+        @Index(name = "idx_security_audit_events_tenant", columnList = "tenant_id, occurred_at"),
+        @Index(name = "idx_security_audit_events_actor", columnList = "actor, occurred_at")
+})
+@Data
+public class SecurityAuditEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY) // Filled by the database on JDBC batch inserts
+    private Long id;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    @Column(name = "actor", length = 100)
+    private String actor; // Username, null for anonymous calls
+
+    @Column(name = "tenant_id", length = 100)
+    private String tenantId; // Logical tenant bound to the call, if any
+
+    @Column(name = "action", nullable = false, length = 150)
+    private String action; // e.g. UserController.updateUser, stripe.connection.saved
+
+    @Column(name = "target")
+    private String target; // Resource acted on, e.g. id=42
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "outcome", nullable = false, length = 20)
+    private AuditOutcome outcome;
+
+    @Column(name = "detail")
+    private String detail;
+}
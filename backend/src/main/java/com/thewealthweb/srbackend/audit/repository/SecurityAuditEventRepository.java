@@ -0,0 +1,13 @@
+package com.thewealthweb.srbackend.audit.repository;
+
+import com.thewealthweb.srbackend.audit.entity.SecurityAuditEvent;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.Repository;
+
+// Not a JpaRepository on purpose: the trail is append-only, so no save or delete is exposed.
+@org.springframework.stereotype.Repository
+public interface SecurityAuditEventRepository extends Repository<SecurityAuditEvent, Long>, SecurityAuditEventRepositoryCustom {
+
+    Page<SecurityAuditEvent> findByTenantIdOrderByOccurredAtDesc(String tenantId, Pageable pageable);
+}
@@ -0,0 +1,13 @@
+package com.thewealthweb.srbackend.audit.repository;
+
+import com.thewealthweb.srbackend.audit.dto.AuditEvent;
+
+import java.util.List;
+
+public interface SecurityAuditEventRepositoryCustom {
+
+    /**
+     * Appends audit events using a single JDBC batch.
+     */
+    void insertBatch(List<AuditEvent> events);
+}
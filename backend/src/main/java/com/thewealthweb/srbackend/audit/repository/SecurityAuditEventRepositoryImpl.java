@@ -0,0 +1,54 @@
+package com.thewealthweb.srbackend.audit.repository;
+
+import com.thewealthweb.srbackend.audit.dto.AuditEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Plain JDBC batch insert for the audit trail, one round-trip per flush.
+ */
+@RequiredArgsConstructor
+public class SecurityAuditEventRepositoryImpl implements SecurityAuditEventRepositoryCustom {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO security_audit_events (occurred_at, actor, tenant_id, action, target, outcome, detail)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertBatch(List<AuditEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                AuditEvent event = events.get(i);
+                ps.setTimestamp(1, Timestamp.from(event.occurredAt()));
+                ps.setString(2, truncate(event.actor(), 100));
+                ps.setString(3, truncate(event.tenantId(), 100));
+                ps.setString(4, truncate(event.action(), 150));
+                ps.setString(5, truncate(event.target(), 255));
+                ps.setString(6, event.outcome().name());
+                ps.setString(7, truncate(event.detail(), 255));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return events.size();
+            }
+        });
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
@@ -0,0 +1,91 @@
+package com.thewealthweb.srbackend.audit.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer with many producers and a single consumer.
+ * Each slot carries a sequence number that says whether it is free for the producer at a position or
+ * holds an element for the consumer, so producers only contend on one CAS of the tail and never block:
+ * when the ring is full, offer fails immediately and the caller decides what to drop.
+ */
+final class AuditRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong(); // Next position to claim, shared by producers
+    private volatile long head; // Next position to consume; written by the consumer only
+
+    /**
+     * @param capacity Rounded up to a power of two.
+     */
+    AuditRingBuffer(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("capacity must be at least 2");
+        }
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.elements = new AtomicReferenceArray<>(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return false if the ring is full; the element is not added.
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long distance = sequences.get(index) - position;
+            if (distance == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.set(index, position + 1); // Publishes the element to the consumer
+                    return true;
+                }
+                position = tail.get();
+            } else if (distance < 0) {
+                return false; // The slot still holds an element from one lap ago
+            } else {
+                position = tail.get(); // Another producer claimed it first
+            }
+        }
+    }
+
+    /**
+     * Moves up to max published elements into the list, in order. Single consumer only.
+     * @return Number of elements moved.
+     */
+    int drainTo(List<E> target, int max) {
+        long position = head;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                break; // Not published yet
+            }
+            target.add(elements.get(index));
+            elements.lazySet(index, null);
+            sequences.set(index, position + capacity); // Frees the slot for the next lap
+            position++;
+            drained++;
+        }
+        head = position;
+        return drained;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
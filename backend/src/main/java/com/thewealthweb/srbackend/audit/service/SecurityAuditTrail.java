@@ -0,0 +1,164 @@
+package com.thewealthweb.srbackend.audit.service;
+
+import com.thewealthweb.srbackend.audit.dto.AuditEvent;
+import com.thewealthweb.srbackend.audit.entity.AuditOutcome;
+import com.thewealthweb.srbackend.audit.repository.SecurityAuditEventRepository;
+import com.thewealthweb.srbackend.tenant.config.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point of the security audit trail (security_audit_events).
+ * Recording only builds the event and offers it to a bounded lock-free ring buffer, so audited calls
+ * never wait on the database; a single flusher thread drains the ring and appends each batch with one
+ * JDBC batch insert. When the ring is full, new events are dropped and counted rather than slowing
+ * callers down. Events still in the ring when the process dies are lost.
+ */
+@Service
+@Slf4j
+public class SecurityAuditTrail {
+
+    private static final String METRIC_PREFIX = "security.audit.";
+
+    @Value("${security.audit.batch-size:500}")
+    private int batchSize;
+
+    @Value("${security.audit.flush-interval:PT0.2S}")
+    private Duration flushInterval;
+
+    private final SecurityAuditEventRepository securityAuditEventRepository;
+    private final AuditRingBuffer<AuditEvent> ring;
+    private final Counter droppedQueueFull;
+    private final Counter droppedFlushFailed;
+    private final Counter written;
+    private final Timer flushTimer;
+
+    private Thread flusherThread;
+    private volatile boolean running;
+
+    public SecurityAuditTrail(SecurityAuditEventRepository securityAuditEventRepository,
+                              @Value("${security.audit.queue-capacity:16384}") int queueCapacity,
+                              MeterRegistry meterRegistry) {
+        this.securityAuditEventRepository = securityAuditEventRepository;
+        this.ring = new AuditRingBuffer<>(queueCapacity);
+        Gauge.builder(METRIC_PREFIX + "queue.fill", ring, r -> (double) r.size() / r.capacity())
+                .description("Share of the audit ring buffer in use (0..1)")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "queue.size", ring, AuditRingBuffer::size)
+                .description("Audit events waiting to be flushed")
+                .register(meterRegistry);
+        this.droppedQueueFull = Counter.builder(METRIC_PREFIX + "dropped").tag("reason", "queue_full")
+                .description("Audit events lost before reaching security_audit_events")
+                .register(meterRegistry);
+        this.droppedFlushFailed = Counter.builder(METRIC_PREFIX + "dropped").tag("reason", "flush_failed")
+                .description("Audit events lost before reaching security_audit_events")
+                .register(meterRegistry);
+        this.written = Counter.builder(METRIC_PREFIX + "written")
+                .description("Audit events appended to security_audit_events")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder(METRIC_PREFIX + "flush")
+                .description("Time to append one batch of audit events")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records an action of the current caller, in the current tenant. Never blocks.
+     * @param action What was done, e.g. UserController.updateUser.
+     * @param target The resource acted on (e.g. id=42); may be null.
+     * @param detail Extra context such as an exception type; may be null.
+     */
+    public void record(String action, String target, AuditOutcome outcome, String detail) {
+        record(currentActor(), TenantContext.getTenantId(), action, target, outcome, detail);
+    }
+
+    /**
+     * Records an action for an explicit actor and tenant, for callers outside a request. Never blocks.
+     */
+    public void record(String actor, String tenantId, String action, String target, AuditOutcome outcome, String detail) {
+        if (!ring.offer(new AuditEvent(Instant.now(), actor, tenantId, action, target, outcome, detail))) {
+            droppedQueueFull.increment();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        flusherThread = new Thread(this::flushLoop, "security-audit-flusher");
+        flusherThread.setDaemon(true);
+        flusherThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (flusherThread != null) {
+            flusherThread.interrupt();
+            flusherThread.join(TimeUnit.SECONDS.toMillis(5));
+            if (flusherThread.isAlive()) {
+                log.warn("Audit flusher did not stop; {} buffered audit events are dropped", ring.size());
+                return; // The ring has a single consumer
+            }
+        }
+        // Whatever the flusher left behind, written from the closing thread while the DataSource is still open.
+        while (flush() == batchSize) {
+            // Keep draining full batches
+        }
+    }
+
+    private void flushLoop() {
+        while (running) {
+            // A full batch means the ring is filling up; flush again straight away.
+            if (flush() < batchSize) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(flushInterval.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // Only ever called by one thread at a time: the flusher, or stop() once the flusher is gone.
+    private int flush() {
+        List<AuditEvent> batch = new ArrayList<>(Math.min(batchSize, ring.size()));
+        int drained = ring.drainTo(batch, batchSize);
+        if (drained == 0) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        try {
+            securityAuditEventRepository.insertBatch(batch);
+            written.increment(drained);
+        } catch (RuntimeException e) {
+            droppedFlushFailed.increment(drained);
+            log.error("Dropped {} audit events, appending them failed: {}", drained, e.getMessage());
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return drained;
+    }
+
+    private static String currentActor() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken) ? auth.getName() : null;
+    }
+}
@@ -0,0 +1,24 @@
+package com.thewealthweb.srbackend.audit.service;
+
+import com.thewealthweb.srbackend.audit.entity.AuditOutcome;
+import com.thewealthweb.srbackend.stripe.dto.StripeAccountConnectedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Records connected and replaced Stripe accounts in the audit trail once the connection row is committed.
+ * The OAuth callback carries no logged-in user; the user who started the flow is on its connect_started event.
+ */
+@Component
+@RequiredArgsConstructor
+public class StripeConnectionAuditListener {
+
+    private final SecurityAuditTrail securityAuditTrail;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountConnected(StripeAccountConnectedEvent event) {
+        securityAuditTrail.record(null, event.logicalTenantId(), "stripe.connection.saved",
+                "stripeAccount=" + event.stripeUserId(), AuditOutcome.SUCCEEDED, null);
+    }
+}
@@ -11,12 +11,10 @@ import java.time.Instant;
 
 @MappedSuperclass
 @EntityListeners(AuditingEntityListener.class)
+// No id here: every subclass declares its own @Id with a named pooled sequence (see IdSequences),
+// so a new entity cannot silently fall back to an implicit <table>_seq unknown to IdSequenceAligner.
 public abstract class BaseEntity {
 
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
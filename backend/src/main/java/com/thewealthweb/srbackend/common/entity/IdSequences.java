@@ -0,0 +1,27 @@
+package com.thewealthweb.srbackend.common.entity;
+
+/**
+ * Id sequences of the entities Hibernate inserts itself.
+ * Each sequence is created with INCREMENT BY ALLOCATION_SIZE and read through the pooled-lo optimizer
+ * (see HibernateMultiTenancyConfig): one nextval returning n reserves the ids n .. n + ALLOCATION_SIZE - 1,
+ * so a flush needs one sequence call per 50 rows and the inserts themselves can be JDBC-batched.
+ * Tables written by plain JDBC upserts (webhook inbox, subscription and invoice mirrors) keep IDENTITY:
+ * they are already batched and let the database assign ids in the same statement.
+ */
+public final class IdSequences {
+
+    public static final int ALLOCATION_SIZE = 50;
+
+    public static final String TENANTS = "tenants_seq";
+    public static final String USERS = "users_seq";
+    public static final String ROLES = "roles_seq";
+    public static final String REFRESH_TOKENS = "refresh_token_seq";
+    public static final String RETRY_ATTEMPTS = "retry_attempts_seq";
+    public static final String BACKFILL_CHECKPOINTS = "stripe_backfill_checkpoints_seq";
+    public static final String SUBSCRIPTION_SYNC_CURSORS = "subscription_sync_cursors_seq";
+    public static final String STRIPE_ACCOUNT_CONNECTIONS = "stripe_account_connections_seq";
+    public static final String RETRY_POLICIES = "retry_policies_seq";
+
+    private IdSequences() {
+    }
+}
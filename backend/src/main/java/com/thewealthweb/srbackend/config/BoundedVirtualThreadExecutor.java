@@ -0,0 +1,106 @@
+package com.thewealthweb.srbackend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every task on its own virtual thread, with a cap on how many run at once.
+ * Blocking Stripe and JDBC calls then park a cheap virtual thread instead of holding a pool thread;
+ * the cap still matters because the connection pool and Stripe's rate limits are finite.
+ * When the cap is reached, tasks are either rejected at submission (so the caller can retry later,
+ * like a full ThreadPoolTaskExecutor queue) or parked on their own virtual thread until a permit frees up.
+ */
+@Slf4j
+public class BoundedVirtualThreadExecutor implements AsyncTaskExecutor, DisposableBean {
+
+    private final String name;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final boolean rejectWhenFull;
+    private final TaskDecorator taskDecorator;
+    private final Duration shutdownTimeout;
+
+    /**
+     * @param name Thread name prefix; threads are named name0, name1, ...
+     * @param maxConcurrency Tasks allowed to run at the same time.
+     * @param rejectWhenFull true to throw TaskRejectedException when every permit is taken, false to queue.
+     * @param taskDecorator Applied to every task (e.g. context propagation); may be null.
+     * @param shutdownTimeout How long destroy() waits for running tasks before interrupting them.
+     */
+    public BoundedVirtualThreadExecutor(String name, int maxConcurrency, boolean rejectWhenFull,
+                                        TaskDecorator taskDecorator, Duration shutdownTimeout) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+        this.name = name;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name, 0).factory());
+        this.permits = new Semaphore(maxConcurrency);
+        this.rejectWhenFull = rejectWhenFull;
+        this.taskDecorator = taskDecorator;
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        Runnable decorated = taskDecorator != null ? taskDecorator.decorate(task) : task;
+        if (rejectWhenFull) {
+            if (!permits.tryAcquire()) {
+                throw new TaskRejectedException(name + " is running its maximum number of tasks");
+            }
+            start(() -> runAndRelease(decorated));
+        } else {
+            start(() -> {
+                try {
+                    permits.acquire(); // Parks the virtual thread only
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                runAndRelease(decorated);
+            });
+        }
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("{} still had running tasks after {}; interrupting them", name, shutdownTimeout);
+            executor.shutdownNow();
+        }
+    }
+
+    private void start(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RuntimeException e) {
+            if (rejectWhenFull) {
+                permits.release();
+            }
+            throw new TaskRejectedException(name + " is shut down", e);
+        }
+    }
+
+    private void runAndRelease(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.error("Task on {} failed: {}", name, e.getMessage(), e);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.thewealthweb.srbackend.config;
+
+import com.thewealthweb.srbackend.common.entity.IdSequences;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One-off upgrade step for databases created while ids were IDENTITY columns.
+ * Hibernate's schema update creates the new sequences starting at 1, below the ids already in the tables,
+ * so before anything is inserted each sequence is moved past its table's highest id.
+ * Runs after the schema update and before schedulers and CommandLineRunners (e.g. RoleInitializer) start.
+ * A sequence is only moved when that id lies beyond every block it has handed out, so other instances
+ * already allocating from it are never handed overlapping ids.
+ */
+@Component
+@ConditionalOnProperty(name = "persistence.id-sequences.align-on-startup", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class IdSequenceAligner implements SmartInitializingSingleton {
+
+    // Unquoted table names, as Hibernate creates them.
+    private static final Map<String, String> SEQUENCES_BY_TABLE = new LinkedHashMap<>();
+
+    static {
+        SEQUENCES_BY_TABLE.put("tenants", IdSequences.TENANTS);
+        SEQUENCES_BY_TABLE.put("users", IdSequences.USERS);
+        SEQUENCES_BY_TABLE.put("roles", IdSequences.ROLES);
+        SEQUENCES_BY_TABLE.put("refresh_tokens", IdSequences.REFRESH_TOKENS);
+        SEQUENCES_BY_TABLE.put("retry_attempts", IdSequences.RETRY_ATTEMPTS);
+        SEQUENCES_BY_TABLE.put("stripe_backfill_checkpoints", IdSequences.BACKFILL_CHECKPOINTS);
+        SEQUENCES_BY_TABLE.put("subscription_sync_cursors", IdSequences.SUBSCRIPTION_SYNC_CURSORS);
+        SEQUENCES_BY_TABLE.put("stripe_account_connections", IdSequences.STRIPE_ACCOUNT_CONNECTIONS);
+        SEQUENCES_BY_TABLE.put("retry_policies", IdSequences.RETRY_POLICIES);
+    }
+
+    private static final String ALIGN_SQL = """
+            SELECT setval('%2$s', t.max_id + 1, false)
+            FROM (SELECT MAX(id) AS max_id FROM %1$s) t, %2$s s
+            WHERE t.max_id >= s.last_value + CASE WHEN s.is_called THEN %3$d ELSE 0 END
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        SEQUENCES_BY_TABLE.forEach((table, sequence) -> {
+            Long next = jdbcTemplate.query(ALIGN_SQL.formatted(table, sequence, IdSequences.ALLOCATION_SIZE),
+                    rs -> rs.next() ? rs.getLong(1) : null);
+            if (next != null) {
+                log.info("Moved id sequence {} to {} past the existing rows of {}", sequence, next, table);
+            }
+        });
+    }
+}
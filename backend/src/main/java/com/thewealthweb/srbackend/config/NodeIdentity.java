@@ -0,0 +1,45 @@
+package com.thewealthweb.srbackend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+
+/**
+ * Name of this backend instance, written as the owner of the work leases it takes
+ * (retry attempts, subscription sync cursors). Unique per process, so a restarted replica
+ * never mistakes the leases of its previous life for its own.
+ */
+@Component
+@Slf4j
+public class NodeIdentity {
+
+    // Fits the lease_owner columns (100) with the random suffix.
+    private static final int MAX_NAME_LENGTH = 90;
+
+    private final String id;
+
+    public NodeIdentity(@Value("${app.node-name:}") String nodeName) {
+        String base = nodeName != null && !nodeName.isBlank() ? nodeName : hostName();
+        if (base.length() > MAX_NAME_LENGTH) {
+            base = base.substring(0, MAX_NAME_LENGTH);
+        }
+        this.id = base + "-" + UUID.randomUUID().toString().substring(0, 8);
+        log.info("Work leases of this instance are owned by {}", id);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "node";
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.thewealthweb.srbackend.config;
+
+import com.thewealthweb.srbackend.tenant.config.TenantContextTaskDecorator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Executor for async MVC work (StreamingResponseBody, Callable). Boot only auto-configures
+ * applicationTaskExecutor when the context has no other Executor, and the retry and backfill
+ * executors are Executors, so without this MVC falls back to an undecorated SimpleAsyncTaskExecutor.
+ * The request timeout still comes from spring.mvc.async.request-timeout.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebAsyncConfig implements WebMvcConfigurer {
+
+    private final TenantContextTaskDecorator tenantContextTaskDecorator;
+
+    @Value("${web.async.max-concurrency:64}")
+    private int maxConcurrency;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcAsyncExecutor());
+    }
+
+    // A stream pages through Stripe for its whole response, so the cap bounds concurrent listings.
+    @Bean(name = "mvcAsyncExecutor")
+    public AsyncTaskExecutor mvcAsyncExecutor() {
+        if (virtualThreads) {
+            // Over the cap, handlers park until a stream finishes; the request timeout bounds the wait.
+            return new BoundedVirtualThreadExecutor("mvc-async-", maxConcurrency, false,
+                    tenantContextTaskDecorator, Duration.ofSeconds(5));
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setThreadNamePrefix("mvc-async-");
+        executor.setTaskDecorator(tenantContextTaskDecorator);
+        return executor;
+    }
+}
@@ -0,0 +1,47 @@
+package com.thewealthweb.srbackend.retry.config;
+
+import com.thewealthweb.srbackend.config.BoundedVirtualThreadExecutor;
+import com.thewealthweb.srbackend.tenant.config.TenantContextTaskDecorator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+
+@Configuration
+public class RetryConfig {
+
+    @Value("${retry.worker.threads:8}")
+    private int workerThreads;
+
+    @Value("${retry.worker.queue-capacity:1000}")
+    private int workerQueueCapacity;
+
+    // Same switch as Tomcat's request threads, so one property moves the whole app to virtual threads.
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${retry.worker.virtual-max-concurrency:64}")
+    private int virtualMaxConcurrency;
+
+    // Workers that call Stripe for due attempts. Bounded: when full, the scheduler re-queues and tries again.
+    @Bean(name = "retryExecutor")
+    public TaskExecutor retryExecutor(TenantContextTaskDecorator tenantContextTaskDecorator) {
+        if (virtualThreads) {
+            // Attempts mostly wait on Stripe; a virtual thread each is cheap, the cap protects the DB pool.
+            return new BoundedVirtualThreadExecutor("retry-worker-", virtualMaxConcurrency, true,
+                    tenantContextTaskDecorator, Duration.ofSeconds(30));
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workerThreads);
+        executor.setMaxPoolSize(workerThreads);
+        executor.setQueueCapacity(workerQueueCapacity);
+        executor.setThreadNamePrefix("retry-worker-");
+        executor.setTaskDecorator(tenantContextTaskDecorator);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
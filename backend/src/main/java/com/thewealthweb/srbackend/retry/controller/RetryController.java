@@ -0,0 +1,54 @@
+package com.thewealthweb.srbackend.retry.controller;
+
+import com.stripe.exception.StripeException;
+import com.thewealthweb.srbackend.common.dto.ErrorMessage;
+import com.thewealthweb.srbackend.retry.dto.RetryAttemptDTO;
+import com.thewealthweb.srbackend.retry.service.DelinquentSubscriptionService;
+import com.thewealthweb.srbackend.retry.service.RetryAttemptService;
+import com.thewealthweb.srbackend.tenant.config.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/retries")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("hasAnyRole('COMPANY_ADMIN', 'SUPER_ADMIN')")
+public class RetryController {
+
+    private final RetryAttemptService retryAttemptService;
+    private final DelinquentSubscriptionService delinquentSubscriptionService;
+
+    @GetMapping
+    public ResponseEntity<Page<RetryAttemptDTO>> getRetryAttempts(@RequestParam(defaultValue = "0") int page,
+                                                                  @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(retryAttemptService.listForTenant(TenantContext.getTenantId(),
+                PageRequest.of(page, Math.min(size, 200))));
+    }
+
+    /**
+     * Schedules retries for subscriptions that are already past_due or unpaid on the tenant's Stripe account.
+     */
+    @PostMapping("/scan")
+    public ResponseEntity<?> scanDelinquentSubscriptions() {
+        try {
+            int scheduled = delinquentSubscriptionService.scheduleRetriesForCurrentTenant();
+            return ResponseEntity.ok(Map.of("scheduled", scheduled));
+        } catch (StripeException e) {
+            log.error("Error scanning subscriptions for tenant {}: {}", TenantContext.getTenantId(), e.getMessage());
+            return new ResponseEntity<>(new ErrorMessage(1, "Stripe API Error", e.getMessage()), HttpStatus.BAD_GATEWAY);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.thewealthweb.srbackend.retry.controller;
+
+import com.thewealthweb.srbackend.retry.dto.RetryPolicyDTO;
+import com.thewealthweb.srbackend.retry.service.RetryPolicyService;
+import com.thewealthweb.srbackend.tenant.config.TenantContext;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/retry-policy")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('COMPANY_ADMIN', 'SUPER_ADMIN')")
+public class RetryPolicyController {
+
+    private final RetryPolicyService retryPolicyService;
+
+    @GetMapping
+    public ResponseEntity<RetryPolicyDTO> getRetryPolicy() {
+        return ResponseEntity.ok(retryPolicyService.getPolicy(TenantContext.getTenantId()));
+    }
+
+    @PutMapping
+    public ResponseEntity<RetryPolicyDTO> updateRetryPolicy(@Valid @RequestBody RetryPolicyDTO retryPolicyDTO) {
+        return ResponseEntity.ok(retryPolicyService.updatePolicy(TenantContext.getTenantId(), retryPolicyDTO));
+    }
+}
@@ -0,0 +1,15 @@
+package com.thewealthweb.srbackend.retry.dto;
+
+import java.time.Instant;
+
+/**
+ * A failed (or still unpaid) invoice that should enter the retry schedule.
+ */
+public record FailedInvoice(String tenantId,
+                            String stripeAccountId,
+                            String invoiceId,
+                            String subscriptionId,
+                            String customerId,
+                            String declineCode,
+                            Instant failedAt) {
+}
@@ -0,0 +1,19 @@
+package com.thewealthweb.srbackend.retry.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class RetryAttemptDTO {
+    private Long id;
+    private String invoiceId;
+    private String subscriptionId;
+    private String customerId;
+    private int attemptNumber;
+    private String status;
+    private Instant scheduledAt;
+    private Instant executedAt;
+    private String declineCode;
+    private String lastError;
+}
@@ -0,0 +1,47 @@
+package com.thewealthweb.srbackend.retry.dto;
+
+import com.thewealthweb.srbackend.retry.entity.RetryBackoffType;
+import com.thewealthweb.srbackend.retry.service.CompiledRetryPolicy;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Set;
+
+@Data
+public class RetryPolicyDTO {
+
+    @NotNull(message = "Backoff type is required")
+    private RetryBackoffType backoffType;
+
+    @Positive(message = "Initial delay must be positive")
+    @Max(value = CompiledRetryPolicy.MAX_DELAY_MINUTES, message = "Initial delay cannot exceed 366 days")
+    private Long initialDelayMinutes;   // FIXED and EXPONENTIAL
+
+    @Min(value = 1, message = "Multiplier must be at least 1")
+    @Max(value = 10, message = "Multiplier cannot exceed 10")
+    private Double multiplier;          // EXPONENTIAL
+
+    @Positive(message = "Max delay must be positive")
+    @Max(value = CompiledRetryPolicy.MAX_DELAY_MINUTES, message = "Max delay cannot exceed 366 days")
+    private Long maxDelayMinutes;       // EXPONENTIAL cap
+
+    private List<@NotNull @Positive @Max(value = CompiledRetryPolicy.MAX_DELAY_MINUTES,
+            message = "Scheduled delays cannot exceed 366 days") Long> customScheduleMinutes; // CUSTOM
+
+    // Retries after the first failure, for every backoff type; 0 disables retries. Required so an omitted
+    // field never silently turns retries off. CUSTOM needs at least this many scheduled delays.
+    @NotNull(message = "Max attempts is required")
+    @Min(value = 0, message = "Max attempts cannot be negative")
+    @Max(value = 20, message = "Max attempts cannot exceed 20")
+    private Integer maxAttempts;
+
+    private Set<String> skipDeclineCodes;
+
+    private Set<String> retryDeclineCodes;
+
+    private boolean tenantDefault; // true when the tenant has no policy of its own yet
+}
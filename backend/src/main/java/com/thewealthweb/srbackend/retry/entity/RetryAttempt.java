@@ -0,0 +1,86 @@
+package com.thewealthweb.srbackend.retry.entity;
+
+import com.thewealthweb.srbackend.common.entity.IdSequences;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One scheduled payment retry of a failed invoice on a connected account.
+ * Attempts for an invoice form a chain (attemptNumber 1..n); at most one of them is active at a time.
+ */
+@Entity
+@Table(name = "retry_attempts",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_retry_attempts_invoice_attempt", columnNames = {"invoice_id", "attempt_number"})
+        },
+        indexes = {
+                // The scheduler only ever range-scans pending rows by due time.
+                @Index(name = "idx_retry_attempts_due", columnList = "status, scheduled_at"),
+                @Index(name = "idx_retry_attempts_tenant", columnList = "tenant_id, scheduled_at"),
+                // Finds leases abandoned by a crashed node.
+                @Index(name = "idx_retry_attempts_lease", columnList = "status, lease_expires_at")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RetryAttempt {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = IdSequences.RETRY_ATTEMPTS)
+    @SequenceGenerator(name = IdSequences.RETRY_ATTEMPTS, sequenceName = IdSequences.RETRY_ATTEMPTS, allocationSize = IdSequences.ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private String tenantId; // Logical tenant id, e.g. "acme-corp"
+
+    @Column(name = "stripe_account_id", nullable = false)
+    private String stripeAccountId;
+
+    @Column(name = "invoice_id", nullable = false)
+    private String invoiceId;
+
+    @Column(name = "subscription_id")
+    private String subscriptionId;
+
+    @Column(name = "customer_id")
+    private String customerId;
+
+    @Column(name = "attempt_number", nullable = false)
+    private int attemptNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private RetryAttemptStatus status;
+
+    @Column(name = "scheduled_at", nullable = false)
+    private Instant scheduledAt;
+
+    // Node executing the attempt (see RetryAttemptRepositoryImpl.leaseDue); kept after it finishes.
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    // An IN_PROGRESS attempt whose lease has expired was abandoned and may be taken over by any node.
+    @Column(name = "lease_expires_at")
+    private Instant leaseExpiresAt;
+
+    @Column(name = "executed_at")
+    private Instant executedAt;
+
+    @Column(name = "decline_code")
+    private String declineCode;
+
+    @Column(name = "last_error", length = 1024)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Version
+    private Long version;
+}
@@ -0,0 +1,9 @@
+package com.thewealthweb.srbackend.retry.entity;
+
+public enum RetryAttemptStatus {
+    SCHEDULED,   // Waiting for scheduledAt
+    IN_PROGRESS, // Claimed by a worker, payment call in flight
+    SUCCEEDED,   // Invoice paid by this attempt (or found already paid)
+    FAILED,      // Payment declined or rejected; a follow-up attempt may have been scheduled
+    CANCELLED    // Invoice no longer collectible (void, uncollectible, deleted)
+}
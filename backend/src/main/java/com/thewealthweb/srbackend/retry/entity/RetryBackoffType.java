@@ -0,0 +1,7 @@
+package com.thewealthweb.srbackend.retry.entity;
+
+public enum RetryBackoffType {
+    FIXED,       // Same delay before every retry
+    EXPONENTIAL, // initialDelay * multiplier^(n-1), capped at maxDelay
+    CUSTOM       // Explicit list of delays, one per retry
+}
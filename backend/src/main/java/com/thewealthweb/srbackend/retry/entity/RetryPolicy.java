@@ -0,0 +1,56 @@
+package com.thewealthweb.srbackend.retry.entity;
+
+import com.thewealthweb.srbackend.common.entity.BaseEntity;
+import com.thewealthweb.srbackend.common.entity.IdSequences;
+import com.thewealthweb.srbackend.tenant.entity.Tenant;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * A tenant's dunning schedule. Stored as entered by the tenant admin and compiled into a
+ * CompiledRetryPolicy before it is used on the retry path.
+ */
+@Entity
+@Table(name = "retry_policies")
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class RetryPolicy extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = IdSequences.RETRY_POLICIES)
+    @SequenceGenerator(name = IdSequences.RETRY_POLICIES, sequenceName = IdSequences.RETRY_POLICIES, allocationSize = IdSequences.ALLOCATION_SIZE)
+    private Long id;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "tenant_id", nullable = false, unique = true)
+    private Tenant tenant;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "backoff_type", nullable = false, length = 20)
+    private RetryBackoffType backoffType = RetryBackoffType.CUSTOM;
+
+    @Column(name = "initial_delay_minutes")
+    private Long initialDelayMinutes;
+
+    @Column(name = "multiplier")
+    private Double multiplier;
+
+    @Column(name = "max_delay_minutes")
+    private Long maxDelayMinutes;
+
+    // Comma-separated delays in minutes, used by CUSTOM
+    @Column(name = "custom_schedule_minutes", length = 512)
+    private String customScheduleMinutes;
+
+    @Column(name = "max_attempts", nullable = false)
+    private int maxAttempts;
+
+    // Comma-separated decline codes that are never retried (hard declines)
+    @Column(name = "skip_decline_codes", length = 1024)
+    private String skipDeclineCodes;
+
+    // Comma-separated decline codes that are retried; empty means every code not skipped
+    @Column(name = "retry_decline_codes", length = 1024)
+    private String retryDeclineCodes;
+}
@@ -0,0 +1,11 @@
+package com.thewealthweb.srbackend.retry.mapper;
+
+import com.thewealthweb.srbackend.retry.dto.RetryAttemptDTO;
+import com.thewealthweb.srbackend.retry.entity.RetryAttempt;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface RetryAttemptMapper {
+
+    RetryAttemptDTO toDto(RetryAttempt attempt);
+}
@@ -0,0 +1,64 @@
+package com.thewealthweb.srbackend.retry.mapper;
+
+import com.thewealthweb.srbackend.retry.dto.RetryPolicyDTO;
+import com.thewealthweb.srbackend.retry.entity.RetryPolicy;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.Named;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Mapper(componentModel = "spring")
+public interface RetryPolicyMapper {
+
+    @Mapping(target = "customScheduleMinutes", source = "customScheduleMinutes", qualifiedByName = "csvToMinutes")
+    @Mapping(target = "skipDeclineCodes", source = "skipDeclineCodes", qualifiedByName = "csvToCodes")
+    @Mapping(target = "retryDeclineCodes", source = "retryDeclineCodes", qualifiedByName = "csvToCodes")
+    @Mapping(target = "tenantDefault", ignore = true)
+    RetryPolicyDTO toDto(RetryPolicy policy);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "tenant", ignore = true)
+    @Mapping(target = "customScheduleMinutes", source = "customScheduleMinutes", qualifiedByName = "minutesToCsv")
+    @Mapping(target = "skipDeclineCodes", source = "skipDeclineCodes", qualifiedByName = "codesToCsv")
+    @Mapping(target = "retryDeclineCodes", source = "retryDeclineCodes", qualifiedByName = "codesToCsv")
+    void updateEntity(RetryPolicyDTO dto, @MappingTarget RetryPolicy policy);
+
+    @Named("csvToMinutes")
+    default List<Long> csvToMinutes(String csv) {
+        if (csv == null || csv.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(csv.split(",")).map(String::trim).map(Long::valueOf).toList();
+    }
+
+    @Named("minutesToCsv")
+    default String minutesToCsv(List<Long> minutes) {
+        if (minutes == null || minutes.isEmpty()) {
+            return null;
+        }
+        return minutes.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    @Named("csvToCodes")
+    default Set<String> csvToCodes(String csv) {
+        if (csv == null || csv.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(csv.split(",")).map(String::trim).filter(code -> !code.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    @Named("codesToCsv")
+    default String codesToCsv(Set<String> codes) {
+        if (codes == null || codes.isEmpty()) {
+            return null;
+        }
+        return codes.stream().map(String::trim).map(String::toLowerCase).collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,31 @@
+package com.thewealthweb.srbackend.retry.repository;
+
+import com.thewealthweb.srbackend.retry.entity.RetryAttempt;
+import com.thewealthweb.srbackend.retry.entity.RetryAttemptStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface RetryAttemptRepository extends JpaRepository<RetryAttempt, Long>, RetryAttemptRepositoryCustom {
+
+    boolean existsByInvoiceIdAndStatusIn(String invoiceId, Collection<RetryAttemptStatus> statuses);
+
+    Optional<RetryAttempt> findTopByInvoiceIdOrderByAttemptNumberDesc(String invoiceId);
+
+    Page<RetryAttempt> findByTenantIdOrderByScheduledAtDesc(String tenantId, Pageable pageable);
+
+    // Hands a leased attempt back to the schedule untouched, e.g. when no worker could take it.
+    @Modifying
+    @Query("update RetryAttempt a set a.status = :scheduled, a.leaseOwner = null, a.leaseExpiresAt = null, " +
+            "a.version = a.version + 1 where a.id = :id and a.leaseOwner = :owner and a.status = :inProgress")
+    int releaseLease(@Param("id") Long id, @Param("owner") String owner,
+                     @Param("inProgress") RetryAttemptStatus inProgress, @Param("scheduled") RetryAttemptStatus scheduled);
+}
@@ -0,0 +1,21 @@
+package com.thewealthweb.srbackend.retry.repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+public interface RetryAttemptRepositoryCustom {
+
+    /**
+     * Leases up to limit attempts to one worker: abandoned IN_PROGRESS attempts whose lease has expired
+     * first, then SCHEDULED attempts that are due, oldest first. Leased attempts are IN_PROGRESS and owned
+     * by the worker until the lease expires. Rows locked by a concurrent lease are skipped, not waited for,
+     * so workers on different nodes always get disjoint batches.
+     * @param owner Lease owner, the NodeIdentity of the calling instance.
+     * @param now Attempts scheduled at or before this are due; leases expired before this are taken over.
+     * @param leaseTtl How long the worker may take before the attempt is considered abandoned.
+     * @param limit Max attempts to lease.
+     * @return Ids of the leased attempts.
+     */
+    List<Long> leaseDue(String owner, Instant now, Duration leaseTtl, int limit);
+}
@@ -0,0 +1,59 @@
+package com.thewealthweb.srbackend.retry.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Work claiming for retry attempts with FOR UPDATE SKIP LOCKED.
+ * Each lease is a single auto-committed statement: the row locks only live while the batch is
+ * selected and stamped, and the lease itself is the (lease_owner, lease_expires_at) pair left on the rows.
+ */
+@RequiredArgsConstructor
+public class RetryAttemptRepositoryImpl implements RetryAttemptRepositoryCustom {
+
+    // Attempts a crashed node left IN_PROGRESS; a null expiry predates leasing and was never going to finish either.
+    private static final String TAKE_OVER_EXPIRED_SQL = """
+            UPDATE retry_attempts a
+            SET lease_owner = ?, lease_expires_at = ?, version = a.version + 1
+            FROM (SELECT id FROM retry_attempts
+                  WHERE status = 'IN_PROGRESS' AND (lease_expires_at IS NULL OR lease_expires_at < ?)
+                  ORDER BY lease_expires_at NULLS FIRST
+                  LIMIT ?
+                  FOR UPDATE SKIP LOCKED) expired
+            WHERE a.id = expired.id
+            RETURNING a.id
+            """;
+
+    // Range scan on idx_retry_attempts_due, stopping after limit unlocked rows.
+    private static final String LEASE_DUE_SQL = """
+            UPDATE retry_attempts a
+            SET status = 'IN_PROGRESS', lease_owner = ?, lease_expires_at = ?, version = a.version + 1
+            FROM (SELECT id FROM retry_attempts
+                  WHERE status = 'SCHEDULED' AND scheduled_at <= ?
+                  ORDER BY scheduled_at
+                  LIMIT ?
+                  FOR UPDATE SKIP LOCKED) due
+            WHERE a.id = due.id
+            RETURNING a.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> leaseDue(String owner, Instant now, Duration leaseTtl, int limit) {
+        Timestamp at = Timestamp.from(now);
+        Timestamp expiresAt = Timestamp.from(now.plus(leaseTtl));
+        List<Long> leased = new ArrayList<>(
+                jdbcTemplate.queryForList(TAKE_OVER_EXPIRED_SQL, Long.class, owner, expiresAt, at, limit));
+        if (leased.size() < limit) {
+            leased.addAll(jdbcTemplate.queryForList(LEASE_DUE_SQL, Long.class, owner, expiresAt, at, limit - leased.size()));
+        }
+        return leased;
+    }
+}
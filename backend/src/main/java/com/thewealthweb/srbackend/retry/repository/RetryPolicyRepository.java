@@ -0,0 +1,16 @@
+package com.thewealthweb.srbackend.retry.repository;
+
+import com.thewealthweb.srbackend.retry.entity.RetryPolicy;
+import com.thewealthweb.srbackend.tenant.entity.Tenant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RetryPolicyRepository extends JpaRepository<RetryPolicy, Long> {
+
+    Optional<RetryPolicy> findByTenant(Tenant tenant);
+
+    Optional<RetryPolicy> findByTenant_TenantId(String tenantId);
+}
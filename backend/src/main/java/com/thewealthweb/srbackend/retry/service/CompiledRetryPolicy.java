@@ -0,0 +1,134 @@
+package com.thewealthweb.srbackend.retry.service;
+
+import com.thewealthweb.srbackend.retry.entity.RetryBackoffType;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Immutable, precomputed form of a tenant's retry policy.
+ * All delays are resolved to milliseconds at compile time and decline codes are held in
+ * hash sets, so nextAttemptAt is a pure function: an array index and at most two set lookups.
+ */
+public final class CompiledRetryPolicy {
+
+    public static final long NO_RETRY = -1L;
+
+    // Bounds of a policy definition; RetryPolicyDTO enforces the same ones at the API.
+    public static final long MAX_DELAY_MINUTES = 366L * 24 * 60;
+    public static final double MAX_MULTIPLIER = 10.0d;
+
+    private static final long MINUTE_MS = 60_000L;
+
+    private final long[] delaysMs;            // delaysMs[n - 1] = delay before retry n
+    private final Set<String> skipDeclineCodes;
+    private final Set<String> retryDeclineCodes; // empty = every code not skipped
+
+    private CompiledRetryPolicy(long[] delaysMs, Set<String> skipDeclineCodes, Set<String> retryDeclineCodes) {
+        this.delaysMs = delaysMs;
+        this.skipDeclineCodes = skipDeclineCodes;
+        this.retryDeclineCodes = retryDeclineCodes;
+    }
+
+    /**
+     * @param attemptNumber The retry to schedule (1-based).
+     * @param declineCode Decline code of the previous failure, or null if unknown.
+     * @param failedAtMs When the previous attempt failed, epoch millis.
+     * @return Epoch millis at which the retry is due, or NO_RETRY.
+     */
+    public long nextAttemptAt(int attemptNumber, String declineCode, long failedAtMs) {
+        if (attemptNumber < 1 || attemptNumber > delaysMs.length) {
+            return NO_RETRY;
+        }
+        if (declineCode != null) {
+            // Stripe decline codes are lower case; compile() normalized the configured ones the same way.
+            if (skipDeclineCodes.contains(declineCode)) {
+                return NO_RETRY;
+            }
+            if (!retryDeclineCodes.isEmpty() && !retryDeclineCodes.contains(declineCode)) {
+                return NO_RETRY;
+            }
+        }
+        // Delays are at most MAX_DELAY_MINUTES; only a nonsensical failedAtMs could overflow.
+        return Math.addExact(failedAtMs, delaysMs[attemptNumber - 1]);
+    }
+
+    public int maxAttempts() {
+        return delaysMs.length;
+    }
+
+    /**
+     * Resolves a policy definition into its compiled form.
+     * Every delay, including each exponential step, is capped at MAX_DELAY_MINUTES.
+     * @param maxAttempts Number of retries for every backoff type; 0 disables retries. A CUSTOM
+     *                    policy retries on the first maxAttempts entries of its schedule.
+     * @throws IllegalArgumentException if the definition is incomplete for its backoff type or out of bounds.
+     */
+    public static CompiledRetryPolicy compile(RetryBackoffType backoffType,
+                                              Long initialDelayMinutes,
+                                              Double multiplier,
+                                              Long maxDelayMinutes,
+                                              List<Long> customScheduleMinutes,
+                                              int maxAttempts,
+                                              Set<String> skipDeclineCodes,
+                                              Set<String> retryDeclineCodes) {
+        if (maxAttempts < 0) {
+            throw new IllegalArgumentException("maxAttempts cannot be negative");
+        }
+        long[] delays;
+        switch (backoffType) {
+            case FIXED -> {
+                requireDelay(initialDelayMinutes, "initialDelayMinutes");
+                delays = new long[maxAttempts];
+                for (int i = 0; i < maxAttempts; i++) {
+                    delays[i] = initialDelayMinutes * MINUTE_MS;
+                }
+            }
+            case EXPONENTIAL -> {
+                requireDelay(initialDelayMinutes, "initialDelayMinutes");
+                double factor = multiplier != null ? multiplier : 2.0d;
+                if (!(factor >= 1.0d && factor <= MAX_MULTIPLIER)) {
+                    throw new IllegalArgumentException("multiplier must be between 1 and " + MAX_MULTIPLIER);
+                }
+                if (maxDelayMinutes != null) {
+                    requireDelay(maxDelayMinutes, "maxDelayMinutes");
+                }
+                long capMs = (maxDelayMinutes != null ? maxDelayMinutes : MAX_DELAY_MINUTES) * MINUTE_MS;
+                delays = new long[maxAttempts];
+                double current = initialDelayMinutes * MINUTE_MS;
+                for (int i = 0; i < maxAttempts; i++) {
+                    delays[i] = (long) Math.min(current, capMs);
+                    current *= factor;
+                }
+            }
+            case CUSTOM -> {
+                int scheduled = customScheduleMinutes != null ? customScheduleMinutes.size() : 0;
+                if (scheduled < maxAttempts) {
+                    throw new IllegalArgumentException("customScheduleMinutes needs a delay for each of the "
+                            + maxAttempts + " attempts, got " + scheduled);
+                }
+                delays = new long[maxAttempts];
+                for (int i = 0; i < maxAttempts; i++) {
+                    requireDelay(customScheduleMinutes.get(i), "customScheduleMinutes");
+                    delays[i] = customScheduleMinutes.get(i) * MINUTE_MS;
+                }
+            }
+            default -> throw new IllegalArgumentException("Unsupported backoff type: " + backoffType);
+        }
+        return new CompiledRetryPolicy(delays, normalize(skipDeclineCodes), normalize(retryDeclineCodes));
+    }
+
+    private static Set<String> normalize(Set<String> codes) {
+        if (codes == null || codes.isEmpty()) {
+            return Set.of();
+        }
+        return Set.copyOf(codes.stream().map(code -> code.trim().toLowerCase(Locale.ROOT)).toList());
+    }
+
+    private static void requireDelay(Long value, String field) {
+        if (value == null || value <= 0 || value > MAX_DELAY_MINUTES) {
+            throw new IllegalArgumentException(field + " must be between 1 and " + MAX_DELAY_MINUTES + " minutes");
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.thewealthweb.srbackend.retry.service;
+
+import com.stripe.exception.StripeException;
+import com.stripe.model.Subscription;
+import com.stripe.model.SubscriptionCollection;
+import com.thewealthweb.srbackend.retry.dto.FailedInvoice;
+import com.thewealthweb.srbackend.stripe.dto.StripeConnectedAccount;
+import com.thewealthweb.srbackend.stripe.service.StripeMetrics;
+import com.thewealthweb.srbackend.stripe.service.StripeOAuthService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds subscriptions that are already past_due or unpaid on the current tenant's
+ * connected account and puts their latest invoice into the retry schedule.
+ * Used once after connecting an account; afterwards webhooks keep the schedule current.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DelinquentSubscriptionService {
+
+    private static final List<String> DELINQUENT_STATUSES = List.of("past_due", "unpaid");
+
+    private final StripeOAuthService stripeOAuthService;
+    private final RetryAttemptService retryAttemptService;
+    private final StripeMetrics stripeMetrics;
+
+    /**
+     * @return The number of retry attempts scheduled.
+     * @throws StripeException if listing subscriptions fails.
+     */
+    public int scheduleRetriesForCurrentTenant() throws StripeException {
+        StripeConnectedAccount account = stripeOAuthService.resolveConnectedAccountForCurrentTenant();
+        Instant now = Instant.now();
+        int scheduled = 0;
+
+        for (String status : DELINQUENT_STATUSES) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("limit", 100);
+            params.put("status", status);
+
+            SubscriptionCollection page;
+            do {
+                page = stripeMetrics.record("subscription.list", () -> Subscription.list(params, account.requestOptions()));
+                for (Subscription subscription : page.getData()) {
+                    if (subscription.getLatestInvoice() == null) {
+                        continue;
+                    }
+                    FailedInvoice failedInvoice = new FailedInvoice(account.logicalTenantId(), account.stripeUserId(),
+                            subscription.getLatestInvoice(), subscription.getId(), subscription.getCustomer(), null, now);
+                    if (retryAttemptService.scheduleForFailedInvoice(failedInvoice).isPresent()) {
+                        scheduled++;
+                    }
+                }
+                if (Boolean.TRUE.equals(page.getHasMore()) && !page.getData().isEmpty()) {
+                    params.put("starting_after", page.getData().get(page.getData().size() - 1).getId());
+                }
+            } while (Boolean.TRUE.equals(page.getHasMore()));
+        }
+
+        log.info("Scheduled {} retries for delinquent subscriptions of account {}", scheduled, account.stripeUserId());
+        return scheduled;
+    }
+}
@@ -0,0 +1,103 @@
+package com.thewealthweb.srbackend.retry.service;
+
+import com.stripe.exception.StripeException;
+import com.stripe.model.Event;
+import com.stripe.model.Invoice;
+import com.stripe.model.InvoicePayment;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.StripeObject;
+import com.stripe.param.InvoiceRetrieveParams;
+import com.thewealthweb.srbackend.retry.dto.FailedInvoice;
+import com.thewealthweb.srbackend.stripe.dto.StripeConnectedAccount;
+import com.thewealthweb.srbackend.stripe.service.StripeMetrics;
+import com.thewealthweb.srbackend.stripe.service.StripeOAuthService;
+import com.thewealthweb.srbackend.stripe.service.StripeWebhookEventHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Set;
+
+/**
+ * Turns invoice.payment_failed webhooks from connected accounts into scheduled retry attempts.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InvoicePaymentFailedHandler implements StripeWebhookEventHandler {
+
+    private final RetryAttemptService retryAttemptService;
+    private final StripeOAuthService stripeOAuthService;
+    private final StripeMetrics stripeMetrics;
+
+    @Override
+    public Set<String> eventTypes() {
+        return Set.of("invoice.payment_failed");
+    }
+
+    @Override
+    public void handle(Event event) throws Exception {
+        if (event.getAccount() == null) {
+            return; // Platform invoice, not one of our tenants' customers
+        }
+        StripeObject object = event.getDataObjectDeserializer().getObject()
+                .orElseGet(() -> {
+                    try {
+                        // Event rendered with a different API version than the SDK; fields we use are stable.
+                        return event.getDataObjectDeserializer().deserializeUnsafe();
+                    } catch (Exception e) {
+                        throw new IllegalStateException("Cannot deserialize invoice of event " + event.getId(), e);
+                    }
+                });
+        if (!(object instanceof Invoice invoice)) {
+            return;
+        }
+
+        StripeConnectedAccount account = stripeOAuthService.resolveConnectedAccount(event.getAccount());
+        String subscriptionId = invoice.getParent() != null && invoice.getParent().getSubscriptionDetails() != null
+                ? invoice.getParent().getSubscriptionDetails().getSubscription()
+                : null;
+
+        FailedInvoice failedInvoice = new FailedInvoice(account.logicalTenantId(), event.getAccount(), invoice.getId(),
+                subscriptionId, invoice.getCustomer(), declineCodeOf(invoice.getId(), account), Instant.ofEpochSecond(event.getCreated()));
+        try {
+            retryAttemptService.scheduleForFailedInvoice(failedInvoice);
+        } catch (DataIntegrityViolationException e) {
+            // Our own retry chained the same attempt number concurrently; that one wins.
+            log.debug("Retry for invoice {} already scheduled concurrently", invoice.getId());
+        }
+    }
+
+    /**
+     * Reads the decline code of the invoice's latest failed payment, so the tenant's skip/retry decline-code
+     * lists apply. The webhook payload does not carry invoice payments, hence the extra retrieve.
+     * Payments without a PaymentIntent (legacy charges) expose no payment error here.
+     * @return The decline code, else the error code, or null when Stripe reports neither or cannot be reached;
+     *         the policy then schedules the retry as for an unknown decline.
+     */
+    private String declineCodeOf(String invoiceId, StripeConnectedAccount account) {
+        InvoiceRetrieveParams params = InvoiceRetrieveParams.builder()
+                .addExpand("payments.data.payment.payment_intent")
+                .build();
+        Invoice invoice;
+        try {
+            invoice = stripeMetrics.record("invoice.retrieve", () -> Invoice.retrieve(invoiceId, params, account.requestOptions()));
+        } catch (StripeException e) {
+            log.warn("Cannot read the decline code of invoice {}: {}", invoiceId, e.getMessage());
+            return null;
+        }
+        if (invoice.getPayments() == null || invoice.getPayments().getData() == null) {
+            return null;
+        }
+        return invoice.getPayments().getData().stream()
+                .filter(payment -> payment.getPayment() != null && payment.getPayment().getPaymentIntentObject() != null)
+                .max(Comparator.comparing(InvoicePayment::getCreated, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .map(payment -> payment.getPayment().getPaymentIntentObject())
+                .map(PaymentIntent::getLastPaymentError)
+                .map(error -> error.getDeclineCode() != null ? error.getDeclineCode() : error.getCode())
+                .orElse(null);
+    }
+}
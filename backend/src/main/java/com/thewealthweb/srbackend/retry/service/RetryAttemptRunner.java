@@ -0,0 +1,85 @@
+package com.thewealthweb.srbackend.retry.service;
+
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.ApiException;
+import com.stripe.exception.CardException;
+import com.stripe.exception.RateLimitException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.Invoice;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.InvoicePayParams;
+import com.thewealthweb.srbackend.retry.entity.RetryAttempt;
+import com.thewealthweb.srbackend.stripe.dto.StripeConnectedAccount;
+import com.thewealthweb.srbackend.stripe.service.StripeMetrics;
+import com.thewealthweb.srbackend.stripe.service.StripeOAuthService;
+import com.thewealthweb.srbackend.tenant.config.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+/**
+ * Executes a single due retry attempt, already leased to this node, against the connected account that owns the invoice.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RetryAttemptRunner {
+
+    @Value("${retry.transient-error-delay:PT5M}")
+    private Duration transientErrorDelay;
+
+    private final RetryAttemptService retryAttemptService;
+    private final StripeOAuthService stripeOAuthService;
+    private final StripeMetrics stripeMetrics;
+
+    public void execute(Long attemptId) {
+        RetryAttempt attempt = retryAttemptService.findById(attemptId).orElse(null);
+        if (attempt == null) {
+            return;
+        }
+
+        TenantContext.Scope tenantScope = TenantContext.open(attempt.getTenantId());
+        try {
+            StripeConnectedAccount account = stripeOAuthService.resolveConnectedAccount(attempt.getStripeAccountId());
+            Invoice invoice = stripeMetrics.record("invoice.retrieve",
+                    () -> Invoice.retrieve(attempt.getInvoiceId(), account.requestOptions()));
+
+            if ("paid".equals(invoice.getStatus())) {
+                retryAttemptService.markSucceeded(attemptId);
+                return;
+            }
+            if (!"open".equals(invoice.getStatus())) {
+                retryAttemptService.markCancelled(attemptId, "Invoice is " + invoice.getStatus());
+                return;
+            }
+
+            // A node taking over an abandoned lease repeats the pay call; Stripe answers it from the first one.
+            // Requeues move scheduledAt, so a retry after a transient error is a new request.
+            RequestOptions payOptions = account.requestOptions().toBuilderFullCopy()
+                    .setIdempotencyKey("retry-attempt-" + attemptId + "-" + attempt.getScheduledAt().toEpochMilli())
+                    .build();
+            stripeMetrics.record("invoice.pay", () -> invoice.pay(InvoicePayParams.builder().build(), payOptions));
+            retryAttemptService.markSucceeded(attemptId);
+            log.info("Retry #{} paid invoice {} on account {}", attempt.getAttemptNumber(), attempt.getInvoiceId(), attempt.getStripeAccountId());
+
+        } catch (CardException e) {
+            log.info("Retry #{} for invoice {} declined: {}", attempt.getAttemptNumber(), attempt.getInvoiceId(), e.getDeclineCode());
+            retryAttemptService.recordFailure(attemptId, e.getDeclineCode(), e.getMessage());
+        } catch (RateLimitException | ApiConnectionException | ApiException e) {
+            log.warn("Transient Stripe error for retry {} (invoice {}): {}", attemptId, attempt.getInvoiceId(), e.getMessage());
+            retryAttemptService.requeue(attemptId, e.getMessage(), transientErrorDelay);
+        } catch (StripeException e) {
+            log.warn("Stripe rejected retry {} (invoice {}): {}", attemptId, attempt.getInvoiceId(), e.getMessage());
+            retryAttemptService.recordFailure(attemptId, e.getCode(), e.getMessage());
+        } catch (ResponseStatusException e) {
+            // The account was disconnected from its tenant; there is nothing left to charge on.
+            retryAttemptService.markCancelled(attemptId, e.getReason());
+        } finally {
+            tenantScope.close();
+        }
+    }
+}
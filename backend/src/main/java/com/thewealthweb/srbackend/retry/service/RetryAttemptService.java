@@ -0,0 +1,178 @@
+package com.thewealthweb.srbackend.retry.service;
+
+import com.thewealthweb.srbackend.config.NodeIdentity;
+import com.thewealthweb.srbackend.retry.dto.FailedInvoice;
+import com.thewealthweb.srbackend.retry.dto.RetryAttemptDTO;
+import com.thewealthweb.srbackend.retry.entity.RetryAttempt;
+import com.thewealthweb.srbackend.retry.entity.RetryAttemptStatus;
+import com.thewealthweb.srbackend.retry.mapper.RetryAttemptMapper;
+import com.thewealthweb.srbackend.retry.repository.RetryAttemptRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Optional;
+
+/**
+ * Owns the lifecycle of retry attempts in the retry_attempts table.
+ * Outcomes are only recorded by the node holding the attempt's lease (see RetryScheduler); a worker that
+ * overran its lease and lost the attempt to another node leaves the row to the new owner.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RetryAttemptService {
+
+    private static final EnumSet<RetryAttemptStatus> ACTIVE = EnumSet.of(RetryAttemptStatus.SCHEDULED, RetryAttemptStatus.IN_PROGRESS);
+
+    private final RetryAttemptRepository retryAttemptRepository;
+    private final RetryScheduleCalculator retryScheduleCalculator;
+    private final RetryAttemptMapper retryAttemptMapper;
+    private final NodeIdentity nodeIdentity;
+
+    /**
+     * Schedules the next retry for a failed invoice unless one is already pending
+     * or the retry schedule is exhausted. Safe to call repeatedly for the same failure.
+     * @param failedInvoice The failed invoice.
+     * @return The scheduled attempt, or empty if nothing was scheduled.
+     */
+    @Transactional
+    public Optional<RetryAttempt> scheduleForFailedInvoice(FailedInvoice failedInvoice) {
+        if (retryAttemptRepository.existsByInvoiceIdAndStatusIn(failedInvoice.invoiceId(), ACTIVE)) {
+            log.debug("Invoice {} already has a pending retry", failedInvoice.invoiceId());
+            return Optional.empty();
+        }
+
+        int attemptNumber = retryAttemptRepository.findTopByInvoiceIdOrderByAttemptNumberDesc(failedInvoice.invoiceId())
+                .map(last -> last.getAttemptNumber() + 1)
+                .orElse(1);
+
+        return scheduleAttempt(failedInvoice, attemptNumber);
+    }
+
+    /**
+     * Returns an attempt leased by this node to the schedule without running it.
+     */
+    @Transactional
+    public void releaseLease(Long attemptId) {
+        retryAttemptRepository.releaseLease(attemptId, nodeIdentity.getId(),
+                RetryAttemptStatus.IN_PROGRESS, RetryAttemptStatus.SCHEDULED);
+    }
+
+    @Transactional
+    public void markSucceeded(Long attemptId) {
+        finish(attemptId, RetryAttemptStatus.SUCCEEDED, null, null);
+    }
+
+    @Transactional
+    public void markCancelled(Long attemptId, String reason) {
+        finish(attemptId, RetryAttemptStatus.CANCELLED, null, reason);
+    }
+
+    /**
+     * Records a declined or rejected payment and chains the next attempt if the schedule allows it.
+     * @param attemptId The attempt that failed.
+     * @param declineCode The card decline code, if any.
+     * @param error The error message from Stripe.
+     */
+    @Transactional
+    public void recordFailure(Long attemptId, String declineCode, String error) {
+        RetryAttempt attempt = finish(attemptId, RetryAttemptStatus.FAILED, declineCode, error);
+        if (attempt == null) {
+            return;
+        }
+        FailedInvoice failedInvoice = new FailedInvoice(attempt.getTenantId(), attempt.getStripeAccountId(),
+                attempt.getInvoiceId(), attempt.getSubscriptionId(), attempt.getCustomerId(), declineCode, attempt.getExecutedAt());
+        scheduleAttempt(failedInvoice, attempt.getAttemptNumber() + 1);
+    }
+
+    /**
+     * Puts an attempt back into the schedule after a transient error (rate limit, network, 5xx),
+     * without consuming one of the invoice's retries.
+     */
+    @Transactional
+    public void requeue(Long attemptId, String error, Duration delay) {
+        RetryAttempt attempt = findLeased(attemptId);
+        if (attempt == null) {
+            return;
+        }
+        attempt.setStatus(RetryAttemptStatus.SCHEDULED);
+        attempt.setScheduledAt(Instant.now().plus(delay));
+        attempt.setLastError(truncate(error));
+        attempt.setLeaseOwner(null);
+        attempt.setLeaseExpiresAt(null);
+        retryAttemptRepository.save(attempt);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<RetryAttempt> findById(Long attemptId) {
+        return retryAttemptRepository.findById(attemptId);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<RetryAttemptDTO> listForTenant(String tenantId, Pageable pageable) {
+        return retryAttemptRepository.findByTenantIdOrderByScheduledAtDesc(tenantId, pageable)
+                .map(retryAttemptMapper::toDto);
+    }
+
+    private Optional<RetryAttempt> scheduleAttempt(FailedInvoice failedInvoice, int attemptNumber) {
+        Optional<Instant> dueAt = retryScheduleCalculator.nextAttemptAt(failedInvoice.tenantId(), attemptNumber,
+                failedInvoice.declineCode(), failedInvoice.failedAt());
+        if (dueAt.isEmpty()) {
+            log.info("Retry schedule exhausted for invoice {} after {} attempts", failedInvoice.invoiceId(), attemptNumber - 1);
+            return Optional.empty();
+        }
+
+        RetryAttempt attempt = RetryAttempt.builder()
+                .tenantId(failedInvoice.tenantId())
+                .stripeAccountId(failedInvoice.stripeAccountId())
+                .invoiceId(failedInvoice.invoiceId())
+                .subscriptionId(failedInvoice.subscriptionId())
+                .customerId(failedInvoice.customerId())
+                .attemptNumber(attemptNumber)
+                .status(RetryAttemptStatus.SCHEDULED)
+                .scheduledAt(dueAt.get())
+                .createdAt(Instant.now())
+                .build();
+        attempt = retryAttemptRepository.save(attempt);
+        log.info("Scheduled retry #{} for invoice {} at {}", attemptNumber, failedInvoice.invoiceId(), dueAt.get());
+        return Optional.of(attempt);
+    }
+
+    // Null when the attempt is no longer leased to this node.
+    private RetryAttempt finish(Long attemptId, RetryAttemptStatus status, String declineCode, String error) {
+        RetryAttempt attempt = findLeased(attemptId);
+        if (attempt == null) {
+            return null;
+        }
+        attempt.setStatus(status);
+        attempt.setLeaseExpiresAt(null);
+        attempt.setExecutedAt(Instant.now());
+        attempt.setDeclineCode(declineCode);
+        attempt.setLastError(truncate(error));
+        return retryAttemptRepository.save(attempt);
+    }
+
+    private RetryAttempt findLeased(Long attemptId) {
+        RetryAttempt attempt = retryAttemptRepository.findById(attemptId)
+                .orElseThrow(() -> new IllegalArgumentException("Retry attempt not found: " + attemptId));
+        if (attempt.getStatus() != RetryAttemptStatus.IN_PROGRESS || !nodeIdentity.getId().equals(attempt.getLeaseOwner())) {
+            log.warn("Lease on retry attempt {} was lost to {}; leaving its outcome to that node", attemptId, attempt.getLeaseOwner());
+            return null;
+        }
+        return attempt;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1024 ? message.substring(0, 1024) : message;
+    }
+}
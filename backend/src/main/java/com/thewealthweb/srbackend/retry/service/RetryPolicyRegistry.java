@@ -0,0 +1,109 @@
+package com.thewealthweb.srbackend.retry.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.thewealthweb.srbackend.retry.entity.RetryBackoffType;
+import com.thewealthweb.srbackend.retry.entity.RetryPolicy;
+import com.thewealthweb.srbackend.retry.mapper.RetryPolicyMapper;
+import com.thewealthweb.srbackend.retry.repository.RetryPolicyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cache of compiled retry policies per logical tenant id.
+ * Local updates invalidate their entry immediately; the expiry only bounds how long
+ * another node can keep serving a policy that was changed elsewhere.
+ */
+@Component
+@Slf4j
+public class RetryPolicyRegistry {
+
+    private final RetryPolicyRepository retryPolicyRepository;
+    private final RetryPolicyMapper retryPolicyMapper;
+    private final List<Long> defaultScheduleMinutes;
+    private final Set<String> defaultSkipDeclineCodes;
+    private final CompiledRetryPolicy defaultPolicy;
+    private final LoadingCache<String, CompiledRetryPolicy> policies;
+
+    public RetryPolicyRegistry(RetryPolicyRepository retryPolicyRepository,
+                               RetryPolicyMapper retryPolicyMapper,
+                               @Value("${retry.default-schedule:PT24H,PT72H,PT120H,PT168H}") List<Duration> defaultSchedule,
+                               @Value("${retry.default-skip-decline-codes:}") Set<String> defaultSkipDeclineCodes,
+                               @Value("${retry.policy-cache.max-tenants:10000}") long maxTenants,
+                               @Value("${retry.policy-cache.ttl:PT10M}") Duration ttl) {
+        this.retryPolicyRepository = retryPolicyRepository;
+        this.retryPolicyMapper = retryPolicyMapper;
+        this.defaultScheduleMinutes = defaultSchedule.stream().map(Duration::toMinutes).toList();
+        this.defaultSkipDeclineCodes = Set.copyOf(defaultSkipDeclineCodes);
+        this.defaultPolicy = CompiledRetryPolicy.compile(RetryBackoffType.CUSTOM, null, null, null,
+                defaultScheduleMinutes, defaultScheduleMinutes.size(), this.defaultSkipDeclineCodes, Set.of());
+        this.policies = Caffeine.newBuilder()
+                .maximumSize(maxTenants)
+                .expireAfterWrite(ttl)
+                .build(this::load);
+    }
+
+    /**
+     * @return The compiled policy of the tenant, or the platform default if it has none.
+     */
+    public CompiledRetryPolicy policyFor(String tenantId) {
+        if (tenantId == null) {
+            return defaultPolicy;
+        }
+        return policies.get(tenantId);
+    }
+
+    public CompiledRetryPolicy getDefaultPolicy() {
+        return defaultPolicy;
+    }
+
+    /**
+     * @return The platform default schedule (retry.default-schedule), in minutes.
+     */
+    public List<Long> getDefaultScheduleMinutes() {
+        return defaultScheduleMinutes;
+    }
+
+    /**
+     * @return The decline codes the platform default never retries (retry.default-skip-decline-codes).
+     */
+    public Set<String> getDefaultSkipDeclineCodes() {
+        return defaultSkipDeclineCodes;
+    }
+
+    public void invalidate(String tenantId) {
+        policies.invalidate(tenantId);
+    }
+
+    /**
+     * Compiles a stored policy; also used to validate a policy before it is saved.
+     */
+    public CompiledRetryPolicy compile(RetryPolicy policy) {
+        return CompiledRetryPolicy.compile(policy.getBackoffType(),
+                policy.getInitialDelayMinutes(),
+                policy.getMultiplier(),
+                policy.getMaxDelayMinutes(),
+                retryPolicyMapper.csvToMinutes(policy.getCustomScheduleMinutes()),
+                policy.getMaxAttempts(),
+                retryPolicyMapper.csvToCodes(policy.getSkipDeclineCodes()),
+                retryPolicyMapper.csvToCodes(policy.getRetryDeclineCodes()));
+    }
+
+    private CompiledRetryPolicy load(String tenantId) {
+        return retryPolicyRepository.findByTenant_TenantId(tenantId)
+                .map(policy -> {
+                    try {
+                        return compile(policy);
+                    } catch (IllegalArgumentException e) {
+                        log.error("Stored retry policy of tenant {} is invalid, using default: {}", tenantId, e.getMessage());
+                        return defaultPolicy;
+                    }
+                })
+                .orElse(defaultPolicy);
+    }
+}
@@ -0,0 +1,71 @@
+package com.thewealthweb.srbackend.retry.service;
+
+import com.thewealthweb.srbackend.retry.dto.RetryPolicyDTO;
+import com.thewealthweb.srbackend.retry.entity.RetryBackoffType;
+import com.thewealthweb.srbackend.retry.entity.RetryPolicy;
+import com.thewealthweb.srbackend.retry.mapper.RetryPolicyMapper;
+import com.thewealthweb.srbackend.retry.repository.RetryPolicyRepository;
+import com.thewealthweb.srbackend.tenant.entity.Tenant;
+import com.thewealthweb.srbackend.tenant.service.TenantRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class RetryPolicyService {
+
+    private final RetryPolicyRepository retryPolicyRepository;
+    private final TenantRegistry tenantRegistry;
+    private final RetryPolicyMapper retryPolicyMapper;
+    private final RetryPolicyRegistry retryPolicyRegistry;
+
+    @Transactional(readOnly = true)
+    public RetryPolicyDTO getPolicy(String tenantId) {
+        return retryPolicyRepository.findByTenant_TenantId(tenantId)
+                .map(retryPolicyMapper::toDto)
+                .orElseGet(this::defaultPolicyDto);
+    }
+
+    /**
+     * Creates or replaces the tenant's retry policy. The policy is compiled before it is
+     * stored, so an invalid definition is rejected instead of silently falling back later.
+     * @throws IllegalArgumentException if the tenant does not exist or the policy is invalid.
+     */
+    @Transactional
+    public RetryPolicyDTO updatePolicy(String tenantId, RetryPolicyDTO dto) {
+        Tenant tenant = tenantRegistry.getReference(tenantId)
+                .orElseThrow(() -> new IllegalArgumentException("Tenant not found with ID: " + tenantId));
+
+        RetryPolicy policy = retryPolicyRepository.findByTenant(tenant).orElse(new RetryPolicy());
+        retryPolicyMapper.updateEntity(dto, policy);
+        policy.setTenant(tenant);
+        retryPolicyRegistry.compile(policy);
+
+        RetryPolicy saved = retryPolicyRepository.save(policy);
+
+        // Drop the cached evaluator only once the new definition is visible to the reload.
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                retryPolicyRegistry.invalidate(tenantId);
+            }
+        });
+        return retryPolicyMapper.toDto(saved);
+    }
+
+    private RetryPolicyDTO defaultPolicyDto() {
+        RetryPolicyDTO dto = new RetryPolicyDTO();
+        dto.setBackoffType(RetryBackoffType.CUSTOM);
+        dto.setCustomScheduleMinutes(retryPolicyRegistry.getDefaultScheduleMinutes());
+        dto.setMaxAttempts(retryPolicyRegistry.getDefaultScheduleMinutes().size());
+        dto.setSkipDeclineCodes(retryPolicyRegistry.getDefaultSkipDeclineCodes());
+        dto.setRetryDeclineCodes(Set.of());
+        dto.setTenantDefault(true);
+        return dto;
+    }
+}
@@ -0,0 +1,30 @@
+package com.thewealthweb.srbackend.retry.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Decides when the next retry of a failed invoice is due, using the tenant's compiled policy.
+ */
+@Component
+@RequiredArgsConstructor
+public class RetryScheduleCalculator {
+
+    private final RetryPolicyRegistry retryPolicyRegistry;
+
+    /**
+     * @param tenantId The logical tenant id owning the invoice.
+     * @param attemptNumber The number of the retry to schedule (1-based).
+     * @param declineCode The decline code of the previous failure, if known.
+     * @param failedAt When the previous attempt failed.
+     * @return When the retry is due, or empty if the invoice should not be retried again.
+     */
+    public Optional<Instant> nextAttemptAt(String tenantId, int attemptNumber, String declineCode, Instant failedAt) {
+        long dueAt = retryPolicyRegistry.policyFor(tenantId)
+                .nextAttemptAt(attemptNumber, declineCode, failedAt.toEpochMilli());
+        return dueAt == CompiledRetryPolicy.NO_RETRY ? Optional.empty() : Optional.of(Instant.ofEpochMilli(dueAt));
+    }
+}
@@ -0,0 +1,139 @@
+package com.thewealthweb.srbackend.retry.service;
+
+import com.thewealthweb.srbackend.config.NodeIdentity;
+import com.thewealthweb.srbackend.retry.repository.RetryAttemptRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cluster-safe dispatcher of due retry attempts; every replica runs one.
+ * It leases batches of due attempts from retry_attempts with FOR UPDATE SKIP LOCKED, so replicas polling
+ * at the same time take disjoint batches without any coordinator, and throughput grows with the number
+ * of nodes until the database becomes the limit. A node never leases more than its workers can run.
+ * A lease lasts retry.lease.ttl: attempts left IN_PROGRESS by a crashed node are taken over by the
+ * next poll on any node once it expires.
+ */
+@Component
+@Slf4j
+public class RetryScheduler {
+
+    @Value("${retry.lease.poll-interval:PT1S}")
+    private Duration pollInterval;
+
+    @Value("${retry.lease.batch-size:50}")
+    private int batchSize;
+
+    @Value("${retry.lease.ttl:PT5M}")
+    private Duration leaseTtl;
+
+    @Value("${retry.lease.max-in-flight:64}")
+    private int maxInFlight;
+
+    private final RetryAttemptRepository retryAttemptRepository;
+    private final RetryAttemptService retryAttemptService;
+    private final RetryAttemptRunner retryAttemptRunner;
+    private final TaskExecutor retryExecutor;
+    private final NodeIdentity nodeIdentity;
+
+    // Attempts leased by this node and not finished yet.
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private Thread pollerThread;
+    private volatile boolean running;
+
+    public RetryScheduler(RetryAttemptRepository retryAttemptRepository,
+                          RetryAttemptService retryAttemptService,
+                          RetryAttemptRunner retryAttemptRunner,
+                          @Qualifier("retryExecutor") TaskExecutor retryExecutor,
+                          NodeIdentity nodeIdentity) {
+        this.retryAttemptRepository = retryAttemptRepository;
+        this.retryAttemptService = retryAttemptService;
+        this.retryAttemptRunner = retryAttemptRunner;
+        this.retryExecutor = retryExecutor;
+        this.nodeIdentity = nodeIdentity;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        pollerThread = new Thread(this::pollLoop, "retry-scheduler");
+        pollerThread.setDaemon(true);
+        pollerThread.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (pollerThread != null) {
+            pollerThread.interrupt();
+        }
+    }
+
+    public int getInFlightCount() {
+        return inFlight.get();
+    }
+
+    private void pollLoop() {
+        while (running) {
+            boolean fullBatch = false;
+            try {
+                fullBatch = leaseAndDispatch();
+            } catch (RuntimeException e) {
+                log.error("Leasing due retry attempts failed: {}", e.getMessage());
+            }
+            // A full batch means more is due right now; otherwise wait for the next poll.
+            if (!fullBatch) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(pollInterval.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Leases as many due attempts as this node has free workers for and hands them to the retry executor.
+     * @return true if the batch came back full.
+     */
+    boolean leaseAndDispatch() {
+        int capacity = Math.min(batchSize, maxInFlight - inFlight.get());
+        if (capacity <= 0) {
+            return false;
+        }
+        List<Long> leased = retryAttemptRepository.leaseDue(nodeIdentity.getId(), Instant.now(), leaseTtl, capacity);
+        for (Long attemptId : leased) {
+            inFlight.incrementAndGet();
+            try {
+                retryExecutor.execute(() -> {
+                    try {
+                        retryAttemptRunner.execute(attemptId);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            } catch (TaskRejectedException e) {
+                // Workers are saturated: give the attempt back so this or another node picks it up shortly.
+                inFlight.decrementAndGet();
+                retryAttemptService.releaseLease(attemptId);
+            }
+        }
+        if (!leased.isEmpty()) {
+            log.debug("Leased {} retry attempts to {}", leased.size(), nodeIdentity.getId());
+        }
+        return leased.size() == capacity;
+    }
+}
@@ -13,22 +13,45 @@ import java.util.stream.Collectors;
 @Getter
 public class CustomUserDetails implements UserDetails {
 
-    private final User user;
+    private final User user; // Null when the principal was built from JWT claims only
+    private final Long userId;
+    private final String username;
+    private final String tenantId;
     private final Collection<? extends GrantedAuthority> authorities;
 
     public CustomUserDetails(User user) {
         this.user = user;
+        this.userId = user.getId();
+        this.username = user.getUsername();
+        this.tenantId = user.getTenant() != null ? user.getTenant().getTenantId() : null;
         this.authorities = user.getRoles().stream()
                 .map(Role::getName)
                 .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
                 .collect(Collectors.toSet());
     }
 
+    private CustomUserDetails(Long userId, String username, String tenantId, Collection<? extends GrantedAuthority> authorities) {
+        this.user = null;
+        this.userId = userId;
+        this.username = username;
+        this.tenantId = tenantId;
+        this.authorities = authorities;
+    }
+
+    /**
+     * Builds a principal from the claims of an already verified access token, without loading the user.
+     * @param roles Authorities as written by JwtTokenProvider.generateToken (e.g. ROLE_COMPANY_ADMIN).
+     */
+    public static CustomUserDetails fromClaims(Long userId, String username, String tenantId, Collection<String> roles) {
+        return new CustomUserDetails(userId, username, tenantId,
+                roles.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toUnmodifiableSet()));
+    }
+
     @Override public Collection<? extends GrantedAuthority> getAuthorities() { return authorities; }
-    @Override public String getPassword() { return user.getPassword(); }
-    @Override public String getUsername() { return user.getUsername(); }
+    @Override public String getPassword() { return user != null ? user.getPassword() : null; }
+    @Override public String getUsername() { return username; }
     @Override public boolean isAccountNonExpired() { return true; }
     @Override public boolean isAccountNonLocked() { return true; }
     @Override public boolean isCredentialsNonExpired() { return true; }
-    @Override public boolean isEnabled() { return user.isEnabled(); }
+    @Override public boolean isEnabled() { return user == null || user.isEnabled(); }
 }
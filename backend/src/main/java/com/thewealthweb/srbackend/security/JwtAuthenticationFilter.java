@@ -1,6 +1,7 @@
 package com.thewealthweb.srbackend.security;
 
-import com.thewealthweb.srbackend.user.security.CustomUserDetailsService;
+import com.thewealthweb.srbackend.user.security.CachedUserLookup;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,21 +9,30 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     @Autowired
     private JwtTokenProvider tokenProvider;
     @Autowired
-    private CustomUserDetailsService userDetailsService;
+    private CachedUserLookup cachedUserLookup;
+
+    // claims: principal built from the token's roles/tenantId claims, no database access.
+    //         Role changes and disabled accounts take effect when the token expires.
+    // database: principal loaded from the (cached) user entity on every request.
+    @Value("${security.jwt.auth-mode:claims}")
+    private String authMode;
 
     private static final Logger logg = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
@@ -32,27 +42,38 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        String token = getJwtFromRequest(request);
-
-        if (token != null && tokenProvider.validateToken(token)) {
-            String username = tokenProvider.getUsernameFromToken(token);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        Claims claims = tokenProvider.resolveClaims(request);
 
-            UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        if (claims != null) {
+            CustomUserDetails userDetails = buildPrincipal(claims);
+            if (userDetails != null && userDetails.isEnabled()) {
+                UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
 
-            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
 
         filterChain.doFilter(request, response);
     }
 
-    private String getJwtFromRequest(HttpServletRequest request) {
-        String bearer = request.getHeader("Authorization");
-        if (bearer != null && bearer.startsWith("Bearer ")) {
-            return bearer.substring(7);
+    private CustomUserDetails buildPrincipal(Claims claims) {
+        String username = claims.getSubject();
+        Object roles = claims.get("roles");
+        String tenantId = claims.get("tenantId", String.class);
+
+        if ("claims".equals(authMode) && roles instanceof List<?> roleList && tenantId != null) {
+            Number userId = claims.get("userId", Number.class);
+            return CustomUserDetails.fromClaims(userId != null ? userId.longValue() : null, username, tenantId,
+                    roleList.stream().map(String::valueOf).toList());
+        }
+        // Database mode, or a token issued before the claims were added.
+        try {
+            return new CustomUserDetails(cachedUserLookup.getUser(username));
+        } catch (UsernameNotFoundException e) {
+            logg.debug("JWT subject {} no longer exists", username);
+            return null;
         }
-        return null;
     }
 }
@@ -1,9 +1,13 @@
 package com.thewealthweb.srbackend.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.Order;
 import org.springframework.security.core.GrantedAuthority;
@@ -15,11 +19,24 @@ import java.util.stream.Collectors;
 
 @Component
 @Order(1)
+@Slf4j
 public class JwtTokenProvider {
 
+    // Request attribute holding the verified claims (or INVALID_TOKEN), so each request verifies its token once.
+    static final String CLAIMS_ATTRIBUTE = JwtTokenProvider.class.getName() + ".claims";
+    private static final Object INVALID_TOKEN = new Object();
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
+    // Thread-safe and immutable; building it resolves the key and signature validator once.
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void initParser() {
+        jwtParser = Jwts.parserBuilder().setSigningKey(jwtSecret.getBytes()).build();
+    }
+
     public String generateToken(UserDetails userDetails) {
 
         CustomUserDetails customUserDetails = (CustomUserDetails) userDetails;
@@ -31,26 +48,60 @@ public class JwtTokenProvider {
                 .claim("roles", userDetails.getAuthorities().stream()
                         .map(GrantedAuthority::getAuthority).collect(Collectors.toList()))
                 .claim("tenantId", customUserDetails.getUser().getTenant().getTenantId())
+                .claim("userId", customUserDetails.getUser().getId())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationInMs))
                 .signWith(SignatureAlgorithm.HS512, jwtSecret.getBytes())
                 .compact();
     }
 
+    /**
+     * Verifies the token and returns its claims in a single parse.
+     * @param token The compact JWT.
+     * @return The claims, or null if the token is invalid or expired.
+     */
+    public Claims parseClaims(String token) {
+        try {
+            return jwtParser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Invalid JWT: {}", e.getMessage());
+            return null;
+        }
+    }
+
     public String getUsernameFromToken(String token) {
-        return Jwts.parser().setSigningKey(jwtSecret.getBytes()).parseClaimsJws(token).getBody().getSubject();
+        return jwtParser.parseClaimsJws(token).getBody().getSubject();
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parser().setSigningKey(jwtSecret.getBytes()).parseClaimsJws(token);
+            jwtParser.parseClaimsJws(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
-            System.err.println("Invalid JWT: " + e.getMessage());
+            log.debug("Invalid JWT: {}", e.getMessage());
         }
         return false;
     }
 
+    /**
+     * Returns the verified claims of the request's bearer token, verifying the signature only on the first call.
+     * Shared by JwtAuthenticationFilter, TenantFilter and /auth/validate.
+     * @return The claims, or null if there is no token or it is invalid.
+     */
+    public Claims resolveClaims(HttpServletRequest request) {
+        Object cached = request.getAttribute(CLAIMS_ATTRIBUTE);
+        if (cached != null) {
+            return cached == INVALID_TOKEN ? null : (Claims) cached;
+        }
+        String token = resolveToken(request);
+        if (token == null) {
+            return null; // Cheap to re-check; nothing to remember
+        }
+        Claims claims = parseClaims(token);
+        request.setAttribute(CLAIMS_ATTRIBUTE, claims != null ? claims : INVALID_TOKEN);
+        return claims;
+    }
+
     public String resolveToken(HttpServletRequest request) {
         String bearer = request.getHeader("Authorization");
         if (bearer != null && bearer.startsWith("Bearer ")) {
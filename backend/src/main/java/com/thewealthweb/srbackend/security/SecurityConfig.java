@@ -4,6 +4,7 @@ import com.thewealthweb.srbackend.tenant.exception.CustomAccessDeniedHandler;
 import com.thewealthweb.srbackend.tenant.exception.CustomAuthenticationEntryPoint;
 import com.thewealthweb.srbackend.user.security.CustomUserDetailsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -14,7 +15,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -37,6 +37,7 @@ public class SecurityConfig {
     private final CustomAccessDeniedHandler customAccessDeniedHandler;
     private final CustomAuthenticationEntryPoint customAuthenticationEntryPoint;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final PasswordEncoder passwordEncoder; // Bounded, see PasswordHashingConfig
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -52,6 +53,9 @@ public class SecurityConfig {
                                 .requestMatchers(antMatcher("/stripe/oauth/callback")).permitAll() // Stripe redirects here, no auth token yet
                                 .requestMatchers(antMatcher("/stripe/oauth/connect")).authenticated() // User must be logged into your app
                                 .requestMatchers(antMatcher("/stripe/oauth/data/**")).authenticated() // Data fetching requires login
+                                .requestMatchers(antMatcher(HttpMethod.POST, "/stripe/webhook")).permitAll() // Authenticated by Stripe-Signature instead
+                                // Health and metrics scrape; only reachable on the internal management port (management.server.port)
+                                .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
                                 // ==============================
                                 .anyRequest().authenticated()
                 )
@@ -71,15 +75,10 @@ public class SecurityConfig {
     public DaoAuthenticationProvider daoAuthenticationProvider() {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(customUserDetailsService);
-        provider.setPasswordEncoder(passwordEncoder());
+        provider.setPasswordEncoder(passwordEncoder);
         return provider;
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(); // Secure password hashing
-    }
-
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
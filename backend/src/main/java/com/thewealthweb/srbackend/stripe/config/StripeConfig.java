@@ -1,17 +1,30 @@
 package com.thewealthweb.srbackend.stripe.config;
 
 import com.stripe.Stripe;
+import com.thewealthweb.srbackend.stripe.service.PartitionedEventExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.time.Duration;
+
 @Configuration
 public class StripeConfig {
 
     @Value("${stripe.connect.client-secret}")
     private String stripeClientSecret;
 
+    @Value("${stripe.webhook.processing.lanes:0}")
+    private int webhookProcessingLanes;
+
+    @Value("${stripe.webhook.processing.lane-queue-capacity:2000}")
+    private int webhookLaneQueueCapacity;
+
+    @Value("${stripe.webhook.processing.offer-timeout:PT0.05S}")
+    private Duration webhookOfferTimeout;
+
     // Optional: Configure a WebClient for external HTTP calls (like OAuth token exchange)
     @Bean
     public WebClient.Builder webClientBuilder() {
@@ -24,4 +37,14 @@ public class StripeConfig {
         Stripe.apiKey = stripeClientSecret;
         return stripeClientSecret;
     }
+
+    // Executor for asynchronous webhook processing, kept off the Tomcat request threads.
+    // One ordered lane per shard of connected accounts, one lane per core unless configured.
+    // When a lane is full the event stays in the inbox and the recovery sweep picks it up.
+    @Bean(name = "stripeWebhookExecutor")
+    public PartitionedEventExecutor stripeWebhookExecutor(MeterRegistry meterRegistry) {
+        int lanes = webhookProcessingLanes > 0 ? webhookProcessingLanes : Runtime.getRuntime().availableProcessors();
+        return new PartitionedEventExecutor("stripe.webhook.lanes", lanes, webhookLaneQueueCapacity,
+                webhookOfferTimeout, meterRegistry);
+    }
 }
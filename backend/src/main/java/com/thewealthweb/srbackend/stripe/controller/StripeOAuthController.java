@@ -1,18 +1,26 @@
 package com.thewealthweb.srbackend.stripe.controller;
 
 import com.stripe.exception.StripeException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.stripe.model.Subscription;
+import com.stripe.model.SubscriptionCollection;
+import com.stripe.net.ApiResource;
 import com.thewealthweb.srbackend.common.dto.ErrorMessage;
 import com.thewealthweb.srbackend.security.CustomUserDetails;
 import com.thewealthweb.srbackend.stripe.dto.StripeAccessTokenResponse;
 import com.thewealthweb.srbackend.stripe.service.StripeOAuthService;
+import com.thewealthweb.srbackend.subscription.dto.SubscriptionDTO;
+import com.thewealthweb.srbackend.subscription.dto.SubscriptionPageDTO;
+import com.thewealthweb.srbackend.subscription.dto.SubscriptionSummaryDTO;
+import com.thewealthweb.srbackend.subscription.mapper.SubscriptionMapper;
+import com.thewealthweb.srbackend.subscription.service.SubscriptionQueryService;
 import com.thewealthweb.srbackend.tenant.config.TenantContext;
-import com.thewealthweb.srbackend.user.dto.UserDTO;
-import com.thewealthweb.srbackend.user.entity.User;
-import com.thewealthweb.srbackend.user.mapper.UserMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -20,8 +28,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.view.RedirectView;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -30,8 +43,13 @@ import java.util.List;
 @Slf4j
 public class StripeOAuthController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int STREAM_FLUSH_EVERY = 100; // One Stripe page
+
     private final StripeOAuthService stripeOAuthService;
-    private final UserMapper userMapper;
+    private final SubscriptionMapper subscriptionMapper;
+    private final SubscriptionQueryService subscriptionQueryService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Endpoint to initiate the Stripe Connect OAuth flow.
@@ -40,14 +58,14 @@ public class StripeOAuthController {
      * @return A RedirectView to send the user to Stripe's authorization page.
      */
     @GetMapping("/connect")
-    public RedirectView connectStripeAccount(@AuthenticationPrincipal User currentUser) {
-        if (currentUser == null || currentUser.getTenant() == null || currentUser.getTenant().getTenantId() == null) {
+    public RedirectView connectStripeAccount(@AuthenticationPrincipal CustomUserDetails currentUser) {
+        if (currentUser == null || currentUser.getTenantId() == null) {
             log.warn("Unauthorized attempt to connect Stripe account - no current user, tenant, or tenantId.");
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentication and valid tenant context required to connect Stripe.");
         }
 
-        String logicalTenantId = currentUser.getTenant().getTenantId(); // Get the String tenantId from the Tenant object
-        Long userId = currentUser.getId();
+        String logicalTenantId = currentUser.getTenantId(); // The String tenantId from the token
+        Long userId = currentUser.getUserId();
 
         String stripeOAuthUrl = stripeOAuthService.generateOAuthUrl(logicalTenantId, userId); // Pass the String tenantId
         log.info("Redirecting tenant {} to Stripe for OAuth.", logicalTenantId);
@@ -56,25 +74,91 @@ public class StripeOAuthController {
 
     // ... (rest of the controller methods remain largely the same, they rely on TenantContext) ...
 
+    /**
+     * Lists the tenant's subscriptions from the local mirror, one page at a time.
+     * It used to walk the whole Stripe listing on every request.
+     * @deprecated Use GET /api/subscriptions, which this now answers the same way.
+     */
+    @Deprecated
     @GetMapping("/data/subscriptions")
-    public ResponseEntity<?> getStripeSubscriptions(@AuthenticationPrincipal CustomUserDetails userDetails) {
+    public ResponseEntity<?> getStripeSubscriptions(@AuthenticationPrincipal CustomUserDetails userDetails,
+                                                    @RequestParam(required = false) String status,
+                                                    @RequestParam(defaultValue = "0") int page,
+                                                    @RequestParam(defaultValue = "50") int size) {
+        if (userDetails == null) {
+            return new ResponseEntity<>(new ErrorMessage(403,"Unauthorized", "User not authenticated"), HttpStatus.UNAUTHORIZED);
+        }
+        Page<SubscriptionDTO> subscriptions = subscriptionQueryService.listForTenant(userDetails.getTenantId(), status,
+                PageRequest.of(page, Math.min(size, 200)));
+        return ResponseEntity.ok(subscriptions);
+    }
+
+    /**
+     * Streams all subscriptions of the tenant's Stripe account as NDJSON (one JSON object per line).
+     * Lines are written while pages arrive from Stripe, so memory stays at one page regardless of account size.
+     * @param full Emit the complete Stripe objects instead of the slim projection.
+     */
+    @GetMapping("/data/subscriptions/stream")
+    public ResponseEntity<?> streamStripeSubscriptions(@AuthenticationPrincipal CustomUserDetails userDetails,
+                                                       @RequestParam(defaultValue = "false") boolean full) {
+        if (userDetails == null) {
+            return new ResponseEntity<>(new ErrorMessage(403,"Unauthorized", "User not authenticated"), HttpStatus.UNAUTHORIZED);
+        }
+        Iterable<Subscription> subscriptions;
+        try {
+            // Resolve the account now, so the async body only pages through Stripe with its request options.
+            subscriptions = TenantContext.callWithTenant(userDetails.getTenantId(), () ->
+                    stripeOAuthService.iterateSubscriptions(stripeOAuthService.resolveConnectedAccountForCurrentTenant()));
+        } catch (StripeException e) {
+            log.error("Error streaming subscriptions for tenant {}: {}", userDetails.getTenantId(), e.getMessage());
+            return new ResponseEntity<>(new ErrorMessage(1, "Stripe API Error", e.getMessage()), HttpStatus.BAD_GATEWAY);
+        }
+
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            int written = 0;
+            try {
+                for (Subscription subscription : subscriptions) {
+                    writer.write(full
+                            ? ApiResource.GSON.toJson(subscription)
+                            : objectMapper.writeValueAsString(subscriptionMapper.toSummary(subscription)));
+                    writer.write('\n');
+                    if (++written % STREAM_FLUSH_EVERY == 0) {
+                        writer.flush();
+                    }
+                }
+            } catch (RuntimeException e) {
+                // Headers are already sent; aborting leaves the client with a truncated stream it can detect.
+                log.error("Subscription stream aborted after {} records: {}", written, e.getMessage());
+                throw e;
+            }
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    /**
+     * Returns one page of subscriptions as slim projections, paginated with Stripe's cursor.
+     * @param startingAfter The nextCursor of the previous page; omit for the first page.
+     * @param limit Page size, at most 100.
+     */
+    @GetMapping("/data/subscriptions/page")
+    public ResponseEntity<?> getStripeSubscriptionPage(@AuthenticationPrincipal CustomUserDetails userDetails,
+                                                       @RequestParam(required = false) String startingAfter,
+                                                       @RequestParam(defaultValue = "100") int limit) {
         if (userDetails == null) {
             return new ResponseEntity<>(new ErrorMessage(403,"Unauthorized", "User not authenticated"), HttpStatus.UNAUTHORIZED);
         }
-        User user = userDetails.getUser(); // access your entity
-        System.out.println("before:: TenantContext::getTenantId: "+ TenantContext.getTenantId());
-        UserDTO userDTO = userMapper.toDto(user);
-        // Ensure tenant context is set for the current user's tenant
-        TenantContext.setTenantId(userDTO.getTenantId()); // Set the String logicalTenantId
-        System.out.println("getTenantId: " + TenantContext.getTenantId());
         try {
-            List<Subscription> subscriptions = stripeOAuthService.fetchAllSubscriptions();
-            return ResponseEntity.ok(subscriptions);
+            SubscriptionCollection page = TenantContext.callWithTenant(userDetails.getTenantId(), () ->
+                    stripeOAuthService.fetchSubscriptionPage(startingAfter, Math.max(1, Math.min(limit, 100))));
+            List<SubscriptionSummaryDTO> data = page.getData().stream().map(subscriptionMapper::toSummary).toList();
+            boolean hasMore = Boolean.TRUE.equals(page.getHasMore()) && !data.isEmpty();
+            String nextCursor = hasMore ? data.get(data.size() - 1).getSubscriptionId() : null;
+            return ResponseEntity.ok(new SubscriptionPageDTO(data, nextCursor, hasMore));
         } catch (StripeException e) {
-            log.error("Error fetching subscriptions for tenant {}: {}", TenantContext.getTenantId(), e.getMessage());
+            log.error("Error fetching subscription page for tenant {}: {}", userDetails.getTenantId(), e.getMessage());
             return new ResponseEntity<>(new ErrorMessage(1, "Stripe API Error", e.getMessage()), HttpStatus.BAD_GATEWAY);
-        } finally {
-            TenantContext.clear();
         }
     }
 
@@ -97,7 +181,7 @@ public class StripeOAuthController {
         try {
             StripeAccessTokenResponse tokenResponse = stripeOAuthService.exchangeCodeForAccessToken(code, state);
 
-            log.info("Stripe account connected successfully for logicalTenantId: {}", TenantContext.getTenantId());
+            log.info("Stripe account {} connected successfully", tokenResponse.getStripeUserId());
             // Redirect to a success page in your application
             return new RedirectView("/stripe/connect/success"); // Example success page URL
 
@@ -109,8 +193,6 @@ public class StripeOAuthController {
             log.error("Unexpected error during Stripe OAuth callback: {}", e.getMessage(), e);
             // Generic error page
             return new RedirectView("/stripe/connect/error?message=An unexpected error occurred.");
-        } finally {
-            TenantContext.clear(); // Ensure context is cleared
         }
     }
 }
\ No newline at end of file
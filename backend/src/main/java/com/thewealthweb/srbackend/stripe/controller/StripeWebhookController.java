@@ -0,0 +1,36 @@
+package com.thewealthweb.srbackend.stripe.controller;
+
+import com.thewealthweb.srbackend.stripe.dto.StripeWebhookEvent;
+import com.thewealthweb.srbackend.stripe.service.StripeWebhookService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/stripe/webhook")
+@RequiredArgsConstructor
+@Slf4j
+public class StripeWebhookController {
+
+    private final StripeWebhookService stripeWebhookService;
+
+    /**
+     * Endpoint Stripe delivers platform and Connect events to.
+     * The event is verified and durably stored before we acknowledge; processing happens asynchronously.
+     * @param payload The raw JSON body (must not be re-serialized, the signature covers the exact bytes).
+     * @param signatureHeader The Stripe-Signature header.
+     * @return 200 once the event is in the inbox.
+     */
+    @PostMapping
+    public ResponseEntity<Void> receiveEvent(@RequestBody String payload,
+                                             @RequestHeader("Stripe-Signature") String signatureHeader) {
+        StripeWebhookEvent event = stripeWebhookService.ingest(payload, signatureHeader);
+        log.debug("Accepted Stripe event {} ({}) for account {}", event.getEventId(), event.getEventType(), event.getStripeAccountId());
+        return ResponseEntity.ok().build();
+    }
+}
@@ -0,0 +1,7 @@
+package com.thewealthweb.srbackend.stripe.dto;
+
+/**
+ * Published when a tenant connects (or reconnects) a Stripe account.
+ */
+public record StripeAccountConnectedEvent(String logicalTenantId, String stripeUserId) {
+}
@@ -0,0 +1,12 @@
+package com.thewealthweb.srbackend.stripe.dto;
+
+import com.stripe.net.RequestOptions;
+
+/**
+ * A connected Stripe account resolved to everything needed to call Stripe on its behalf.
+ * @param logicalTenantId The String tenant id owning the connection (e.g. "acme-corp").
+ * @param stripeUserId The connected account id (acct_...).
+ * @param requestOptions Options carrying the decrypted access token and Stripe-Account header.
+ */
+public record StripeConnectedAccount(String logicalTenantId, String stripeUserId, RequestOptions requestOptions) {
+}
@@ -1,6 +1,30 @@
 package com.thewealthweb.srbackend.stripe.dto;
 
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Envelope of a signature-verified Stripe webhook event, as it is written to the inbox.
+ * Only the fields needed for routing are extracted; the raw payload is kept verbatim.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class StripeWebhookEvent {
 
-    //(for future webhook processing)
+    // Account key used for events that belong to the platform account itself (no "account" field).
+    public static final String PLATFORM_ACCOUNT = "platform";
+
+    private String eventId;         // evt_...
+    private String eventType;       // e.g. invoice.payment_failed
+    private String stripeAccountId; // Connected account (acct_...), or PLATFORM_ACCOUNT
+    private boolean livemode;
+    private Instant stripeCreatedAt;
+    private Instant receivedAt;
+    private String payload;         // Raw JSON body exactly as Stripe sent it
 }
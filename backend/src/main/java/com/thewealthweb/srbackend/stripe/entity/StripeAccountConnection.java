@@ -1,6 +1,7 @@
 package com.thewealthweb.srbackend.stripe.entity;
 
-import com.thewealthweb.srbackend.common.entity.BaseEntity; // Assuming BaseEntity has id, createdDate, updatedDate
+import com.thewealthweb.srbackend.common.entity.BaseEntity; // Audit columns and version; the id is declared below
+import com.thewealthweb.srbackend.common.entity.IdSequences;
 import com.thewealthweb.srbackend.tenant.entity.Tenant; // Import your Tenant entity
 import jakarta.persistence.*;
 import lombok.Data;
@@ -12,6 +13,11 @@ import lombok.EqualsAndHashCode;
 @EqualsAndHashCode(callSuper = true)
 public class StripeAccountConnection extends BaseEntity {
 
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = IdSequences.STRIPE_ACCOUNT_CONNECTIONS)
+    @SequenceGenerator(name = IdSequences.STRIPE_ACCOUNT_CONNECTIONS, sequenceName = IdSequences.STRIPE_ACCOUNT_CONNECTIONS, allocationSize = IdSequences.ALLOCATION_SIZE)
+    private Long id;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "tenant_id", nullable = false)
     private Tenant tenant; // Link to your Tenant entity
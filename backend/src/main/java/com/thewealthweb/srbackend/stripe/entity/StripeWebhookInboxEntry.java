@@ -0,0 +1,68 @@
+package com.thewealthweb.srbackend.stripe.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Append-only inbox of raw Stripe webhook events.
+ * Rows are written in batches by the ingestion path and only the processing
+ * columns (processedAt, processingAttempts, lastError) and the lease are ever updated afterwards.
+ * A row is leased to the node that ingested it; once the lease expires unprocessed,
+ * the recovery sweep of any node may lease it again.
+ */
+@Entity
+@Table(name = "stripe_webhook_inbox",
+        uniqueConstraints = {
+                // Authoritative dedup key: Stripe delivers at least once and replays after outages.
+                @UniqueConstraint(name = "uk_stripe_webhook_inbox_event", columnNames = {"stripe_account_id", "event_id"})
+        },
+        indexes = {
+                @Index(name = "idx_stripe_webhook_inbox_recoverable", columnList = "processed_at, lease_expires_at"),
+                // Earlier failures of an account, checked before each of its events is applied
+                @Index(name = "idx_stripe_webhook_inbox_account_pending", columnList = "stripe_account_id, processed_at, id")
+        })
+@Data
+public class StripeWebhookInboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private String eventId;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Column(name = "stripe_account_id", nullable = false)
+    private String stripeAccountId;
+
+    @Column(name = "livemode", nullable = false)
+    private boolean livemode;
+
+    @Column(name = "stripe_created_at")
+    private Instant stripeCreatedAt;
+
+    @Column(name = "received_at", nullable = false)
+    private Instant receivedAt;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "processed_at")
+    private Instant processedAt;
+
+    @Column(name = "processing_attempts", nullable = false)
+    private int processingAttempts;
+
+    @Column(name = "last_error", length = 1024)
+    private String lastError;
+
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private Instant leaseExpiresAt;
+}
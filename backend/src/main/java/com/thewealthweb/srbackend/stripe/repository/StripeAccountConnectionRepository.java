@@ -3,12 +3,25 @@ package com.thewealthweb.srbackend.stripe.repository;
 import com.thewealthweb.srbackend.stripe.entity.StripeAccountConnection;
 import com.thewealthweb.srbackend.tenant.entity.Tenant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface StripeAccountConnectionRepository extends JpaRepository<StripeAccountConnection, Long> {
     Optional<StripeAccountConnection> findByTenant(Tenant tenant);
     Optional<StripeAccountConnection> findByStripeUserId(String stripeUserId);
+
+    // Single round-trip lookups for the connection cache; the tenant is needed for its logical id.
+    @Query("select c from StripeAccountConnection c join fetch c.tenant t where t.tenantId = :tenantId")
+    Optional<StripeAccountConnection> findWithTenantByTenantId(@Param("tenantId") String tenantId);
+
+    @Query("select c from StripeAccountConnection c join fetch c.tenant where c.stripeUserId = :stripeUserId")
+    Optional<StripeAccountConnection> findWithTenantByStripeUserId(@Param("stripeUserId") String stripeUserId);
+
+    @Query("select c.stripeUserId from StripeAccountConnection c")
+    List<String> findAllStripeUserIds();
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.thewealthweb.srbackend.stripe.repository;
+
+import com.thewealthweb.srbackend.stripe.entity.StripeWebhookInboxEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface StripeWebhookInboxRepository extends JpaRepository<StripeWebhookInboxEntry, Long>, StripeWebhookInboxRepositoryCustom {
+
+    @Modifying
+    @Transactional
+    @Query("update StripeWebhookInboxEntry e set e.processedAt = :processedAt, " +
+            "e.processingAttempts = e.processingAttempts + 1, e.lastError = null where e.id = :id")
+    int markProcessed(@Param("id") Long id, @Param("processedAt") Instant processedAt);
+
+    @Modifying
+    @Transactional
+    @Query("update StripeWebhookInboxEntry e set e.processingAttempts = e.processingAttempts + 1, " +
+            "e.lastError = :error where e.id = :id")
+    int markFailed(@Param("id") Long id, @Param("error") String error);
+
+    /**
+     * Whether an earlier event of the account failed and is still due a retry, i.e. was neither
+     * processed later nor dead-lettered after maxAttempts.
+     */
+    @Query("select count(e) > 0 from StripeWebhookInboxEntry e where e.stripeAccountId = :account and e.id < :id " +
+            "and e.processedAt is null and e.processingAttempts > 0 and e.processingAttempts < :maxAttempts")
+    boolean hasEarlierRetryableFailure(@Param("account") String account, @Param("id") Long id,
+                                       @Param("maxAttempts") int maxAttempts);
+}
@@ -0,0 +1,33 @@
+package com.thewealthweb.srbackend.stripe.repository;
+
+import com.thewealthweb.srbackend.stripe.dto.StripeWebhookEvent;
+import com.thewealthweb.srbackend.stripe.entity.StripeWebhookInboxEntry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+public interface StripeWebhookInboxRepositoryCustom {
+
+    /**
+     * Appends the given events to the inbox using a single JDBC batch.
+     * Events already present under the same (account, event id) key are skipped.
+     * New rows are leased to the writing node until their receivedAt plus leaseTtl.
+     * @param events Verified webhook events, in arrival order, without duplicates among themselves.
+     * @param leaseOwner Node that dispatches the events.
+     * @param leaseTtl How long other nodes leave the new rows alone.
+     * @return Generated inbox ids in the same order as the events; null where the event was a duplicate.
+     */
+    List<Long> insertBatch(List<StripeWebhookEvent> events, String leaseOwner, Duration leaseTtl);
+
+    /**
+     * Leases unprocessed rows whose previous lease expired, skipping rows locked by a concurrent lease.
+     * @param owner Node taking the lease.
+     * @param now Current time; leases expiring before it are taken over.
+     * @param leaseTtl Lease duration.
+     * @param maxAttempts Rows processed this many times are left for manual inspection.
+     * @param limit Max rows to lease.
+     * @return The leased rows (id, eventId, stripeAccountId and payload only), ordered by id.
+     */
+    List<StripeWebhookInboxEntry> leaseRecoverable(String owner, Instant now, Duration leaseTtl, int maxAttempts, int limit);
+}
@@ -0,0 +1,109 @@
+package com.thewealthweb.srbackend.stripe.repository;
+
+import com.thewealthweb.srbackend.stripe.dto.StripeWebhookEvent;
+import com.thewealthweb.srbackend.stripe.entity.StripeWebhookInboxEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC batch insert for the webhook inbox. Hibernate cannot batch inserts
+ * for IDENTITY ids, so the hot ingestion path bypasses the persistence context.
+ * Recovery leasing uses FOR UPDATE SKIP LOCKED in a single auto-committed statement,
+ * like the retry attempt leases.
+ */
+@RequiredArgsConstructor
+public class StripeWebhookInboxRepositoryImpl implements StripeWebhookInboxRepositoryCustom {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO stripe_webhook_inbox
+                (event_id, event_type, stripe_account_id, livemode, stripe_created_at, received_at, payload,
+                 processing_attempts, lease_owner, lease_expires_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, 0, ?, ?)
+            ON CONFLICT (stripe_account_id, event_id) DO NOTHING
+            """;
+
+    // Range scan on idx_stripe_webhook_inbox_recoverable; a null expiry predates leasing.
+    private static final String LEASE_RECOVERABLE_SQL = """
+            UPDATE stripe_webhook_inbox i
+            SET lease_owner = ?, lease_expires_at = ?
+            FROM (SELECT id FROM stripe_webhook_inbox
+                  WHERE processed_at IS NULL AND processing_attempts < ?
+                    AND (lease_expires_at IS NULL OR lease_expires_at < ?)
+                  ORDER BY id
+                  LIMIT ?
+                  FOR UPDATE SKIP LOCKED) recoverable
+            WHERE i.id = recoverable.id
+            RETURNING i.id, i.event_id, i.stripe_account_id, i.payload
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> insertBatch(List<StripeWebhookEvent> events, String leaseOwner, Duration leaseTtl) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_SQL, new String[]{"id", "stripe_account_id", "event_id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        StripeWebhookEvent event = events.get(i);
+                        ps.setString(1, event.getEventId());
+                        ps.setString(2, event.getEventType());
+                        ps.setString(3, event.getStripeAccountId());
+                        ps.setBoolean(4, event.isLivemode());
+                        ps.setTimestamp(5, event.getStripeCreatedAt() != null ? Timestamp.from(event.getStripeCreatedAt()) : null);
+                        ps.setTimestamp(6, Timestamp.from(event.getReceivedAt()));
+                        ps.setString(7, event.getPayload());
+                        ps.setString(8, leaseOwner);
+                        ps.setTimestamp(9, Timestamp.from(event.getReceivedAt().plus(leaseTtl)));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return events.size();
+                    }
+                },
+                keyHolder);
+
+        // Conflicting rows return no key, so match the generated ids back by their natural key.
+        Map<String, Long> idsByKey = new HashMap<>();
+        for (Map<String, Object> key : keyHolder.getKeyList()) {
+            idsByKey.put(key.get("stripe_account_id") + ":" + key.get("event_id"), ((Number) key.get("id")).longValue());
+        }
+        List<Long> ids = new ArrayList<>(events.size());
+        for (StripeWebhookEvent event : events) {
+            ids.add(idsByKey.get(event.getStripeAccountId() + ":" + event.getEventId()));
+        }
+        return ids;
+    }
+
+    @Override
+    public List<StripeWebhookInboxEntry> leaseRecoverable(String owner, Instant now, Duration leaseTtl, int maxAttempts, int limit) {
+        List<StripeWebhookInboxEntry> leased = jdbcTemplate.query(LEASE_RECOVERABLE_SQL, (rs, rowNum) -> {
+                    StripeWebhookInboxEntry entry = new StripeWebhookInboxEntry();
+                    entry.setId(rs.getLong("id"));
+                    entry.setEventId(rs.getString("event_id"));
+                    entry.setStripeAccountId(rs.getString("stripe_account_id"));
+                    entry.setPayload(rs.getString("payload"));
+                    return entry;
+                },
+                owner, Timestamp.from(now.plus(leaseTtl)), maxAttempts, Timestamp.from(now), limit);
+        // RETURNING does not keep the subquery order.
+        leased.sort(Comparator.comparing(StripeWebhookInboxEntry::getId));
+        return leased;
+    }
+}
@@ -0,0 +1,134 @@
+package com.thewealthweb.srbackend.stripe.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sharded executor that keeps work for one partition key strictly ordered while
+ * different keys run in parallel.
+ * Each key (the connected account id, i.e. StripeAccountConnection.stripeUserId) is hashed
+ * to a fixed lane; every lane is a single worker thread draining its own bounded queue.
+ * Producers block for at most the offer timeout when a lane is full and are then rejected,
+ * which pushes back on the caller instead of growing memory without bound.
+ */
+@Slf4j
+public class PartitionedEventExecutor implements DisposableBean {
+
+    private final String name;
+    private final Lane[] lanes;
+    private final long offerTimeoutNanos;
+
+    public PartitionedEventExecutor(String name, int laneCount, int queueCapacityPerLane,
+                                    Duration offerTimeout, MeterRegistry meterRegistry) {
+        if (laneCount < 1) {
+            throw new IllegalArgumentException("laneCount must be at least 1");
+        }
+        this.name = name;
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane(i, queueCapacityPerLane, meterRegistry);
+        }
+    }
+
+    /**
+     * Queues a task on the lane owning the given key.
+     * @param partitionKey Key whose tasks must run in submission order (e.g. the Stripe account id).
+     * @param task The work to run.
+     * @throws TaskRejectedException if the lane stays full for longer than the offer timeout.
+     */
+    public void execute(String partitionKey, Runnable task) {
+        Lane lane = lanes[laneFor(partitionKey)];
+        try {
+            if (!lane.queue.offer(new LaneTask(task, System.nanoTime()), offerTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new TaskRejectedException(name + " lane " + lane.index + " is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TaskRejectedException(name + " interrupted while waiting for lane " + lane.index, e);
+        }
+    }
+
+    int laneFor(String partitionKey) {
+        int hash = partitionKey == null ? 0 : partitionKey.hashCode();
+        // Spread the hash bits; account ids share long common prefixes ("acct_").
+        hash ^= (hash >>> 16);
+        return Math.floorMod(hash, lanes.length);
+    }
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        for (Lane lane : lanes) {
+            lane.running = false;
+        }
+        for (Lane lane : lanes) {
+            lane.worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private record LaneTask(Runnable task, long enqueuedAtNanos) {
+    }
+
+    private final class Lane implements Runnable {
+
+        private final int index;
+        private final BlockingQueue<LaneTask> queue;
+        private final Thread worker;
+        private final Timer lag;
+        private volatile boolean running = true;
+
+        private Lane(int index, int capacity, MeterRegistry meterRegistry) {
+            this.index = index;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            String lane = Integer.toString(index);
+            Gauge.builder(name + ".queue.depth", queue, BlockingQueue::size)
+                    .tag("lane", lane)
+                    .description("Tasks waiting in the lane")
+                    .register(meterRegistry);
+            this.lag = Timer.builder(name + ".lag")
+                    .tag("lane", lane)
+                    .description("Time between a task being queued and starting on its lane")
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+            this.worker = new Thread(this, name + "-lane-" + index);
+            this.worker.setDaemon(true);
+            this.worker.start();
+        }
+
+        @Override
+        public void run() {
+            while (running || !queue.isEmpty()) {
+                LaneTask next;
+                try {
+                    next = queue.poll(100, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (next == null) {
+                    continue;
+                }
+                lag.record(System.nanoTime() - next.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+                try {
+                    next.task().run();
+                } catch (RuntimeException e) {
+                    // Never let one bad task kill the lane and stall every account hashed to it.
+                    log.error("Task on {} lane {} failed: {}", name, index, e.getMessage(), e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.thewealthweb.srbackend.stripe.service;
+
+import com.stripe.exception.RateLimitException;
+import com.stripe.exception.StripeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics around outgoing Stripe calls (SDK requests and the OAuth token exchange).
+ * stripe.api.calls: latency histogram per operation, tagged with the outcome and Stripe's error code.
+ * stripe.api.rate_limited: 429 responses per operation.
+ * Tags only carry operation names and Stripe error codes, both small fixed sets, never ids.
+ */
+@Component
+public class StripeMetrics {
+
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<CallKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rateLimited = new ConcurrentHashMap<>();
+
+    public StripeMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs and times one Stripe call.
+     * @param operation Stable name of the call, e.g. "subscription.list".
+     * @return Whatever the call returns; exceptions are recorded and rethrown unchanged.
+     */
+    public <T, E extends Exception> T record(String operation, StripeCall<T, E> call) throws E {
+        long start = System.nanoTime();
+        String code = NONE;
+        try {
+            return call.call();
+        } catch (Exception e) {
+            code = errorCode(e);
+            if (e instanceof RateLimitException) {
+                rateLimited.computeIfAbsent(operation, op -> Counter.builder("stripe.api.rate_limited")
+                        .description("Stripe calls rejected with 429")
+                        .tag("operation", op)
+                        .register(meterRegistry)).increment();
+            }
+            throw e;
+        } finally {
+            timerFor(operation, code).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timerFor(String operation, String code) {
+        return timers.computeIfAbsent(new CallKey(operation, code), key -> Timer.builder("stripe.api.calls")
+                .description("Latency of Stripe API calls")
+                .tag("operation", operation)
+                .tag("outcome", NONE.equals(code) ? "success" : "error")
+                .tag("code", code)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    // Stripe's documented error code when there is one, else the HTTP status or exception type.
+    private static String errorCode(Exception e) {
+        if (e instanceof StripeException stripeException) {
+            if (stripeException.getCode() != null) {
+                return stripeException.getCode();
+            }
+            return stripeException.getStatusCode() != null
+                    ? "http_" + stripeException.getStatusCode()
+                    : e.getClass().getSimpleName();
+        }
+        if (e instanceof WebClientResponseException responseException) {
+            return "http_" + responseException.getStatusCode().value();
+        }
+        if (e instanceof ResponseStatusException statusException) {
+            return "http_" + statusException.getStatusCode().value();
+        }
+        return e.getClass().getSimpleName();
+    }
+
+    @FunctionalInterface
+    public interface StripeCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    private record CallKey(String operation, String code) {
+    }
+}
@@ -1,24 +1,33 @@
 package com.thewealthweb.srbackend.stripe.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.stripe.exception.StripeException;
 import com.stripe.model.Subscription;
 import com.stripe.model.SubscriptionCollection;
 import com.stripe.net.RequestOptions;
+import com.thewealthweb.srbackend.aspects.Audited;
 import com.thewealthweb.srbackend.stripe.dto.StripeAccessTokenResponse;
+import com.thewealthweb.srbackend.stripe.dto.StripeAccountConnectedEvent;
+import com.thewealthweb.srbackend.stripe.dto.StripeConnectedAccount;
 import com.thewealthweb.srbackend.stripe.entity.StripeAccountConnection;
 import com.thewealthweb.srbackend.stripe.repository.StripeAccountConnectionRepository;
 import com.thewealthweb.srbackend.tenant.config.TenantContext; // This should hold the String tenantId
 import com.thewealthweb.srbackend.tenant.entity.Tenant;
-import com.thewealthweb.srbackend.tenant.repository.TenantRepository; // You will need this
+import com.thewealthweb.srbackend.tenant.service.TenantRegistry;
+import jakarta.annotation.PostConstruct;
 import org.jasypt.encryption.StringEncryptor; // Import Jasypt's StringEncryptor
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.reactive.function.BodyInserters;
@@ -27,8 +36,8 @@ import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Mono; // Import for WebClient error handling
 
+import java.time.Duration;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -37,6 +46,8 @@ import java.util.UUID;
 @Slf4j
 public class StripeOAuthService {
 
+    private static final int SUBSCRIPTION_PAGE_SIZE = 100; // Stripe's maximum
+
     @Value("${stripe.connect.client-id}")
     private String clientId;
 
@@ -51,8 +62,35 @@ public class StripeOAuthService {
 
     private final WebClient.Builder webClientBuilder;
     private final StripeAccountConnectionRepository stripeAccountConnectionRepository;
-    private final TenantRepository tenantRepository; // Inject TenantRepository to fetch Tenant entity by its String tenantId
+    private final TenantRegistry tenantRegistry; // Cached logical tenantId -> Tenant resolution
     private final StringEncryptor jasyptStringEncryptor; // <--- INJECT JASYPT ENCRYPTOR
+    private final ApplicationEventPublisher eventPublisher;
+    private final StripeMetrics stripeMetrics;
+
+    // Resolved connections (decrypted token inside RequestOptions), by logical tenant id and by acct_ id.
+    private Cache<String, StripeConnectedAccount> connectionsByTenant;
+    private Cache<String, StripeConnectedAccount> connectionsByAccount;
+
+    @Value("${stripe.connect.token-exchange-timeout:PT15S}")
+    private Duration tokenExchangeTimeout;
+
+    @Value("${stripe.connection-cache.max-entries:10000}")
+    private long connectionCacheMaxEntries;
+
+    @Value("${stripe.connection-cache.ttl:PT15M}")
+    private Duration connectionCacheTtl;
+
+    @PostConstruct
+    void initConnectionCache() {
+        connectionsByTenant = Caffeine.newBuilder()
+                .maximumSize(connectionCacheMaxEntries)
+                .expireAfterWrite(connectionCacheTtl)
+                .build();
+        connectionsByAccount = Caffeine.newBuilder()
+                .maximumSize(connectionCacheMaxEntries)
+                .expireAfterWrite(connectionCacheTtl)
+                .build();
+    }
 
     // ... (encryption/decryption methods remain the same) ...
 
@@ -65,6 +103,7 @@ public class StripeOAuthService {
      * @return The full Stripe OAuth URL to redirect the user to.
      */
     @Transactional
+    @Audited(value = "stripe.connection.connect_started", targets = {"logicalTenantId", "userId"})
     public String generateOAuthUrl(String logicalTenantId, Long userId) {
         // Generate a unique state parameter. You should store this state
         // along with the logicalTenantId/userId in your database or a secure cache
@@ -106,8 +145,8 @@ public class StripeOAuthService {
         // exists in your `oauth_states` table/cache and is valid for the `logicalTenantId` and `userId`
         // and hasn't expired. If valid, you'd then delete it to prevent replay attacks.
 
-        // Set tenant context for this operation if not already set by a filter
-        TenantContext.setTenantId(logicalTenantId); // Set the String logicalTenantId
+        // Bind the state's tenant for this operation; the filter's tenant is restored when the scope closes
+        TenantContext.Scope tenantScope = TenantContext.open(logicalTenantId);
         log.info("Processing Stripe OAuth callback for logicalTenantId: {}", logicalTenantId);
 
         MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
@@ -117,7 +156,7 @@ public class StripeOAuthService {
         formData.add("code", code);
 
         try {
-            StripeAccessTokenResponse response = webClientBuilder.build()
+            StripeAccessTokenResponse response = stripeMetrics.record("oauth.token", () -> webClientBuilder.build()
                     .post()
                     .uri("https://connect.stripe.com/oauth/token")
                     .contentType(MediaType.APPLICATION_FORM_URLENCODED)
@@ -125,15 +164,19 @@ public class StripeOAuthService {
                     .retrieve()
                     .onStatus(HttpStatusCode::is4xxClientError, clientResponse ->
                             clientResponse.bodyToMono(String.class)
-                                    .flatMap(errorBody -> {
-                                        log.error("Stripe OAuth token exchange failed for logicalTenantId {}: Status {} - Body: {}", logicalTenantId, clientResponse.statusCode(), errorBody);
+                                    // Runs on a Netty thread: the tenant comes from the Reactor Context, not the ThreadLocal
+                                    .flatMap(errorBody -> Mono.deferContextual(context -> {
+                                        log.error("Stripe OAuth token exchange failed for logicalTenantId {}: Status {} - Body: {}", TenantContext.fromReactorContext(context), clientResponse.statusCode(), errorBody);
                                         // Explicitly specify the generic type of Mono.error()
                                         return Mono.<ResponseStatusException>error(
                                                 new ResponseStatusException(clientResponse.statusCode(), "Stripe OAuth token exchange failed: " + errorBody)
                                         );
-                                    }))
+                                    })))
                     .bodyToMono(StripeAccessTokenResponse.class)
-                    .block();
+                    .contextWrite(TenantContext.reactorContext())
+                    // Blocking is cheap on a virtual request thread (spring.threads.virtual.enabled);
+                    // the timeout bounds how long a platform worker can be pinned when it is off.
+                    .block(tokenExchangeTimeout));
 
             if (response == null || response.getAccessToken() == null || response.getStripeUserId() == null) {
                 log.error("Stripe OAuth response was incomplete for logicalTenantId: {}", logicalTenantId);
@@ -149,19 +192,20 @@ public class StripeOAuthService {
             log.error("Error during Stripe OAuth token exchange for logicalTenantId {}: {}", logicalTenantId, e.getMessage());
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to connect to Stripe: " + e.getMessage(), e);
         } finally {
-            TenantContext.clear(); // Clear tenant context
+            tenantScope.close();
         }
     }
 
     @Transactional
     public void saveStripeAccountConnection(String logicalTenantId, StripeAccessTokenResponse tokenResponse) {
-        // Fetch the Tenant entity using its *logical* tenantId (String)
-        Tenant currentTenant = tenantRepository.findByTenantId(logicalTenantId)
+        // Resolve the Tenant reference using its *logical* tenantId (String), via the registry cache
+        Tenant currentTenant = tenantRegistry.getReference(logicalTenantId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Tenant not found with logical ID: " + logicalTenantId));
 
         StripeAccountConnection connection = stripeAccountConnectionRepository.findByTenant(currentTenant)
                 .orElse(new StripeAccountConnection());
 
+        String previousStripeUserId = connection.getStripeUserId();
         connection.setTenant(currentTenant); // Set the Tenant entity here
         connection.setStripeUserId(tokenResponse.getStripeUserId());
         connection.setAccessToken(encryptToken(tokenResponse.getAccessToken())); // Encrypt the token!
@@ -169,6 +213,20 @@ public class StripeOAuthService {
 
         stripeAccountConnectionRepository.save(connection);
         log.info("Stripe account connection saved successfully for logical tenant ID: {}", logicalTenantId);
+
+        // Evict now and again after commit, so a concurrent load cannot re-cache the old row.
+        evictConnection(logicalTenantId, previousStripeUserId, tokenResponse.getStripeUserId());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictConnection(logicalTenantId, previousStripeUserId, tokenResponse.getStripeUserId());
+                }
+            });
+        }
+
+        // Listeners (e.g. the subscription backfill) run once this transaction has committed.
+        eventPublisher.publishEvent(new StripeAccountConnectedEvent(logicalTenantId, tokenResponse.getStripeUserId()));
     }
 
     /**
@@ -178,18 +236,7 @@ public class StripeOAuthService {
      * @throws ResponseStatusException if no connection found or error decrypting.
      */
     public String getStripeAccessTokenForCurrentTenant() {
-        String logicalTenantId = TenantContext.getTenantId();
-        if (logicalTenantId == null) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Tenant context not set.");
-        }
-        Tenant currentTenant = tenantRepository.findByTenantId(logicalTenantId) // Find by logicalTenantId
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Tenant not found with logical ID: " + logicalTenantId));
-
-
-        StripeAccountConnection connection = stripeAccountConnectionRepository.findByTenant(currentTenant)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Stripe account not connected for this tenant."));
-
-        return decryptToken(connection.getAccessToken());
+        return resolveConnectedAccountForCurrentTenant().requestOptions().getApiKey();
     }
 
     /**
@@ -199,55 +246,95 @@ public class StripeOAuthService {
      * @throws ResponseStatusException if no connection found.
      */
     public String getStripeUserIdForCurrentTenant() {
+        return resolveConnectedAccountForCurrentTenant().stripeUserId();
+    }
+
+    /**
+     * Resolves a connected account by its Stripe account id, for background work
+     * (webhooks, retries) that runs without a tenant context.
+     * @param stripeUserId The connected account id (acct_...).
+     * @return The owning tenant and RequestOptions for the account.
+     * @throws ResponseStatusException if the account is not connected to any tenant.
+     */
+    public StripeConnectedAccount resolveConnectedAccount(String stripeUserId) {
+        return connectionsByAccount.get(stripeUserId, id -> {
+            StripeAccountConnection connection = stripeAccountConnectionRepository.findWithTenantByStripeUserId(id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No connection for Stripe account: " + id));
+            return toConnectedAccount(connection);
+        });
+    }
+
+    /**
+     * Resolves the connected account of the current tenant.
+     * This method assumes the TenantContext is already set.
+     * @return The current tenant's connected account.
+     * @throws ResponseStatusException if no connection found.
+     */
+    public StripeConnectedAccount resolveConnectedAccountForCurrentTenant() {
         String logicalTenantId = TenantContext.getTenantId();
         if (logicalTenantId == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Tenant context not set.");
         }
-        Tenant currentTenant = tenantRepository.findByTenantId(logicalTenantId) // Find by logicalTenantId
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Tenant not found with logical ID: " + logicalTenantId));
-
-        StripeAccountConnection connection = stripeAccountConnectionRepository.findByTenant(currentTenant)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Stripe account not connected for this tenant."));
+        return connectionsByTenant.get(logicalTenantId, id -> {
+            StripeAccountConnection connection = stripeAccountConnectionRepository.findWithTenantByTenantId(id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Stripe account not connected for this tenant."));
+            return toConnectedAccount(connection);
+        });
+    }
 
-        return connection.getStripeUserId();
+    /**
+     * Lazily iterates all subscriptions of a connected account.
+     * The first page is fetched eagerly so connection errors surface here; further pages are only
+     * requested as the iteration reaches them, so at most one page is held in memory.
+     * @param account The connected account, resolved while the tenant context was still available.
+     * @return Subscriptions, newest first.
+     * @throws StripeException if the first page cannot be fetched.
+     */
+    public Iterable<Subscription> iterateSubscriptions(StripeConnectedAccount account) throws StripeException {
+        Map<String, Object> params = new HashMap<>();
+        params.put("limit", SUBSCRIPTION_PAGE_SIZE);
+        params.put("status", "all");
+        // Only the first page is timed; the iterable fetches later pages itself as it is consumed.
+        return stripeMetrics.record("subscription.list", () -> Subscription.list(params, account.requestOptions()))
+                .autoPagingIterable();
     }
 
     /**
-     * Fetches all subscriptions for a connected Stripe account.
-     * @return List of Stripe Subscription objects.
+     * Fetches a single page of the current tenant's subscriptions.
+     * This method assumes the TenantContext is already set.
+     * @param startingAfter Id of the last subscription of the previous page, or null for the first page.
+     * @param limit Page size, 1 to 100.
+     * @return The page as returned by Stripe.
      * @throws StripeException if Stripe API call fails.
      */
-    public List<Subscription> fetchAllSubscriptions() throws StripeException {
-        String accessToken = getStripeAccessTokenForCurrentTenant();
-        String stripeUserId = getStripeUserIdForCurrentTenant();
-        RequestOptions options = buildRequestOptionsForConnectedAccount(accessToken, stripeUserId);
-
+    public SubscriptionCollection fetchSubscriptionPage(String startingAfter, int limit) throws StripeException {
+        StripeConnectedAccount account = resolveConnectedAccountForCurrentTenant();
         Map<String, Object> params = new HashMap<>();
-        params.put("limit", 100); // Fetch up to 100 per page
-        params.put("status", "all"); // Fetch all statuses (active, past_due, canceled, etc.)
-
-        List<Subscription> subscriptions = new java.util.ArrayList<>();
-        SubscriptionCollection subscriptionCollection;
-        String startingAfter = null;
-
-        do {
-            if (startingAfter != null) {
-                params.put("starting_after", startingAfter);
-            }
-
-            subscriptionCollection = Subscription.list(params, options);
-            subscriptions.addAll(subscriptionCollection.getData());
+        params.put("limit", limit);
+        params.put("status", "all");
+        if (startingAfter != null) {
+            params.put("starting_after", startingAfter);
+        }
+        return stripeMetrics.record("subscription.list", () -> Subscription.list(params, account.requestOptions()));
+    }
 
-            // Check if there are more items to retrieve
-            if (subscriptionCollection.getData().size() == (Integer) params.get("limit")) {
-                startingAfter = subscriptionCollection.getData().get(subscriptionCollection.getData().size() - 1).getId();
-            } else {
-                startingAfter = null; // No more pages
+    /**
+     * Drops cached connections of a tenant and of the Stripe accounts it was linked to.
+     */
+    private void evictConnection(String logicalTenantId, String... stripeUserIds) {
+        connectionsByTenant.invalidate(logicalTenantId);
+        for (String stripeUserId : stripeUserIds) {
+            if (stripeUserId != null) {
+                connectionsByAccount.invalidate(stripeUserId);
             }
-        } while (startingAfter != null);
+        }
+    }
 
-        log.info("Fetched {} subscriptions for Stripe account {}", subscriptions.size(), stripeUserId);
-        return subscriptions;
+    // Decrypts the token once per cache load; the Jasypt PBE decrypt is deliberately expensive.
+    private StripeConnectedAccount toConnectedAccount(StripeAccountConnection connection) {
+        String stripeUserId = connection.getStripeUserId();
+        RequestOptions options = buildRequestOptionsForConnectedAccount(decryptToken(connection.getAccessToken()), stripeUserId);
+        return new StripeConnectedAccount(connection.getTenant().getTenantId(), stripeUserId, options);
     }
 
     /**
@@ -0,0 +1,85 @@
+package com.thewealthweb.srbackend.stripe.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side governor for Stripe API calls made by background jobs.
+ * Every call takes a token from the connected account's bucket and then from the shared
+ * platform bucket, so parallel workers together stay below Stripe's limits instead of
+ * discovering them through 429 responses.
+ */
+@Component
+public class StripeRateLimiter {
+
+    private final double accountPermitsPerSecond;
+    private final TokenBucket platform;
+    private final Cache<String, TokenBucket> accounts;
+    private final Timer waitTimer;
+
+    public StripeRateLimiter(@Value("${stripe.rate-limit.platform-per-second:80}") double platformPermitsPerSecond,
+                             @Value("${stripe.rate-limit.account-per-second:20}") double accountPermitsPerSecond,
+                             MeterRegistry meterRegistry) {
+        this.accountPermitsPerSecond = accountPermitsPerSecond;
+        this.platform = new TokenBucket(platformPermitsPerSecond);
+        // Idle accounts drop their bucket; a fresh one starts full, which matches Stripe's own window.
+        this.accounts = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+        this.waitTimer = Timer.builder("stripe.rate_limiter.wait")
+                .description("Time background Stripe calls waited for a rate-limit token")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Blocks until a call on behalf of the given connected account may be made.
+     * @param stripeAccountId The connected account (acct_...).
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public void acquire(String stripeAccountId) throws InterruptedException {
+        long waitedNanos = accounts.get(stripeAccountId, id -> new TokenBucket(accountPermitsPerSecond)).acquire();
+        waitedNanos += platform.acquire();
+        waitTimer.record(waitedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Token bucket that hands out reservations: a caller takes a token even when the bucket
+     * is empty and sleeps until the debt is paid off, so waiting callers are served in order.
+     */
+    static final class TokenBucket {
+
+        private final double permitsPerNano;
+        private final double capacity;
+        private double tokens;
+        private long lastRefillNanos;
+
+        TokenBucket(double permitsPerSecond) {
+            this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = Math.max(1.0d, permitsPerSecond); // One second of burst
+            this.tokens = capacity;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        long acquire() throws InterruptedException {
+            long waitNanos = reserve(System.nanoTime());
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+            return waitNanos;
+        }
+
+        synchronized long reserve(long nowNanos) {
+            tokens = Math.min(capacity, tokens + (nowNanos - lastRefillNanos) * permitsPerNano);
+            lastRefillNanos = nowNanos;
+            tokens -= 1.0d;
+            return tokens >= 0 ? 0L : (long) (-tokens / permitsPerNano);
+        }
+    }
+}
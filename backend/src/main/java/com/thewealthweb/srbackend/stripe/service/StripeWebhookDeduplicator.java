@@ -0,0 +1,78 @@
+package com.thewealthweb.srbackend.stripe.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.thewealthweb.srbackend.stripe.dto.StripeWebhookEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * In-memory front for webhook deduplication, keyed by connected account and Stripe event id.
+ * It only answers "definitely seen recently"; a miss is never trusted on its own, the unique
+ * key on the inbox table stays the authoritative backstop.
+ */
+@Component
+public class StripeWebhookDeduplicator {
+
+    private static final String METRIC_NAME = "stripe.webhook.dedup";
+
+    private final Cache<String, Boolean> recentlySeen;
+    private final Counter memoryHits;
+    private final Counter memoryMisses;
+    private final Counter databaseDuplicates;
+
+    public StripeWebhookDeduplicator(MeterRegistry meterRegistry,
+                                     @Value("${stripe.webhook.dedup.max-entries:200000}") long maxEntries,
+                                     @Value("${stripe.webhook.dedup.ttl:P3D}") Duration ttl) {
+        // Stripe keeps retrying a delivery for up to three days, so that is the useful memory span.
+        this.recentlySeen = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+        this.memoryHits = Counter.builder(METRIC_NAME).tag("result", "memory_hit")
+                .description("Duplicate deliveries rejected without a database round-trip")
+                .register(meterRegistry);
+        this.memoryMisses = Counter.builder(METRIC_NAME).tag("result", "memory_miss")
+                .description("Deliveries not found in the in-memory dedup cache")
+                .register(meterRegistry);
+        this.databaseDuplicates = Counter.builder(METRIC_NAME).tag("result", "db_duplicate")
+                .description("Duplicates that slipped past the cache and were caught by the inbox unique key")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".size", recentlySeen, Cache::estimatedSize)
+                .description("Entries currently held in the dedup cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return true if the event was already accepted recently and can be acknowledged without storing it again.
+     */
+    public boolean isKnownDuplicate(StripeWebhookEvent event) {
+        if (recentlySeen.getIfPresent(keyOf(event)) != null) {
+            memoryHits.increment();
+            return true;
+        }
+        memoryMisses.increment();
+        return false;
+    }
+
+    /**
+     * Remembers an event once it is durably in the inbox (or the inbox reported it as a duplicate).
+     */
+    public void markSeen(StripeWebhookEvent event) {
+        recentlySeen.put(keyOf(event), Boolean.TRUE);
+    }
+
+    public void recordDatabaseDuplicate(StripeWebhookEvent event) {
+        databaseDuplicates.increment();
+        markSeen(event);
+    }
+
+    static String keyOf(StripeWebhookEvent event) {
+        return event.getStripeAccountId() + ':' + event.getEventId();
+    }
+}
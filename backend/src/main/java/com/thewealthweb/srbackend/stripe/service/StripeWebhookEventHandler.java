@@ -0,0 +1,19 @@
+package com.thewealthweb.srbackend.stripe.service;
+
+import com.stripe.model.Event;
+
+import java.util.Set;
+
+/**
+ * Processes one kind of Stripe webhook event after it has been durably stored in the inbox.
+ * Events are delivered at least once, so implementations must be idempotent.
+ */
+public interface StripeWebhookEventHandler {
+
+    /**
+     * @return The Stripe event types (e.g. "invoice.payment_failed") this handler is interested in.
+     */
+    Set<String> eventTypes();
+
+    void handle(Event event) throws Exception;
+}
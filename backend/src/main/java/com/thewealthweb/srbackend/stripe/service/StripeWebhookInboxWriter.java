@@ -0,0 +1,136 @@
+package com.thewealthweb.srbackend.stripe.service;
+
+import com.thewealthweb.srbackend.config.NodeIdentity;
+import com.thewealthweb.srbackend.stripe.dto.StripeWebhookEvent;
+import com.thewealthweb.srbackend.stripe.repository.StripeWebhookInboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group-commit writer for the webhook inbox.
+ * Request threads enqueue verified events and wait on a future; a single writer
+ * thread drains whatever has accumulated and persists it with one batched insert,
+ * so a burst of N concurrent deliveries costs one database round-trip instead of N.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StripeWebhookInboxWriter {
+
+    @Value("${stripe.webhook.inbox.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${stripe.webhook.inbox.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${stripe.webhook.processing.lease-ttl:PT5M}")
+    private Duration leaseTtl;
+
+    private final StripeWebhookInboxRepository inboxRepository;
+    private final NodeIdentity nodeIdentity;
+
+    private BlockingQueue<PendingEvent> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        running = true;
+        writerThread = new Thread(this::drainLoop, "stripe-webhook-inbox-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Queues an event for the next inbox batch.
+     * @param event The verified webhook event.
+     * @return A future completed with the inbox id once the batch containing the event is committed,
+     *         or with null if the inbox already holds the event.
+     * @throws ResponseStatusException with 503 when the inbox buffer is full, so Stripe retries later.
+     */
+    public CompletableFuture<Long> append(StripeWebhookEvent event) {
+        PendingEvent pending = new PendingEvent(event, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            log.warn("Webhook inbox buffer full ({} events); rejecting event {}", queueCapacity, event.getEventId());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Webhook inbox is saturated, retry later.");
+        }
+        return pending.future();
+    }
+
+    private void drainLoop() {
+        List<PendingEvent> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingEvent> batch) {
+        // A retry storm can put the same event into one batch twice; only the first copy is written.
+        Map<String, PendingEvent> unique = new LinkedHashMap<>();
+        List<PendingEvent> inBatchDuplicates = new ArrayList<>();
+        for (PendingEvent pending : batch) {
+            if (unique.putIfAbsent(StripeWebhookDeduplicator.keyOf(pending.event()), pending) != null) {
+                inBatchDuplicates.add(pending);
+            }
+        }
+        List<PendingEvent> toWrite = new ArrayList<>(unique.values());
+        List<StripeWebhookEvent> events = new ArrayList<>(toWrite.size());
+        for (PendingEvent pending : toWrite) {
+            events.add(pending.event());
+        }
+
+        try {
+            List<Long> ids = inboxRepository.insertBatch(events, nodeIdentity.getId(), leaseTtl);
+            for (int i = 0; i < toWrite.size(); i++) {
+                toWrite.get(i).future().complete(ids.get(i));
+            }
+            for (PendingEvent duplicate : inBatchDuplicates) {
+                duplicate.future().complete(null);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to write {} webhook events to the inbox: {}", batch.size(), e.getMessage());
+            for (PendingEvent pending : batch) {
+                pending.future().completeExceptionally(e);
+            }
+        }
+    }
+
+    private record PendingEvent(StripeWebhookEvent event, CompletableFuture<Long> future) {
+    }
+}
@@ -1,6 +1,238 @@
 package com.thewealthweb.srbackend.stripe.service;
 
+import com.google.gson.JsonParseException;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.model.Event;
+import com.stripe.net.ApiResource;
+import com.stripe.net.Webhook;
+import com.thewealthweb.srbackend.config.NodeIdentity;
+import com.thewealthweb.srbackend.stripe.dto.StripeWebhookEvent;
+import com.thewealthweb.srbackend.stripe.entity.StripeWebhookInboxEntry;
+import com.thewealthweb.srbackend.stripe.repository.StripeWebhookInboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+@Slf4j
 public class StripeWebhookService {
 
-    //(for future webhook processing)
+    @Value("${stripe.webhook.signing-secret}")
+    private String signingSecret;
+
+    @Value("${stripe.webhook.tolerance-seconds:300}")
+    private long toleranceSeconds;
+
+    @Value("${stripe.webhook.inbox.ack-timeout-ms:2000}")
+    private long ackTimeoutMs;
+
+    @Value("${stripe.webhook.processing.max-attempts:10}")
+    private int maxProcessingAttempts;
+
+    @Value("${stripe.webhook.processing.lease-ttl:PT5M}")
+    private Duration leaseTtl;
+
+    @Value("${stripe.webhook.processing.recovery-batch-size:200}")
+    private int recoveryBatchSize;
+
+    private final StripeWebhookInboxWriter inboxWriter;
+    private final StripeWebhookDeduplicator deduplicator;
+    private final StripeWebhookInboxRepository inboxRepository;
+    private final PartitionedEventExecutor webhookExecutor;
+    private final NodeIdentity nodeIdentity;
+    private final Map<String, List<StripeWebhookEventHandler>> handlersByType = new HashMap<>();
+
+    // Inbox rows queued on a lane of this node and not processed yet, and how many of them each account has.
+    // The recovery sweep leaves these alone, so a row is never run twice nor replayed behind its own backlog.
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, Integer> pendingByAccount = new ConcurrentHashMap<>();
+
+    public StripeWebhookService(StripeWebhookInboxWriter inboxWriter,
+                                StripeWebhookDeduplicator deduplicator,
+                                StripeWebhookInboxRepository inboxRepository,
+                                PartitionedEventExecutor webhookExecutor,
+                                NodeIdentity nodeIdentity,
+                                List<StripeWebhookEventHandler> handlers) {
+        this.inboxWriter = inboxWriter;
+        this.deduplicator = deduplicator;
+        this.inboxRepository = inboxRepository;
+        this.webhookExecutor = webhookExecutor;
+        this.nodeIdentity = nodeIdentity;
+        for (StripeWebhookEventHandler handler : handlers) {
+            for (String type : handler.eventTypes()) {
+                handlersByType.computeIfAbsent(type, t -> new ArrayList<>()).add(handler);
+            }
+        }
+    }
+
+    /**
+     * Verifies the Stripe signature, appends the event to the inbox and schedules
+     * asynchronous processing. Returns as soon as the inbox batch is committed.
+     * Redeliveries of an event we already hold are acknowledged without being processed again.
+     * @param payload The raw request body.
+     * @param signatureHeader The value of the Stripe-Signature header.
+     * @return The verified event envelope.
+     * @throws ResponseStatusException 400 for an invalid signature or payload, 503 if the inbox could not be written.
+     */
+    public StripeWebhookEvent ingest(String payload, String signatureHeader) {
+        Event event;
+        try {
+            event = Webhook.constructEvent(payload, signatureHeader, signingSecret, toleranceSeconds);
+        } catch (SignatureVerificationException e) {
+            log.warn("Rejected Stripe webhook with invalid signature: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid Stripe signature.");
+        } catch (JsonParseException e) {
+            log.warn("Rejected malformed Stripe webhook payload: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed webhook payload.");
+        }
+
+        StripeWebhookEvent webhookEvent = StripeWebhookEvent.builder()
+                .eventId(event.getId())
+                .eventType(event.getType())
+                .stripeAccountId(event.getAccount() != null ? event.getAccount() : StripeWebhookEvent.PLATFORM_ACCOUNT)
+                .livemode(Boolean.TRUE.equals(event.getLivemode()))
+                .stripeCreatedAt(event.getCreated() != null ? Instant.ofEpochSecond(event.getCreated()) : null)
+                .receivedAt(Instant.now())
+                .payload(payload)
+                .build();
+
+        if (deduplicator.isKnownDuplicate(webhookEvent)) {
+            return webhookEvent;
+        }
+
+        try {
+            Long inboxId = inboxWriter.append(webhookEvent).get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+            if (inboxId == null) {
+                deduplicator.recordDatabaseDuplicate(webhookEvent);
+                return webhookEvent;
+            }
+            deduplicator.markSeen(webhookEvent);
+            dispatch(inboxId, webhookEvent.getStripeAccountId(), event);
+        } catch (TimeoutException | ExecutionException e) {
+            log.error("Stripe event {} could not be written to the inbox: {}", webhookEvent.getEventId(), e.getMessage());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Webhook could not be stored, retry later.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Webhook ingestion interrupted.");
+        }
+        return webhookEvent;
+    }
+
+    /**
+     * Hands a stored event to the lane of its connected account, so events of one account
+     * are applied in order. If the lane is saturated the event simply stays unprocessed
+     * in the inbox and is picked up by the recovery sweep.
+     * @param accountKey The connected account, or StripeWebhookEvent.PLATFORM_ACCOUNT; also the lane key.
+     * @return false if the lane rejected the event.
+     */
+    private boolean dispatch(Long inboxId, String accountKey, Event event) {
+        if (!inFlight.add(inboxId)) {
+            return true; // Already queued on this node
+        }
+        pendingByAccount.merge(accountKey, 1, Integer::sum);
+        try {
+            webhookExecutor.execute(accountKey, () -> {
+                try {
+                    process(inboxId, accountKey, event);
+                } finally {
+                    finished(inboxId, accountKey);
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            finished(inboxId, accountKey);
+            log.warn("Webhook executor saturated; event {} deferred to recovery sweep", event.getId());
+            return false;
+        }
+    }
+
+    private void finished(Long inboxId, String accountKey) {
+        inFlight.remove(inboxId);
+        pendingByAccount.computeIfPresent(accountKey, (account, pending) -> pending > 1 ? pending - 1 : null);
+    }
+
+    /**
+     * Applies one event, unless an earlier event of the same account failed and awaits its retry:
+     * applying this one first would let the retry later overwrite newer state with older. The skipped
+     * row stays unprocessed and keeps its attempts, so a sweep re-queues it behind the failed row once
+     * that row was processed or dead-lettered. This holds across nodes, since it is checked in the inbox.
+     */
+    private void process(Long inboxId, String accountKey, Event event) {
+        if (inboxRepository.hasEarlierRetryableFailure(accountKey, inboxId, maxProcessingAttempts)) {
+            log.debug("Stripe event {} held back behind a failed event of account {}", event.getId(), accountKey);
+            return;
+        }
+        List<StripeWebhookEventHandler> handlers = handlersByType.getOrDefault(event.getType(), List.of());
+        try {
+            for (StripeWebhookEventHandler handler : handlers) {
+                handler.handle(event);
+            }
+            inboxRepository.markProcessed(inboxId, Instant.now());
+        } catch (Exception e) {
+            log.error("Processing of Stripe event {} ({}) failed: {}", event.getId(), event.getType(), e.getMessage());
+            inboxRepository.markFailed(inboxId, truncate(e.getMessage()));
+        }
+    }
+
+    /**
+     * Re-dispatches inbox rows that were stored but never processed, e.g. because the
+     * node crashed or the executor rejected them.
+     * Every replica runs the sweep: a row is only taken once its lease (from ingestion or a previous
+     * sweep) has expired, and leasing skips rows another node is claiming, so each row goes to one node.
+     * Rows are re-queued per account in id order, and only for accounts with nothing still
+     * queued on this node; otherwise older events could overtake newer ones already applied.
+     * A failed row is retried here once its lease expires; its account's later rows are held back until then.
+     */
+    @Scheduled(fixedDelayString = "${stripe.webhook.processing.recovery-interval-ms:60000}")
+    public void recoverUnprocessedEvents() {
+        List<StripeWebhookInboxEntry> pending = inboxRepository.leaseRecoverable(
+                nodeIdentity.getId(), Instant.now(), leaseTtl, maxProcessingAttempts, recoveryBatchSize);
+        if (pending.isEmpty()) {
+            return;
+        }
+        // Decided at an account's first row: once this sweep queues it, its later rows follow on the same lane.
+        // Rows left behind keep this node's lease and come back to a sweep once it expires.
+        Map<String, Boolean> recoverable = new HashMap<>();
+        int recovered = 0;
+        for (StripeWebhookInboxEntry entry : pending) {
+            String accountKey = entry.getStripeAccountId();
+            if (!recoverable.computeIfAbsent(accountKey, account -> !pendingByAccount.containsKey(account))
+                    || inFlight.contains(entry.getId())) {
+                recoverable.put(accountKey, false);
+                continue;
+            }
+            Event event = ApiResource.GSON.fromJson(entry.getPayload(), Event.class);
+            if (dispatch(entry.getId(), accountKey, event)) {
+                recovered++;
+            } else {
+                recoverable.put(accountKey, false); // Keep the account's remaining rows in order for the next sweep
+            }
+        }
+        if (recovered > 0) {
+            log.info("Recovered {} unprocessed Stripe webhook events from the inbox", recovered);
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1024 ? message.substring(0, 1024) : message;
+    }
 }
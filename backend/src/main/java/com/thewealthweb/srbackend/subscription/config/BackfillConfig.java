@@ -0,0 +1,41 @@
+package com.thewealthweb.srbackend.subscription.config;
+
+import com.thewealthweb.srbackend.config.BoundedVirtualThreadExecutor;
+import com.thewealthweb.srbackend.tenant.config.TenantContextTaskDecorator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+
+@Configuration
+public class BackfillConfig {
+
+    @Value("${stripe.backfill.parallelism:4}")
+    private int parallelism;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // One connected account per thread; queued accounts wait their turn. Throughput is bounded by
+    // StripeRateLimiter, so more threads only help while several accounts share the platform budget.
+    @Bean(name = "backfillExecutor")
+    public TaskExecutor backfillExecutor(TenantContextTaskDecorator tenantContextTaskDecorator) {
+        if (virtualThreads) {
+            // Queued accounts park their own virtual thread instead of sitting in a pool queue.
+            // Checkpoints make abandoning work safe, so shutdown interrupts almost immediately.
+            return new BoundedVirtualThreadExecutor("stripe-backfill-", parallelism, false,
+                    tenantContextTaskDecorator, Duration.ofSeconds(1));
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setThreadNamePrefix("stripe-backfill-");
+        executor.setTaskDecorator(tenantContextTaskDecorator);
+        // Checkpoints make abandoning work safe; don't hold shutdown for long-running accounts.
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
@@ -0,0 +1,42 @@
+package com.thewealthweb.srbackend.subscription.controller;
+
+import com.thewealthweb.srbackend.subscription.dto.BackfillProgressDTO;
+import com.thewealthweb.srbackend.subscription.service.StripeBackfillService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Platform-wide backfill of the subscription and invoice mirror.
+ */
+@RestController
+@RequestMapping("/api/backfill")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('SUPER_ADMIN')")
+public class BackfillController {
+
+    private final StripeBackfillService stripeBackfillService;
+
+    @GetMapping
+    public ResponseEntity<List<BackfillProgressDTO>> getProgress() {
+        return ResponseEntity.ok(stripeBackfillService.getProgress());
+    }
+
+    @PostMapping
+    public ResponseEntity<?> backfillAllAccounts() {
+        return ResponseEntity.accepted().body(Map.of("queued", stripeBackfillService.enqueueAllConnectedAccounts()));
+    }
+
+    @PostMapping("/{stripeAccountId}")
+    public ResponseEntity<?> backfillAccount(@PathVariable String stripeAccountId) {
+        return ResponseEntity.accepted().body(Map.of("queued", stripeBackfillService.enqueue(stripeAccountId)));
+    }
+}
@@ -0,0 +1,55 @@
+package com.thewealthweb.srbackend.subscription.controller;
+
+import com.stripe.exception.StripeException;
+import com.thewealthweb.srbackend.common.dto.ErrorMessage;
+import com.thewealthweb.srbackend.subscription.dto.SubscriptionDTO;
+import com.thewealthweb.srbackend.subscription.service.SubscriptionQueryService;
+import com.thewealthweb.srbackend.subscription.service.SubscriptionSyncService;
+import com.thewealthweb.srbackend.tenant.config.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/subscriptions")
+@RequiredArgsConstructor
+@Slf4j
+public class SubscriptionController {
+
+    private final SubscriptionQueryService subscriptionQueryService;
+    private final SubscriptionSyncService subscriptionSyncService;
+
+    /**
+     * Lists the current tenant's subscriptions from the local mirror.
+     */
+    @GetMapping
+    public ResponseEntity<Page<SubscriptionDTO>> getSubscriptions(@RequestParam(required = false) String status,
+                                                                  @RequestParam(defaultValue = "0") int page,
+                                                                  @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(subscriptionQueryService.listForTenant(TenantContext.getTenantId(), status,
+                PageRequest.of(page, Math.min(size, 200))));
+    }
+
+    /**
+     * Pulls changes since the last sync from the tenant's Stripe account.
+     */
+    @PostMapping("/sync")
+    @PreAuthorize("hasAnyRole('COMPANY_ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<?> syncSubscriptions() {
+        try {
+            return ResponseEntity.ok(subscriptionSyncService.syncCurrentTenant());
+        } catch (StripeException e) {
+            log.error("Error syncing subscriptions for tenant {}: {}", TenantContext.getTenantId(), e.getMessage());
+            return new ResponseEntity<>(new ErrorMessage(1, "Stripe API Error", e.getMessage()), HttpStatus.BAD_GATEWAY);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.thewealthweb.srbackend.subscription.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class BackfillProgressDTO {
+    private String tenantId;
+    private String stripeAccountId;
+    private String resource;
+    private String status;
+    private long pagesFetched;
+    private long recordsWritten;
+    private double pagesPerSecond; // Since startedAt, including any time the job was down
+    private Instant startedAt;
+    private Instant completedAt;
+    private String lastError;
+}
@@ -0,0 +1,23 @@
+package com.thewealthweb.srbackend.subscription.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class SubscriptionDTO {
+    private String subscriptionId;
+    private String customerId;
+    private String status;
+    private String currency;
+    private String collectionMethod;
+    private boolean cancelAtPeriodEnd;
+    private String latestInvoiceId;
+    private String priceId;
+    private Long quantity;
+    private Instant currentPeriodEnd;
+    private Instant stripeCreatedAt;
+    private Instant canceledAt;
+    private Instant endedAt;
+    private Instant syncedAt;
+}
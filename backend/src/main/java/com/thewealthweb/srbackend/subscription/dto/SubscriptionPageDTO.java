@@ -0,0 +1,10 @@
+package com.thewealthweb.srbackend.subscription.dto;
+
+import java.util.List;
+
+/**
+ * One page of a cursor-paginated subscription listing.
+ * @param nextCursor Pass as startingAfter to get the next page; null on the last page.
+ */
+public record SubscriptionPageDTO(List<SubscriptionSummaryDTO> data, String nextCursor, boolean hasMore) {
+}
@@ -0,0 +1,22 @@
+package com.thewealthweb.srbackend.subscription.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Slim projection of a Stripe subscription, for list responses that must not carry the full object graph.
+ */
+@Data
+public class SubscriptionSummaryDTO {
+    private String subscriptionId;
+    private String customerId;
+    private String status;
+    private String currency;
+    private boolean cancelAtPeriodEnd;
+    private String latestInvoiceId;
+    private String priceId;
+    private Long quantity;
+    private Instant currentPeriodEnd;
+    private Instant createdAt;
+}
@@ -0,0 +1,10 @@
+package com.thewealthweb.srbackend.subscription.dto;
+
+/**
+ * Outcome of one sync run for a connected account.
+ * @param fullSync Whether the whole account was re-listed (first sync, or the event delta had expired).
+ * @param subscriptionsListed Subscriptions written from list pages.
+ * @param eventsApplied Subscription events written from the Events API delta.
+ */
+public record SubscriptionSyncResult(String stripeAccountId, boolean fullSync, int subscriptionsListed, int eventsApplied) {
+}
@@ -0,0 +1,73 @@
+package com.thewealthweb.srbackend.subscription.entity;
+
+import com.thewealthweb.srbackend.common.entity.IdSequences;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Progress of the backfill of one resource on one connected account.
+ * Saved after every page; a restarted backfill continues after startingAfter.
+ * An unfinished checkpoint is leased to the node running it, which renews the lease with every page.
+ */
+@Entity
+@Table(name = "stripe_backfill_checkpoints",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_stripe_backfill_checkpoints", columnNames = {"stripe_account_id", "resource"})
+        },
+        indexes = {
+                @Index(name = "idx_stripe_backfill_checkpoints_status", columnList = "status")
+        })
+@Data
+public class BackfillCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = IdSequences.BACKFILL_CHECKPOINTS)
+    @SequenceGenerator(name = IdSequences.BACKFILL_CHECKPOINTS, sequenceName = IdSequences.BACKFILL_CHECKPOINTS, allocationSize = IdSequences.ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private String tenantId;
+
+    @Column(name = "stripe_account_id", nullable = false)
+    private String stripeAccountId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "resource", nullable = false, length = 20)
+    private BackfillResource resource;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private BackfillStatus status;
+
+    @Column(name = "starting_after")
+    private String startingAfter; // Id of the last object written; Stripe lists newest first
+
+    @Column(name = "newest_created")
+    private Long newestCreated; // "created" of the first object listed, epoch seconds
+
+    @Column(name = "pages_fetched", nullable = false)
+    private long pagesFetched;
+
+    @Column(name = "records_written", nullable = false)
+    private long recordsWritten;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+    @Column(name = "last_error", length = 1024)
+    private String lastError;
+
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private Instant leaseExpiresAt;
+
+    @Version
+    private Long version;
+}
@@ -0,0 +1,6 @@
+package com.thewealthweb.srbackend.subscription.entity;
+
+public enum BackfillResource {
+    SUBSCRIPTIONS,
+    INVOICES
+}
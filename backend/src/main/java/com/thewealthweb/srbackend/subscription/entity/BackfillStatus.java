@@ -0,0 +1,8 @@
+package com.thewealthweb.srbackend.subscription.entity;
+
+public enum BackfillStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
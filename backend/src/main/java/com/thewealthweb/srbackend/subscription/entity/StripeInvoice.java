@@ -0,0 +1,81 @@
+package com.thewealthweb.srbackend.subscription.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Local mirror of an invoice on a connected Stripe account, written like StripeSubscription:
+ * only through a batch upsert that keeps the newest observation.
+ */
+@Entity
+@Table(name = "stripe_invoices",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_stripe_invoices_invoice", columnNames = {"stripe_account_id", "invoice_id"})
+        },
+        indexes = {
+                @Index(name = "idx_stripe_invoices_tenant_created", columnList = "tenant_id, stripe_created_at"),
+                @Index(name = "idx_stripe_invoices_subscription", columnList = "subscription_id")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StripeInvoice {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private String tenantId;
+
+    @Column(name = "stripe_account_id", nullable = false)
+    private String stripeAccountId;
+
+    @Column(name = "invoice_id", nullable = false)
+    private String invoiceId; // in_...
+
+    @Column(name = "subscription_id")
+    private String subscriptionId;
+
+    @Column(name = "customer_id")
+    private String customerId;
+
+    @Column(name = "status", length = 32)
+    private String status; // draft, open, paid, uncollectible, void
+
+    @Column(name = "currency", length = 3)
+    private String currency;
+
+    @Column(name = "amount_due")
+    private Long amountDue; // Minor units
+
+    @Column(name = "amount_paid")
+    private Long amountPaid;
+
+    @Column(name = "amount_remaining")
+    private Long amountRemaining;
+
+    @Column(name = "attempt_count")
+    private Long attemptCount;
+
+    @Column(name = "next_payment_attempt")
+    private Instant nextPaymentAttempt;
+
+    @Column(name = "due_date")
+    private Instant dueDate;
+
+    @Column(name = "stripe_created_at")
+    private Instant stripeCreatedAt;
+
+    @Column(name = "source_updated_at", nullable = false)
+    private Instant sourceUpdatedAt;
+
+    @Column(name = "synced_at", nullable = false)
+    private Instant syncedAt;
+}
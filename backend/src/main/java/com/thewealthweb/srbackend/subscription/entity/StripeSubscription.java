@@ -0,0 +1,85 @@
+package com.thewealthweb.srbackend.subscription.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Local mirror of a subscription on a connected Stripe account.
+ * Rows are only written through StripeSubscriptionRepositoryCustom.upsertBatch, which keeps the
+ * newest observation: sourceUpdatedAt is when Stripe's state was observed (list call or event time).
+ */
+@Entity
+@Table(name = "stripe_subscriptions",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_stripe_subscriptions_subscription", columnNames = {"stripe_account_id", "subscription_id"})
+        },
+        indexes = {
+                @Index(name = "idx_stripe_subscriptions_tenant_created", columnList = "tenant_id, stripe_created_at"),
+                @Index(name = "idx_stripe_subscriptions_tenant_status", columnList = "tenant_id, status")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StripeSubscription {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private String tenantId; // Logical tenant id, e.g. "acme-corp"
+
+    @Column(name = "stripe_account_id", nullable = false)
+    private String stripeAccountId;
+
+    @Column(name = "subscription_id", nullable = false)
+    private String subscriptionId; // sub_...
+
+    @Column(name = "customer_id")
+    private String customerId;
+
+    @Column(name = "status", nullable = false, length = 32)
+    private String status; // Stripe status as-is: active, past_due, unpaid, canceled, ...
+
+    @Column(name = "currency", length = 3)
+    private String currency;
+
+    @Column(name = "collection_method", length = 32)
+    private String collectionMethod;
+
+    @Column(name = "cancel_at_period_end", nullable = false)
+    private boolean cancelAtPeriodEnd;
+
+    @Column(name = "latest_invoice_id")
+    private String latestInvoiceId;
+
+    @Column(name = "price_id")
+    private String priceId; // Price of the first item
+
+    @Column(name = "quantity")
+    private Long quantity;
+
+    @Column(name = "current_period_end")
+    private Instant currentPeriodEnd;
+
+    @Column(name = "stripe_created_at")
+    private Instant stripeCreatedAt;
+
+    @Column(name = "canceled_at")
+    private Instant canceledAt;
+
+    @Column(name = "ended_at")
+    private Instant endedAt;
+
+    @Column(name = "source_updated_at", nullable = false)
+    private Instant sourceUpdatedAt;
+
+    @Column(name = "synced_at", nullable = false)
+    private Instant syncedAt;
+}
@@ -0,0 +1,57 @@
+package com.thewealthweb.srbackend.subscription.entity;
+
+import com.thewealthweb.srbackend.common.entity.IdSequences;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Per connected account progress of the subscription mirror.
+ * createdWatermark bounds the next listing of new subscriptions, eventWatermark the next
+ * Events API delta; both are epoch seconds as Stripe reports them.
+ * The scheduling columns (nextSyncAt and the lease) are only written by SubscriptionSyncCursorRepositoryImpl,
+ * so saving a cursor after a sync never overwrites a lease taken meanwhile.
+ */
+@Entity
+@Table(name = "subscription_sync_cursors", indexes = {
+        @Index(name = "idx_subscription_sync_cursors_next_sync", columnList = "next_sync_at")
+})
+@Data
+public class SubscriptionSyncCursor {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = IdSequences.SUBSCRIPTION_SYNC_CURSORS)
+    @SequenceGenerator(name = IdSequences.SUBSCRIPTION_SYNC_CURSORS, sequenceName = IdSequences.SUBSCRIPTION_SYNC_CURSORS, allocationSize = IdSequences.ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private String tenantId;
+
+    @Column(name = "stripe_account_id", nullable = false, unique = true)
+    private String stripeAccountId;
+
+    @Column(name = "created_watermark")
+    private Long createdWatermark; // Newest subscription "created" already mirrored
+
+    @Column(name = "event_watermark")
+    private Long eventWatermark; // Events created at or after this are still to be applied
+
+    @Column(name = "full_sync_completed_at")
+    private Instant fullSyncCompletedAt;
+
+    @Column(name = "last_synced_at")
+    private Instant lastSyncedAt;
+
+    @Column(name = "next_sync_at", insertable = false, updatable = false)
+    private Instant nextSyncAt; // Null until the first scheduled sync
+
+    @Column(name = "lease_owner", length = 100, insertable = false, updatable = false)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at", insertable = false, updatable = false)
+    private Instant leaseExpiresAt;
+
+    @Version
+    private Long version;
+}
@@ -0,0 +1,43 @@
+package com.thewealthweb.srbackend.subscription.mapper;
+
+import com.stripe.model.Invoice;
+import com.thewealthweb.srbackend.subscription.entity.StripeInvoice;
+import org.mapstruct.Mapper;
+
+import java.time.Instant;
+
+@Mapper(componentModel = "spring")
+public interface InvoiceMapper {
+
+    /**
+     * Flattens a Stripe invoice into a mirror row.
+     * @param observedAt When this state was current at Stripe.
+     */
+    default StripeInvoice fromStripe(Invoice invoice, String tenantId, String stripeAccountId, Instant observedAt) {
+        String subscriptionId = invoice.getParent() != null && invoice.getParent().getSubscriptionDetails() != null
+                ? invoice.getParent().getSubscriptionDetails().getSubscription()
+                : null;
+        return StripeInvoice.builder()
+                .tenantId(tenantId)
+                .stripeAccountId(stripeAccountId)
+                .invoiceId(invoice.getId())
+                .subscriptionId(subscriptionId)
+                .customerId(invoice.getCustomer())
+                .status(invoice.getStatus())
+                .currency(invoice.getCurrency())
+                .amountDue(invoice.getAmountDue())
+                .amountPaid(invoice.getAmountPaid())
+                .amountRemaining(invoice.getAmountRemaining())
+                .attemptCount(invoice.getAttemptCount())
+                .nextPaymentAttempt(epochSeconds(invoice.getNextPaymentAttempt()))
+                .dueDate(epochSeconds(invoice.getDueDate()))
+                .stripeCreatedAt(epochSeconds(invoice.getCreated()))
+                .sourceUpdatedAt(observedAt)
+                .syncedAt(Instant.now())
+                .build();
+    }
+
+    private static Instant epochSeconds(Long seconds) {
+        return seconds != null ? Instant.ofEpochSecond(seconds) : null;
+    }
+}
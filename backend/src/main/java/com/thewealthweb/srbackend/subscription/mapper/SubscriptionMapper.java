@@ -0,0 +1,70 @@
+package com.thewealthweb.srbackend.subscription.mapper;
+
+import com.stripe.model.Subscription;
+import com.stripe.model.SubscriptionItem;
+import com.thewealthweb.srbackend.subscription.dto.SubscriptionDTO;
+import com.thewealthweb.srbackend.subscription.dto.SubscriptionSummaryDTO;
+import com.thewealthweb.srbackend.subscription.entity.StripeSubscription;
+import org.mapstruct.Mapper;
+
+import java.time.Instant;
+
+@Mapper(componentModel = "spring")
+public interface SubscriptionMapper {
+
+    SubscriptionDTO toDto(StripeSubscription subscription);
+
+    default SubscriptionSummaryDTO toSummary(Subscription subscription) {
+        SubscriptionItem firstItem = firstItem(subscription);
+        SubscriptionSummaryDTO dto = new SubscriptionSummaryDTO();
+        dto.setSubscriptionId(subscription.getId());
+        dto.setCustomerId(subscription.getCustomer());
+        dto.setStatus(subscription.getStatus());
+        dto.setCurrency(subscription.getCurrency());
+        dto.setCancelAtPeriodEnd(Boolean.TRUE.equals(subscription.getCancelAtPeriodEnd()));
+        dto.setLatestInvoiceId(subscription.getLatestInvoice());
+        dto.setPriceId(firstItem != null && firstItem.getPrice() != null ? firstItem.getPrice().getId() : null);
+        dto.setQuantity(firstItem != null ? firstItem.getQuantity() : null);
+        dto.setCurrentPeriodEnd(epochSeconds(firstItem != null ? firstItem.getCurrentPeriodEnd() : null));
+        dto.setCreatedAt(epochSeconds(subscription.getCreated()));
+        return dto;
+    }
+
+    /**
+     * Flattens a Stripe subscription into a mirror row.
+     * @param observedAt When this state was current at Stripe (list time or event creation time).
+     */
+    default StripeSubscription fromStripe(Subscription subscription, String tenantId, String stripeAccountId, Instant observedAt) {
+        SubscriptionItem firstItem = firstItem(subscription);
+        return StripeSubscription.builder()
+                .tenantId(tenantId)
+                .stripeAccountId(stripeAccountId)
+                .subscriptionId(subscription.getId())
+                .customerId(subscription.getCustomer())
+                .status(subscription.getStatus())
+                .currency(subscription.getCurrency())
+                .collectionMethod(subscription.getCollectionMethod())
+                .cancelAtPeriodEnd(Boolean.TRUE.equals(subscription.getCancelAtPeriodEnd()))
+                .latestInvoiceId(subscription.getLatestInvoice())
+                .priceId(firstItem != null && firstItem.getPrice() != null ? firstItem.getPrice().getId() : null)
+                .quantity(firstItem != null ? firstItem.getQuantity() : null)
+                .currentPeriodEnd(epochSeconds(firstItem != null ? firstItem.getCurrentPeriodEnd() : null))
+                .stripeCreatedAt(epochSeconds(subscription.getCreated()))
+                .canceledAt(epochSeconds(subscription.getCanceledAt()))
+                .endedAt(epochSeconds(subscription.getEndedAt()))
+                .sourceUpdatedAt(observedAt)
+                .syncedAt(Instant.now())
+                .build();
+    }
+
+    private static SubscriptionItem firstItem(Subscription subscription) {
+        return subscription.getItems() != null && subscription.getItems().getData() != null
+                && !subscription.getItems().getData().isEmpty()
+                ? subscription.getItems().getData().get(0)
+                : null;
+    }
+
+    private static Instant epochSeconds(Long seconds) {
+        return seconds != null ? Instant.ofEpochSecond(seconds) : null;
+    }
+}
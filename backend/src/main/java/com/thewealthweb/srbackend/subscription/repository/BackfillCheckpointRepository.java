@@ -0,0 +1,21 @@
+package com.thewealthweb.srbackend.subscription.repository;
+
+import com.thewealthweb.srbackend.subscription.entity.BackfillCheckpoint;
+import com.thewealthweb.srbackend.subscription.entity.BackfillResource;
+import com.thewealthweb.srbackend.subscription.entity.BackfillStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BackfillCheckpointRepository extends JpaRepository<BackfillCheckpoint, Long>, BackfillCheckpointRepositoryCustom {
+
+    Optional<BackfillCheckpoint> findByStripeAccountIdAndResource(String stripeAccountId, BackfillResource resource);
+
+    boolean existsByStripeAccountIdAndStatusIn(String stripeAccountId, Collection<BackfillStatus> statuses);
+
+    List<BackfillCheckpoint> findAllByOrderByStripeAccountIdAscResourceAsc();
+}
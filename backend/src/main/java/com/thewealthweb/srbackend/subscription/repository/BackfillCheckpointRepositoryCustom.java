@@ -0,0 +1,19 @@
+package com.thewealthweb.srbackend.subscription.repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+public interface BackfillCheckpointRepositoryCustom {
+
+    /**
+     * Leases the unfinished (PENDING or RUNNING) checkpoints of up to maxAccounts accounts whose lease expired,
+     * skipping rows another node is leasing at the same moment.
+     * @param owner Lease owner, the NodeIdentity of this instance.
+     * @param now Leases expiring before now are taken over.
+     * @param leaseTtl How long the lease holds unless the backfill renews it.
+     * @param maxAccounts Maximum number of accounts to lease.
+     * @return Stripe account ids with at least one checkpoint leased to owner.
+     */
+    List<String> leaseUnfinished(String owner, Instant now, Duration leaseTtl, int maxAccounts);
+}
@@ -0,0 +1,44 @@
+package com.thewealthweb.srbackend.subscription.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Work claiming for backfills with FOR UPDATE SKIP LOCKED, like RetryAttemptRepositoryImpl.
+ * The lease bumps the version, so a node whose lease was taken over fails its next checkpoint save.
+ */
+@RequiredArgsConstructor
+public class BackfillCheckpointRepositoryImpl implements BackfillCheckpointRepositoryCustom {
+
+    // Rows are locked in (account, resource) order, so concurrent nodes rarely split one account between them.
+    private static final String LEASE_UNFINISHED_SQL = """
+            UPDATE stripe_backfill_checkpoints c
+            SET lease_owner = ?, lease_expires_at = ?, version = c.version + 1
+            FROM (SELECT id FROM stripe_backfill_checkpoints
+                  WHERE status IN ('PENDING', 'RUNNING')
+                    AND (lease_expires_at IS NULL OR lease_expires_at < ?)
+                    AND stripe_account_id IN (SELECT DISTINCT stripe_account_id FROM stripe_backfill_checkpoints
+                                              WHERE status IN ('PENDING', 'RUNNING')
+                                                AND (lease_expires_at IS NULL OR lease_expires_at < ?)
+                                              ORDER BY stripe_account_id
+                                              LIMIT ?)
+                  ORDER BY stripe_account_id, resource
+                  FOR UPDATE SKIP LOCKED) unfinished
+            WHERE c.id = unfinished.id
+            RETURNING c.stripe_account_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<String> leaseUnfinished(String owner, Instant now, Duration leaseTtl, int maxAccounts) {
+        Timestamp at = Timestamp.from(now);
+        return jdbcTemplate.queryForList(LEASE_UNFINISHED_SQL, String.class,
+                owner, Timestamp.from(now.plus(leaseTtl)), at, at, maxAccounts).stream().distinct().toList();
+    }
+}
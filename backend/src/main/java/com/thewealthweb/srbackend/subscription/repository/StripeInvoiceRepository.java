@@ -0,0 +1,9 @@
+package com.thewealthweb.srbackend.subscription.repository;
+
+import com.thewealthweb.srbackend.subscription.entity.StripeInvoice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StripeInvoiceRepository extends JpaRepository<StripeInvoice, Long>, StripeInvoiceRepositoryCustom {
+}
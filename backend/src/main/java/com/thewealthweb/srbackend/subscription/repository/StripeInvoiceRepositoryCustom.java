@@ -0,0 +1,14 @@
+package com.thewealthweb.srbackend.subscription.repository;
+
+import com.thewealthweb.srbackend.subscription.entity.StripeInvoice;
+
+import java.util.List;
+
+public interface StripeInvoiceRepositoryCustom {
+
+    /**
+     * Inserts or updates mirrored invoices using a single JDBC batch, keeping the newest observation per invoice.
+     * @param invoices Invoices to write; ids are ignored.
+     */
+    void upsertBatch(List<StripeInvoice> invoices);
+}
@@ -0,0 +1,92 @@
+package com.thewealthweb.srbackend.subscription.repository;
+
+import com.thewealthweb.srbackend.subscription.entity.StripeInvoice;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Plain JDBC batch upsert for the invoice mirror, one round-trip per backfill page.
+ */
+@RequiredArgsConstructor
+public class StripeInvoiceRepositoryImpl implements StripeInvoiceRepositoryCustom {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO stripe_invoices
+                (tenant_id, stripe_account_id, invoice_id, subscription_id, customer_id, status, currency,
+                 amount_due, amount_paid, amount_remaining, attempt_count, next_payment_attempt, due_date,
+                 stripe_created_at, source_updated_at, synced_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (stripe_account_id, invoice_id) DO UPDATE SET
+                tenant_id = EXCLUDED.tenant_id,
+                subscription_id = EXCLUDED.subscription_id,
+                customer_id = EXCLUDED.customer_id,
+                status = EXCLUDED.status,
+                currency = EXCLUDED.currency,
+                amount_due = EXCLUDED.amount_due,
+                amount_paid = EXCLUDED.amount_paid,
+                amount_remaining = EXCLUDED.amount_remaining,
+                attempt_count = EXCLUDED.attempt_count,
+                next_payment_attempt = EXCLUDED.next_payment_attempt,
+                due_date = EXCLUDED.due_date,
+                stripe_created_at = EXCLUDED.stripe_created_at,
+                source_updated_at = EXCLUDED.source_updated_at,
+                synced_at = EXCLUDED.synced_at
+            WHERE stripe_invoices.source_updated_at <= EXCLUDED.source_updated_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void upsertBatch(List<StripeInvoice> invoices) {
+        if (invoices.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                StripeInvoice invoice = invoices.get(i);
+                ps.setString(1, invoice.getTenantId());
+                ps.setString(2, invoice.getStripeAccountId());
+                ps.setString(3, invoice.getInvoiceId());
+                ps.setString(4, invoice.getSubscriptionId());
+                ps.setString(5, invoice.getCustomerId());
+                ps.setString(6, invoice.getStatus());
+                ps.setString(7, invoice.getCurrency());
+                setLong(ps, 8, invoice.getAmountDue());
+                setLong(ps, 9, invoice.getAmountPaid());
+                setLong(ps, 10, invoice.getAmountRemaining());
+                setLong(ps, 11, invoice.getAttemptCount());
+                ps.setTimestamp(12, toTimestamp(invoice.getNextPaymentAttempt()));
+                ps.setTimestamp(13, toTimestamp(invoice.getDueDate()));
+                ps.setTimestamp(14, toTimestamp(invoice.getStripeCreatedAt()));
+                ps.setTimestamp(15, toTimestamp(invoice.getSourceUpdatedAt()));
+                ps.setTimestamp(16, toTimestamp(invoice.getSyncedAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return invoices.size();
+            }
+        });
+    }
+
+    private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value != null) {
+            ps.setLong(index, value);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return instant != null ? Timestamp.from(instant) : null;
+    }
+}
@@ -0,0 +1,15 @@
+package com.thewealthweb.srbackend.subscription.repository;
+
+import com.thewealthweb.srbackend.subscription.entity.StripeSubscription;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StripeSubscriptionRepository extends JpaRepository<StripeSubscription, Long>, StripeSubscriptionRepositoryCustom {
+
+    Page<StripeSubscription> findByTenantIdOrderByStripeCreatedAtDesc(String tenantId, Pageable pageable);
+
+    Page<StripeSubscription> findByTenantIdAndStatusOrderByStripeCreatedAtDesc(String tenantId, String status, Pageable pageable);
+}
@@ -0,0 +1,16 @@
+package com.thewealthweb.srbackend.subscription.repository;
+
+import com.thewealthweb.srbackend.subscription.entity.StripeSubscription;
+
+import java.util.List;
+
+public interface StripeSubscriptionRepositoryCustom {
+
+    /**
+     * Inserts or updates mirrored subscriptions using a single JDBC batch.
+     * An existing row is only overwritten when the incoming observation is not older than the stored one,
+     * so list pages, event deltas and webhooks can be applied in any order.
+     * @param subscriptions Subscriptions to write; ids are ignored.
+     */
+    void upsertBatch(List<StripeSubscription> subscriptions);
+}
@@ -0,0 +1,90 @@
+package com.thewealthweb.srbackend.subscription.repository;
+
+import com.thewealthweb.srbackend.subscription.entity.StripeSubscription;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Plain JDBC batch upsert for the subscription mirror; a sync page of 100 subscriptions is one round-trip.
+ */
+@RequiredArgsConstructor
+public class StripeSubscriptionRepositoryImpl implements StripeSubscriptionRepositoryCustom {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO stripe_subscriptions
+                (tenant_id, stripe_account_id, subscription_id, customer_id, status, currency, collection_method,
+                 cancel_at_period_end, latest_invoice_id, price_id, quantity, current_period_end, stripe_created_at,
+                 canceled_at, ended_at, source_updated_at, synced_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (stripe_account_id, subscription_id) DO UPDATE SET
+                tenant_id = EXCLUDED.tenant_id,
+                customer_id = EXCLUDED.customer_id,
+                status = EXCLUDED.status,
+                currency = EXCLUDED.currency,
+                collection_method = EXCLUDED.collection_method,
+                cancel_at_period_end = EXCLUDED.cancel_at_period_end,
+                latest_invoice_id = EXCLUDED.latest_invoice_id,
+                price_id = EXCLUDED.price_id,
+                quantity = EXCLUDED.quantity,
+                current_period_end = EXCLUDED.current_period_end,
+                stripe_created_at = EXCLUDED.stripe_created_at,
+                canceled_at = EXCLUDED.canceled_at,
+                ended_at = EXCLUDED.ended_at,
+                source_updated_at = EXCLUDED.source_updated_at,
+                synced_at = EXCLUDED.synced_at
+            WHERE stripe_subscriptions.source_updated_at <= EXCLUDED.source_updated_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void upsertBatch(List<StripeSubscription> subscriptions) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                StripeSubscription s = subscriptions.get(i);
+                ps.setString(1, s.getTenantId());
+                ps.setString(2, s.getStripeAccountId());
+                ps.setString(3, s.getSubscriptionId());
+                ps.setString(4, s.getCustomerId());
+                ps.setString(5, s.getStatus());
+                ps.setString(6, s.getCurrency());
+                ps.setString(7, s.getCollectionMethod());
+                ps.setBoolean(8, s.isCancelAtPeriodEnd());
+                ps.setString(9, s.getLatestInvoiceId());
+                ps.setString(10, s.getPriceId());
+                if (s.getQuantity() != null) {
+                    ps.setLong(11, s.getQuantity());
+                } else {
+                    ps.setNull(11, Types.BIGINT);
+                }
+                ps.setTimestamp(12, toTimestamp(s.getCurrentPeriodEnd()));
+                ps.setTimestamp(13, toTimestamp(s.getStripeCreatedAt()));
+                ps.setTimestamp(14, toTimestamp(s.getCanceledAt()));
+                ps.setTimestamp(15, toTimestamp(s.getEndedAt()));
+                ps.setTimestamp(16, toTimestamp(s.getSourceUpdatedAt()));
+                ps.setTimestamp(17, toTimestamp(s.getSyncedAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return subscriptions.size();
+            }
+        });
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return instant != null ? Timestamp.from(instant) : null;
+    }
+}
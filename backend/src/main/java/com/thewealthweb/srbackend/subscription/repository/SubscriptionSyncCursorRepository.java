@@ -0,0 +1,17 @@
+package com.thewealthweb.srbackend.subscription.repository;
+
+import com.thewealthweb.srbackend.subscription.entity.SubscriptionSyncCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SubscriptionSyncCursorRepository extends JpaRepository<SubscriptionSyncCursor, Long>, SubscriptionSyncCursorRepositoryCustom {
+    Optional<SubscriptionSyncCursor> findByStripeAccountId(String stripeAccountId);
+
+    @Query("select c.stripeAccountId from SubscriptionSyncCursor c")
+    List<String> findAllStripeAccountIds();
+}
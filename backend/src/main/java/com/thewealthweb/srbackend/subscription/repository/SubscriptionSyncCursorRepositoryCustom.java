@@ -0,0 +1,26 @@
+package com.thewealthweb.srbackend.subscription.repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+public interface SubscriptionSyncCursorRepositoryCustom {
+
+    /**
+     * Leases cursors due for a scheduled sync, skipping rows another node is leasing at the same moment.
+     * Cursors whose lease expired are due again.
+     * @param owner Lease owner, the NodeIdentity of this instance.
+     * @param now Cursors with next_sync_at up to now are due.
+     * @param leaseTtl How long the lease holds before another node may take the cursor over.
+     * @param limit Maximum number of cursors to lease.
+     * @return Stripe account ids of the leased cursors.
+     */
+    List<String> leaseDue(String owner, Instant now, Duration leaseTtl, int limit);
+
+    /**
+     * Schedules the next sync of a leased cursor and releases the lease.
+     * Does nothing if the lease has been taken over by another node.
+     * @return true if this owner still held the lease.
+     */
+    boolean completeLease(String stripeAccountId, String owner, Instant nextSyncAt);
+}
@@ -0,0 +1,49 @@
+package com.thewealthweb.srbackend.subscription.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Work claiming for the scheduled subscription sync with FOR UPDATE SKIP LOCKED, like RetryAttemptRepositoryImpl.
+ */
+@RequiredArgsConstructor
+public class SubscriptionSyncCursorRepositoryImpl implements SubscriptionSyncCursorRepositoryCustom {
+
+    private static final String LEASE_DUE_SQL = """
+            UPDATE subscription_sync_cursors c
+            SET lease_owner = ?, lease_expires_at = ?
+            FROM (SELECT id FROM subscription_sync_cursors
+                  WHERE (next_sync_at IS NULL OR next_sync_at <= ?)
+                    AND (lease_expires_at IS NULL OR lease_expires_at < ?)
+                  ORDER BY next_sync_at NULLS FIRST
+                  LIMIT ?
+                  FOR UPDATE SKIP LOCKED) due
+            WHERE c.id = due.id
+            RETURNING c.stripe_account_id
+            """;
+
+    private static final String COMPLETE_LEASE_SQL = """
+            UPDATE subscription_sync_cursors
+            SET next_sync_at = ?, lease_owner = NULL, lease_expires_at = NULL
+            WHERE stripe_account_id = ? AND lease_owner = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<String> leaseDue(String owner, Instant now, Duration leaseTtl, int limit) {
+        Timestamp at = Timestamp.from(now);
+        return jdbcTemplate.queryForList(LEASE_DUE_SQL, String.class,
+                owner, Timestamp.from(now.plus(leaseTtl)), at, at, limit);
+    }
+
+    @Override
+    public boolean completeLease(String stripeAccountId, String owner, Instant nextSyncAt) {
+        return jdbcTemplate.update(COMPLETE_LEASE_SQL, Timestamp.from(nextSyncAt), stripeAccountId, owner) == 1;
+    }
+}
@@ -0,0 +1,410 @@
+package com.thewealthweb.srbackend.subscription.service;
+
+import com.stripe.exception.RateLimitException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.Invoice;
+import com.stripe.model.InvoiceCollection;
+import com.stripe.model.StripeCollection;
+import com.stripe.model.Subscription;
+import com.stripe.model.SubscriptionCollection;
+import com.thewealthweb.srbackend.config.NodeIdentity;
+import com.thewealthweb.srbackend.stripe.dto.StripeAccountConnectedEvent;
+import com.thewealthweb.srbackend.stripe.dto.StripeConnectedAccount;
+import com.thewealthweb.srbackend.stripe.repository.StripeAccountConnectionRepository;
+import com.thewealthweb.srbackend.stripe.service.StripeOAuthService;
+import com.thewealthweb.srbackend.stripe.service.StripeMetrics;
+import com.thewealthweb.srbackend.stripe.service.StripeRateLimiter;
+import com.thewealthweb.srbackend.subscription.dto.BackfillProgressDTO;
+import com.thewealthweb.srbackend.subscription.entity.BackfillCheckpoint;
+import com.thewealthweb.srbackend.subscription.entity.BackfillResource;
+import com.thewealthweb.srbackend.subscription.entity.BackfillStatus;
+import com.thewealthweb.srbackend.subscription.entity.StripeInvoice;
+import com.thewealthweb.srbackend.subscription.entity.StripeSubscription;
+import com.thewealthweb.srbackend.subscription.mapper.InvoiceMapper;
+import com.thewealthweb.srbackend.subscription.mapper.SubscriptionMapper;
+import com.thewealthweb.srbackend.subscription.repository.BackfillCheckpointRepository;
+import com.thewealthweb.srbackend.subscription.repository.StripeInvoiceRepository;
+import com.thewealthweb.srbackend.subscription.repository.StripeSubscriptionRepository;
+import com.thewealthweb.srbackend.tenant.config.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Copies all subscriptions and invoices of connected accounts into the local mirror.
+ * Accounts are backfilled in parallel on the backfillExecutor, while every Stripe call goes
+ * through the shared StripeRateLimiter. A checkpoint is saved after each page.
+ * Every replica resumes unfinished backfills, but only those whose checkpoints it leased with
+ * FOR UPDATE SKIP LOCKED, and never more accounts than it has workers; the lease is renewed with
+ * every page, so an account is backfilled by one node and taken over once a crashed node's lease expires.
+ */
+@Service
+@Slf4j
+public class StripeBackfillService {
+
+    private static final int PAGE_SIZE = 100;
+    private static final EnumSet<BackfillStatus> UNFINISHED = EnumSet.of(BackfillStatus.PENDING, BackfillStatus.RUNNING);
+
+    @Value("${stripe.backfill.rate-limit-backoff:PT2S}")
+    private Duration rateLimitBackoff;
+
+    @Value("${stripe.backfill.max-rate-limit-retries:8}")
+    private int maxRateLimitRetries;
+
+    @Value("${stripe.backfill.parallelism:4}")
+    private int parallelism;
+
+    @Value("${stripe.backfill.lease-ttl:PT15M}")
+    private Duration leaseTtl;
+
+    private final StripeOAuthService stripeOAuthService;
+    private final StripeAccountConnectionRepository stripeAccountConnectionRepository;
+    private final StripeRateLimiter stripeRateLimiter;
+    private final StripeMetrics stripeMetrics;
+    private final BackfillCheckpointRepository checkpointRepository;
+    private final StripeSubscriptionRepository stripeSubscriptionRepository;
+    private final StripeInvoiceRepository stripeInvoiceRepository;
+    private final SubscriptionMapper subscriptionMapper;
+    private final InvoiceMapper invoiceMapper;
+    private final SubscriptionSyncService subscriptionSyncService;
+    private final TaskExecutor backfillExecutor;
+    private final NodeIdentity nodeIdentity;
+    private final Map<BackfillResource, Counter> pageCounters = new EnumMap<>(BackfillResource.class);
+
+    // Accounts queued or running on this node.
+    private final Set<String> active = ConcurrentHashMap.newKeySet();
+
+    public StripeBackfillService(StripeOAuthService stripeOAuthService,
+                                 StripeAccountConnectionRepository stripeAccountConnectionRepository,
+                                 StripeRateLimiter stripeRateLimiter,
+                                 StripeMetrics stripeMetrics,
+                                 BackfillCheckpointRepository checkpointRepository,
+                                 StripeSubscriptionRepository stripeSubscriptionRepository,
+                                 StripeInvoiceRepository stripeInvoiceRepository,
+                                 SubscriptionMapper subscriptionMapper,
+                                 InvoiceMapper invoiceMapper,
+                                 SubscriptionSyncService subscriptionSyncService,
+                                 @Qualifier("backfillExecutor") TaskExecutor backfillExecutor,
+                                 NodeIdentity nodeIdentity,
+                                 MeterRegistry meterRegistry) {
+        this.stripeOAuthService = stripeOAuthService;
+        this.stripeAccountConnectionRepository = stripeAccountConnectionRepository;
+        this.stripeRateLimiter = stripeRateLimiter;
+        this.stripeMetrics = stripeMetrics;
+        this.checkpointRepository = checkpointRepository;
+        this.stripeSubscriptionRepository = stripeSubscriptionRepository;
+        this.stripeInvoiceRepository = stripeInvoiceRepository;
+        this.subscriptionMapper = subscriptionMapper;
+        this.invoiceMapper = invoiceMapper;
+        this.subscriptionSyncService = subscriptionSyncService;
+        this.backfillExecutor = backfillExecutor;
+        this.nodeIdentity = nodeIdentity;
+        for (BackfillResource resource : BackfillResource.values()) {
+            // Rate of this counter is the backfill throughput in pages/sec.
+            pageCounters.put(resource, Counter.builder("stripe.backfill.pages")
+                    .tag("resource", resource.name().toLowerCase())
+                    .description("Stripe list pages written by the backfill")
+                    .register(meterRegistry));
+        }
+        Gauge.builder("stripe.backfill.active_accounts", active, Set::size).register(meterRegistry);
+    }
+
+    /**
+     * Starts the backfill of a newly connected account once the connection is committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountConnected(StripeAccountConnectedEvent event) {
+        enqueue(event.stripeUserId());
+    }
+
+    /**
+     * Leases and starts unfinished backfills: those pending, and those a stopped or crashed node left
+     * RUNNING once their lease expired.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${stripe.backfill.resume-interval-ms:60000}",
+            initialDelayString = "${stripe.backfill.resume-interval-ms:60000}")
+    public void resumeUnfinished() {
+        int capacity = parallelism - active.size();
+        if (capacity <= 0) {
+            return;
+        }
+        List<String> accounts = checkpointRepository.leaseUnfinished(nodeIdentity.getId(), Instant.now(), leaseTtl, capacity);
+        if (!accounts.isEmpty()) {
+            log.info("Leased the Stripe backfill of {} accounts to {}", accounts.size(), nodeIdentity.getId());
+        }
+        accounts.forEach(this::submit);
+    }
+
+    /**
+     * Queues the backfill of one connected account. Completed resources are not repeated;
+     * failed ones continue from their last checkpoint. The account runs on whichever node leases it first.
+     * @param stripeUserId The connected account id (acct_...).
+     * @return false if a node is already backfilling the account.
+     */
+    public boolean enqueue(String stripeUserId) {
+        if (!markPending(stripeUserId)) {
+            return false;
+        }
+        resumeUnfinished();
+        return true;
+    }
+
+    private boolean markPending(String stripeUserId) {
+        StripeConnectedAccount account = stripeOAuthService.resolveConnectedAccount(stripeUserId);
+        Instant now = Instant.now();
+        List<BackfillCheckpoint> checkpoints = new ArrayList<>();
+        for (BackfillResource resource : BackfillResource.values()) {
+            BackfillCheckpoint checkpoint = checkpointRepository.findByStripeAccountIdAndResource(stripeUserId, resource)
+                    .orElseGet(() -> {
+                        BackfillCheckpoint created = new BackfillCheckpoint();
+                        created.setStripeAccountId(stripeUserId);
+                        created.setResource(resource);
+                        created.setStatus(BackfillStatus.PENDING);
+                        return created;
+                    });
+            if (UNFINISHED.contains(checkpoint.getStatus()) && checkpoint.getLeaseExpiresAt() != null
+                    && checkpoint.getLeaseExpiresAt().isAfter(now)) {
+                return false; // Leased, so a node is running it
+            }
+            checkpoints.add(checkpoint);
+        }
+        for (BackfillCheckpoint checkpoint : checkpoints) {
+            if (checkpoint.getStatus() == BackfillStatus.FAILED) {
+                checkpoint.setStatus(BackfillStatus.PENDING);
+            }
+            checkpoint.setTenantId(account.logicalTenantId());
+            checkpointRepository.save(checkpoint);
+        }
+        return true;
+    }
+
+    /**
+     * Queues the backfill of every connected account.
+     * @return The number of accounts queued.
+     */
+    public int enqueueAllConnectedAccounts() {
+        int queued = 0;
+        for (String stripeUserId : stripeAccountConnectionRepository.findAllStripeUserIds()) {
+            if (markPending(stripeUserId)) {
+                queued++;
+            }
+        }
+        resumeUnfinished(); // The rest is leased by this and the other nodes as workers free up
+        return queued;
+    }
+
+    public List<BackfillProgressDTO> getProgress() {
+        Instant now = Instant.now();
+        return checkpointRepository.findAllByOrderByStripeAccountIdAscResourceAsc().stream()
+                .map(checkpoint -> toProgress(checkpoint, now))
+                .toList();
+    }
+
+    private boolean submit(String stripeUserId) {
+        if (!active.add(stripeUserId)) {
+            return false;
+        }
+        backfillExecutor.execute(() -> {
+            try {
+                backfillAccount(stripeUserId);
+            } finally {
+                active.remove(stripeUserId);
+            }
+        });
+        return true;
+    }
+
+    private void backfillAccount(String stripeUserId) {
+        StripeConnectedAccount account;
+        try {
+            account = stripeOAuthService.resolveConnectedAccount(stripeUserId);
+        } catch (RuntimeException e) {
+            log.error("Cannot backfill Stripe account {}: {}", stripeUserId, e.getMessage());
+            return;
+        }
+        // Worker threads start without a tenant; bind the account's own for everything below.
+        try (TenantContext.Scope ignored = TenantContext.open(account.logicalTenantId())) {
+            for (BackfillResource resource : BackfillResource.values()) {
+                BackfillCheckpoint checkpoint = checkpointRepository.findByStripeAccountIdAndResource(stripeUserId, resource)
+                        .orElse(null);
+                if (checkpoint == null || !UNFINISHED.contains(checkpoint.getStatus())
+                        || !nodeIdentity.getId().equals(checkpoint.getLeaseOwner())) {
+                    continue; // Done, or leased by another node
+                }
+                try {
+                    backfillResource(account, checkpoint);
+                } catch (InterruptedException e) {
+                    // Shutdown: the checkpoint stays RUNNING and is resumed by any node once its lease expires.
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (OptimisticLockingFailureException e) {
+                    log.warn("Lease on the backfill of {} for account {} was taken over", resource, stripeUserId);
+                    return;
+                } catch (StripeException | RuntimeException e) {
+                    log.error("Backfill of {} for account {} failed: {}", resource, stripeUserId, e.getMessage());
+                    BackfillCheckpoint failed = checkpointRepository.findById(checkpoint.getId()).orElse(checkpoint);
+                    if (!nodeIdentity.getId().equals(failed.getLeaseOwner())) {
+                        return; // Taken over meanwhile; the new owner decides
+                    }
+                    failed.setStatus(BackfillStatus.FAILED);
+                    failed.setLastError(truncate(e.getMessage()));
+                    failed.setLeaseOwner(null);
+                    failed.setLeaseExpiresAt(null);
+                    checkpointRepository.save(failed);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void backfillResource(StripeConnectedAccount account, BackfillCheckpoint checkpoint)
+            throws StripeException, InterruptedException {
+        BackfillResource resource = checkpoint.getResource();
+        if (checkpoint.getStartedAt() == null) {
+            checkpoint.setStartedAt(Instant.now());
+        }
+        checkpoint.setStatus(BackfillStatus.RUNNING);
+        checkpoint.setLastError(null);
+        checkpoint.setLeaseExpiresAt(Instant.now().plus(leaseTtl));
+        checkpoint = checkpointRepository.save(checkpoint);
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("limit", PAGE_SIZE);
+        if (resource == BackfillResource.SUBSCRIPTIONS) {
+            params.put("status", "all");
+        }
+
+        long runStartedNanos = System.nanoTime();
+        long pagesThisRun = 0;
+        boolean hasMore;
+        do {
+            if (checkpoint.getStartingAfter() != null) {
+                params.put("starting_after", checkpoint.getStartingAfter());
+            }
+            Instant observedAt = Instant.now();
+            StripeCollection<?> page = fetchPage(account, resource, params);
+            int written = writePage(account, resource, page, observedAt);
+
+            if (checkpoint.getNewestCreated() == null && !page.getData().isEmpty()) {
+                checkpoint.setNewestCreated(createdOf(page.getData().get(0)));
+            }
+            hasMore = Boolean.TRUE.equals(page.getHasMore()) && !page.getData().isEmpty();
+            if (!page.getData().isEmpty()) {
+                checkpoint.setStartingAfter(page.getData().get(page.getData().size() - 1).getId());
+            }
+            checkpoint.setPagesFetched(checkpoint.getPagesFetched() + 1);
+            checkpoint.setRecordsWritten(checkpoint.getRecordsWritten() + written);
+            if (!hasMore) {
+                checkpoint.setStatus(BackfillStatus.COMPLETED);
+                checkpoint.setCompletedAt(Instant.now());
+                checkpoint.setLeaseOwner(null);
+                checkpoint.setLeaseExpiresAt(null);
+            } else {
+                checkpoint.setLeaseExpiresAt(Instant.now().plus(leaseTtl));
+            }
+            // Fails with an optimistic lock error if another node took the lease over.
+            checkpoint = checkpointRepository.save(checkpoint);
+            pageCounters.get(resource).increment();
+            pagesThisRun++;
+        } while (hasMore);
+
+        if (resource == BackfillResource.SUBSCRIPTIONS) {
+            // The listing is a full sync as of startedAt; let the incremental sync continue from there.
+            subscriptionSyncService.markFullSyncCompleted(account, checkpoint.getNewestCreated(), checkpoint.getStartedAt());
+        }
+        double seconds = Math.max(1e-3, (System.nanoTime() - runStartedNanos) / 1e9);
+        log.info("Backfilled {} of account {}: {} records, {} pages in {}s ({} pages/sec)", resource,
+                account.stripeUserId(), checkpoint.getRecordsWritten(), pagesThisRun,
+                String.format("%.1f", seconds), String.format("%.2f", pagesThisRun / seconds));
+    }
+
+    private StripeCollection<?> fetchPage(StripeConnectedAccount account, BackfillResource resource, Map<String, Object> params)
+            throws StripeException, InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            stripeRateLimiter.acquire(account.stripeUserId());
+            try {
+                return resource == BackfillResource.SUBSCRIPTIONS
+                        ? stripeMetrics.record("subscription.list", () -> Subscription.list(params, account.requestOptions()))
+                        : stripeMetrics.record("invoice.list", () -> Invoice.list(params, account.requestOptions()));
+            } catch (RateLimitException e) {
+                // Another client of the same account is using its budget; back off exponentially.
+                if (attempt >= maxRateLimitRetries) {
+                    throw e;
+                }
+                Thread.sleep(rateLimitBackoff.toMillis() << Math.min(attempt, 6));
+            }
+        }
+    }
+
+    private int writePage(StripeConnectedAccount account, BackfillResource resource, StripeCollection<?> page, Instant observedAt) {
+        if (resource == BackfillResource.SUBSCRIPTIONS) {
+            List<StripeSubscription> rows = new ArrayList<>(page.getData().size());
+            for (Subscription subscription : ((SubscriptionCollection) page).getData()) {
+                rows.add(subscriptionMapper.fromStripe(subscription, account.logicalTenantId(), account.stripeUserId(), observedAt));
+            }
+            stripeSubscriptionRepository.upsertBatch(rows);
+            return rows.size();
+        }
+        List<StripeInvoice> rows = new ArrayList<>(page.getData().size());
+        for (Invoice invoice : ((InvoiceCollection) page).getData()) {
+            rows.add(invoiceMapper.fromStripe(invoice, account.logicalTenantId(), account.stripeUserId(), observedAt));
+        }
+        stripeInvoiceRepository.upsertBatch(rows);
+        return rows.size();
+    }
+
+    private static Long createdOf(Object object) {
+        if (object instanceof Subscription subscription) {
+            return subscription.getCreated();
+        }
+        return object instanceof Invoice invoice ? invoice.getCreated() : null;
+    }
+
+    private static BackfillProgressDTO toProgress(BackfillCheckpoint checkpoint, Instant now) {
+        BackfillProgressDTO dto = new BackfillProgressDTO();
+        dto.setTenantId(checkpoint.getTenantId());
+        dto.setStripeAccountId(checkpoint.getStripeAccountId());
+        dto.setResource(checkpoint.getResource().name());
+        dto.setStatus(checkpoint.getStatus().name());
+        dto.setPagesFetched(checkpoint.getPagesFetched());
+        dto.setRecordsWritten(checkpoint.getRecordsWritten());
+        dto.setStartedAt(checkpoint.getStartedAt());
+        dto.setCompletedAt(checkpoint.getCompletedAt());
+        dto.setLastError(checkpoint.getLastError());
+        if (checkpoint.getStartedAt() != null) {
+            Instant end = checkpoint.getCompletedAt() != null ? checkpoint.getCompletedAt() : now;
+            double seconds = Math.max(1, Duration.between(checkpoint.getStartedAt(), end).toSeconds());
+            dto.setPagesPerSecond(checkpoint.getPagesFetched() / seconds);
+        }
+        return dto;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1024 ? message.substring(0, 1024) : message;
+    }
+}
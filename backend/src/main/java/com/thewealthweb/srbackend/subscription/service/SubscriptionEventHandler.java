@@ -0,0 +1,35 @@
+package com.thewealthweb.srbackend.subscription.service;
+
+import com.stripe.model.Event;
+import com.thewealthweb.srbackend.stripe.dto.StripeConnectedAccount;
+import com.thewealthweb.srbackend.stripe.service.StripeOAuthService;
+import com.thewealthweb.srbackend.stripe.service.StripeWebhookEventHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Applies customer.subscription.* webhooks from connected accounts to the subscription mirror.
+ */
+@Component
+@RequiredArgsConstructor
+public class SubscriptionEventHandler implements StripeWebhookEventHandler {
+
+    private final SubscriptionSyncService subscriptionSyncService;
+    private final StripeOAuthService stripeOAuthService;
+
+    @Override
+    public Set<String> eventTypes() {
+        return Set.copyOf(SubscriptionSyncService.SUBSCRIPTION_EVENT_TYPES);
+    }
+
+    @Override
+    public void handle(Event event) {
+        if (event.getAccount() == null) {
+            return; // Platform subscription, not one of our tenants' customers
+        }
+        StripeConnectedAccount account = stripeOAuthService.resolveConnectedAccount(event.getAccount());
+        subscriptionSyncService.applyEvent(event, account.logicalTenantId());
+    }
+}
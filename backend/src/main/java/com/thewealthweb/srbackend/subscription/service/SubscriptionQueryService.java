@@ -0,0 +1,34 @@
+package com.thewealthweb.srbackend.subscription.service;
+
+import com.thewealthweb.srbackend.subscription.dto.SubscriptionDTO;
+import com.thewealthweb.srbackend.subscription.mapper.SubscriptionMapper;
+import com.thewealthweb.srbackend.subscription.repository.StripeSubscriptionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Reads subscriptions from the local mirror; never calls Stripe.
+ */
+@Service
+@RequiredArgsConstructor
+public class SubscriptionQueryService {
+
+    private final StripeSubscriptionRepository stripeSubscriptionRepository;
+    private final SubscriptionMapper subscriptionMapper;
+
+    /**
+     * @param tenantId The logical tenant id.
+     * @param status Optional Stripe status filter (e.g. past_due); null for all.
+     * @param pageable Page to read, newest subscriptions first.
+     */
+    @Transactional(readOnly = true)
+    public Page<SubscriptionDTO> listForTenant(String tenantId, String status, Pageable pageable) {
+        return (status == null
+                ? stripeSubscriptionRepository.findByTenantIdOrderByStripeCreatedAtDesc(tenantId, pageable)
+                : stripeSubscriptionRepository.findByTenantIdAndStatusOrderByStripeCreatedAtDesc(tenantId, status, pageable))
+                .map(subscriptionMapper::toDto);
+    }
+}
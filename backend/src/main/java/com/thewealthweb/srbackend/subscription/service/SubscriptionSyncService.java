@@ -0,0 +1,341 @@
+package com.thewealthweb.srbackend.subscription.service;
+
+import com.stripe.exception.StripeException;
+import com.stripe.model.Event;
+import com.stripe.model.EventCollection;
+import com.stripe.model.StripeObject;
+import com.stripe.model.Subscription;
+import com.stripe.model.SubscriptionCollection;
+import com.thewealthweb.srbackend.config.NodeIdentity;
+import com.thewealthweb.srbackend.stripe.dto.StripeConnectedAccount;
+import com.thewealthweb.srbackend.stripe.repository.StripeAccountConnectionRepository;
+import com.thewealthweb.srbackend.stripe.service.StripeOAuthService;
+import com.thewealthweb.srbackend.stripe.service.StripeMetrics;
+import com.thewealthweb.srbackend.stripe.service.StripeRateLimiter;
+import com.thewealthweb.srbackend.subscription.dto.SubscriptionSyncResult;
+import com.thewealthweb.srbackend.subscription.entity.BackfillStatus;
+import com.thewealthweb.srbackend.subscription.entity.StripeSubscription;
+import com.thewealthweb.srbackend.subscription.entity.SubscriptionSyncCursor;
+import com.thewealthweb.srbackend.subscription.mapper.SubscriptionMapper;
+import com.thewealthweb.srbackend.subscription.repository.BackfillCheckpointRepository;
+import com.thewealthweb.srbackend.subscription.repository.StripeSubscriptionRepository;
+import com.thewealthweb.srbackend.subscription.repository.SubscriptionSyncCursorRepository;
+import com.thewealthweb.srbackend.tenant.config.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the local subscription mirror of every connected account current.
+ * The first sync lists the account once; afterwards only subscriptions created since the
+ * created watermark and subscription events since the event watermark are pulled from Stripe,
+ * while webhooks apply changes as they happen. Every page is written and released before the
+ * next one is fetched, so memory does not grow with the size of the account.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SubscriptionSyncService {
+
+    static final List<String> SUBSCRIPTION_EVENT_TYPES = List.of(
+            "customer.subscription.created",
+            "customer.subscription.updated",
+            "customer.subscription.deleted",
+            "customer.subscription.paused",
+            "customer.subscription.resumed",
+            "customer.subscription.pending_update_applied",
+            "customer.subscription.pending_update_expired",
+            "customer.subscription.trial_will_end");
+
+    private static final int PAGE_SIZE = 100;
+
+    @Value("${subscriptions.sync.event-retention:P29D}")
+    private Duration eventRetention;
+
+    @Value("${subscriptions.sync.event-lag:PT5M}")
+    private Duration eventLag;
+
+    @Value("${subscriptions.sync.interval:PT15M}")
+    private Duration syncInterval;
+
+    @Value("${subscriptions.sync.lease-ttl:PT30M}")
+    private Duration leaseTtl;
+
+    @Value("${subscriptions.sync.lease-batch-size:5}")
+    private int leaseBatchSize;
+
+    private final StripeOAuthService stripeOAuthService;
+    private final StripeAccountConnectionRepository stripeAccountConnectionRepository;
+    private final StripeSubscriptionRepository stripeSubscriptionRepository;
+    private final SubscriptionSyncCursorRepository subscriptionSyncCursorRepository;
+    private final SubscriptionMapper subscriptionMapper;
+    private final BackfillCheckpointRepository backfillCheckpointRepository;
+    private final StripeRateLimiter stripeRateLimiter;
+    private final StripeMetrics stripeMetrics;
+    private final NodeIdentity nodeIdentity;
+
+    // Accounts with a sync running on this node; a second request for the same account is refused.
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Syncs the connected account of the current tenant.
+     * This method assumes the TenantContext is already set.
+     * @throws ResponseStatusException with 409 if a sync of the account is already running.
+     * @throws StripeException if a Stripe API call fails; progress made so far is kept.
+     */
+    public SubscriptionSyncResult syncCurrentTenant() throws StripeException {
+        return syncAccount(stripeOAuthService.resolveConnectedAccountForCurrentTenant());
+    }
+
+    /**
+     * Brings the mirror of one connected account up to date.
+     * @param account The connected account to sync.
+     * @return What was pulled from Stripe.
+     * @throws ResponseStatusException with 409 if a sync of the account is already running.
+     * @throws StripeException if a Stripe API call fails; progress made so far is kept.
+     */
+    public SubscriptionSyncResult syncAccount(StripeConnectedAccount account) throws StripeException {
+        if (!inFlight.add(account.stripeUserId())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Subscription sync already running for this account.");
+        }
+        try {
+            return doSync(account);
+        } finally {
+            inFlight.remove(account.stripeUserId());
+        }
+    }
+
+    /**
+     * Periodic catch-up for every connected account, covering webhooks that were missed or are still pending.
+     * Runs on every replica: each node leases the cursors that are due with FOR UPDATE SKIP LOCKED, so an
+     * account is synced by one node per interval and the accounts are spread over the nodes.
+     */
+    @Scheduled(fixedDelayString = "${subscriptions.sync.poll-interval-ms:60000}",
+            initialDelayString = "${subscriptions.sync.initial-delay-ms:60000}")
+    public void syncAllAccounts() {
+        createMissingCursors();
+        List<String> leased;
+        do {
+            leased = subscriptionSyncCursorRepository.leaseDue(nodeIdentity.getId(), Instant.now(), leaseTtl, leaseBatchSize);
+            for (String stripeUserId : leased) {
+                try {
+                    syncLeased(stripeUserId);
+                } finally {
+                    // A failed sync waits for the next interval, as a missed webhook would.
+                    if (!subscriptionSyncCursorRepository.completeLease(stripeUserId, nodeIdentity.getId(), Instant.now().plus(syncInterval))) {
+                        log.warn("Lease on the subscription sync of {} was taken over before it completed", stripeUserId);
+                    }
+                }
+            }
+        } while (leased.size() == leaseBatchSize);
+    }
+
+    private void syncLeased(String stripeUserId) {
+        if (backfillCheckpointRepository.existsByStripeAccountIdAndStatusIn(stripeUserId,
+                EnumSet.of(BackfillStatus.PENDING, BackfillStatus.RUNNING))) {
+            return; // The backfill hands over to the incremental sync when it completes
+        }
+        try {
+            StripeConnectedAccount account = stripeOAuthService.resolveConnectedAccount(stripeUserId);
+            // The resolved account already names its tenant; bind it instead of looking the tenant up again.
+            TenantContext.callWithTenant(account.logicalTenantId(), () -> syncAccount(account));
+        } catch (ResponseStatusException e) {
+            log.debug("Skipping subscription sync of {}: {}", stripeUserId, e.getReason());
+        } catch (StripeException e) {
+            log.warn("Subscription sync of {} failed: {}", stripeUserId, e.getMessage());
+        }
+    }
+
+    /**
+     * Gives connections that were never synced a cursor, so the lease query finds them.
+     * Nodes racing on the same account are settled by the unique stripe_account_id.
+     */
+    private void createMissingCursors() {
+        Set<String> withCursor = new HashSet<>(subscriptionSyncCursorRepository.findAllStripeAccountIds());
+        for (String stripeUserId : stripeAccountConnectionRepository.findAllStripeUserIds()) {
+            if (withCursor.contains(stripeUserId)) {
+                continue;
+            }
+            try {
+                SubscriptionSyncCursor cursor = new SubscriptionSyncCursor();
+                cursor.setStripeAccountId(stripeUserId);
+                cursor.setTenantId(stripeOAuthService.resolveConnectedAccount(stripeUserId).logicalTenantId());
+                subscriptionSyncCursorRepository.save(cursor);
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Sync cursor of {} was created by another node", stripeUserId);
+            } catch (ResponseStatusException e) {
+                log.debug("Skipping subscription sync of {}: {}", stripeUserId, e.getReason());
+            }
+        }
+    }
+
+    /**
+     * Applies a single subscription event (webhook delivery) to the mirror.
+     * @param event A customer.subscription.* event of a connected account.
+     * @param tenantId The logical tenant owning the account.
+     */
+    public void applyEvent(Event event, String tenantId) {
+        subscriptionOf(event).ifPresent(subscription -> stripeSubscriptionRepository.upsertBatch(List.of(
+                subscriptionMapper.fromStripe(subscription, tenantId, event.getAccount(), Instant.ofEpochSecond(event.getCreated())))));
+    }
+
+    /**
+     * Records a completed full listing made by the backfill, so the next sync only pulls deltas.
+     * Does nothing if the account already has a completed sync of its own.
+     * @param newestCreated "created" of the newest subscription listed, epoch seconds (null if none).
+     * @param listedFrom When the listing started; changes from then on are still to be applied.
+     */
+    public void markFullSyncCompleted(StripeConnectedAccount account, Long newestCreated, Instant listedFrom) {
+        SubscriptionSyncCursor cursor = subscriptionSyncCursorRepository.findByStripeAccountId(account.stripeUserId())
+                .orElseGet(SubscriptionSyncCursor::new);
+        if (cursor.getFullSyncCompletedAt() != null) {
+            return;
+        }
+        cursor.setStripeAccountId(account.stripeUserId());
+        cursor.setTenantId(account.logicalTenantId());
+        cursor.setCreatedWatermark(newestCreated != null ? newestCreated : 0L);
+        cursor.setEventWatermark(listedFrom.minus(eventLag).getEpochSecond());
+        cursor.setFullSyncCompletedAt(Instant.now());
+        cursor.setLastSyncedAt(Instant.now());
+        subscriptionSyncCursorRepository.save(cursor);
+    }
+
+    private SubscriptionSyncResult doSync(StripeConnectedAccount account) throws StripeException {
+        SubscriptionSyncCursor cursor = subscriptionSyncCursorRepository.findByStripeAccountId(account.stripeUserId())
+                .orElseGet(() -> {
+                    SubscriptionSyncCursor created = new SubscriptionSyncCursor();
+                    created.setStripeAccountId(account.stripeUserId());
+                    return created;
+                });
+        cursor.setTenantId(account.logicalTenantId());
+
+        Instant startedAt = Instant.now();
+        // Events are only retrievable for 30 days; an older watermark cannot be caught up by deltas.
+        boolean fullSync = cursor.getFullSyncCompletedAt() == null
+                || cursor.getEventWatermark() == null
+                || cursor.getEventWatermark() < startedAt.minus(eventRetention).getEpochSecond();
+        long nextEventWatermark = startedAt.minus(eventLag).getEpochSecond();
+
+        int listed = listSubscriptions(account, cursor, fullSync ? null : cursor.getCreatedWatermark());
+        int applied = 0;
+        if (fullSync) {
+            cursor.setFullSyncCompletedAt(Instant.now());
+        } else {
+            applied = applyEventDelta(account, cursor.getEventWatermark());
+        }
+
+        // Overlap the next delta with this run; re-applying an event is a no-op thanks to sourceUpdatedAt.
+        cursor.setEventWatermark(fullSync ? nextEventWatermark : Math.max(cursor.getEventWatermark(), nextEventWatermark));
+        cursor.setLastSyncedAt(Instant.now());
+        subscriptionSyncCursorRepository.save(cursor);
+
+        log.info("Synced subscriptions of account {} (full: {}): {} listed, {} events applied",
+                account.stripeUserId(), fullSync, listed, applied);
+        return new SubscriptionSyncResult(account.stripeUserId(), fullSync, listed, applied);
+    }
+
+    /**
+     * Lists subscriptions created at or after the watermark (all of them when null), newest first.
+     */
+    private int listSubscriptions(StripeConnectedAccount account, SubscriptionSyncCursor cursor, Long createdWatermark) throws StripeException {
+        Map<String, Object> params = new HashMap<>();
+        params.put("limit", PAGE_SIZE);
+        params.put("status", "all");
+        if (createdWatermark != null) {
+            params.put("created", Map.of("gte", createdWatermark));
+        }
+
+        long newestCreated = createdWatermark != null ? createdWatermark : 0L;
+        int listed = 0;
+        SubscriptionCollection page;
+        do {
+            throttle(account);
+            Instant observedAt = Instant.now();
+            page = stripeMetrics.record("subscription.list", () -> Subscription.list(params, account.requestOptions()));
+            List<StripeSubscription> rows = new ArrayList<>(page.getData().size());
+            for (Subscription subscription : page.getData()) {
+                rows.add(subscriptionMapper.fromStripe(subscription, account.logicalTenantId(), account.stripeUserId(), observedAt));
+                if (subscription.getCreated() != null) {
+                    newestCreated = Math.max(newestCreated, subscription.getCreated());
+                }
+            }
+            stripeSubscriptionRepository.upsertBatch(rows);
+            listed += rows.size();
+            if (Boolean.TRUE.equals(page.getHasMore()) && !page.getData().isEmpty()) {
+                params.put("starting_after", page.getData().get(page.getData().size() - 1).getId());
+            }
+        } while (Boolean.TRUE.equals(page.getHasMore()));
+
+        // Pages come newest first, so the watermark can only move once the listing is complete.
+        cursor.setCreatedWatermark(newestCreated);
+        return listed;
+    }
+
+    /**
+     * Applies subscription events created at or after the watermark.
+     */
+    private int applyEventDelta(StripeConnectedAccount account, long eventWatermark) throws StripeException {
+        Map<String, Object> params = new HashMap<>();
+        params.put("limit", PAGE_SIZE);
+        params.put("types", SUBSCRIPTION_EVENT_TYPES);
+        params.put("created", Map.of("gte", eventWatermark));
+
+        int applied = 0;
+        EventCollection page;
+        do {
+            throttle(account);
+            page = stripeMetrics.record("event.list", () -> Event.list(params, account.requestOptions()));
+            List<StripeSubscription> rows = new ArrayList<>(page.getData().size());
+            for (Event event : page.getData()) {
+                subscriptionOf(event).ifPresent(subscription -> rows.add(subscriptionMapper.fromStripe(subscription,
+                        account.logicalTenantId(), account.stripeUserId(), Instant.ofEpochSecond(event.getCreated()))));
+            }
+            // Events arrive newest first; the upsert keeps whichever observation is newest per subscription.
+            stripeSubscriptionRepository.upsertBatch(rows);
+            applied += rows.size();
+            if (Boolean.TRUE.equals(page.getHasMore()) && !page.getData().isEmpty()) {
+                params.put("starting_after", page.getData().get(page.getData().size() - 1).getId());
+            }
+        } while (Boolean.TRUE.equals(page.getHasMore()));
+        return applied;
+    }
+
+    private void throttle(StripeConnectedAccount account) {
+        try {
+            stripeRateLimiter.acquire(account.stripeUserId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Subscription sync interrupted.");
+        }
+    }
+
+    static Optional<Subscription> subscriptionOf(Event event) {
+        StripeObject object = event.getDataObjectDeserializer().getObject()
+                .orElseGet(() -> {
+                    try {
+                        // Event rendered with a different API version than the SDK; fields we use are stable.
+                        return event.getDataObjectDeserializer().deserializeUnsafe();
+                    } catch (Exception e) {
+                        throw new IllegalStateException("Cannot deserialize subscription of event " + event.getId(), e);
+                    }
+                });
+        return object instanceof Subscription subscription ? Optional.of(subscription) : Optional.empty();
+    }
+}
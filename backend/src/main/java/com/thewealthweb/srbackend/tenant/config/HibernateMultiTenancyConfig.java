@@ -1,11 +1,14 @@
 package com.thewealthweb.srbackend.tenant.config;
 
 
+import jakarta.persistence.EntityManagerFactory;
 import org.hibernate.cfg.MultiTenancySettings;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.orm.jpa.JpaVendorAdapter;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import javax.sql.DataSource;
 import java.util.HashMap;
@@ -14,6 +17,13 @@ import java.util.Map;
 @Configuration
 public class HibernateMultiTenancyConfig {
 
+    // Off by default; turn on once the write paths have been checked with batching enabled.
+    @Value("${persistence.batching.enabled:false}")
+    private boolean batchingEnabled;
+
+    @Value("${persistence.batching.batch-size:50}")
+    private int batchSize;
+
     @Bean
     public LocalContainerEntityManagerFactoryBean entityManagerFactory(
             DataSource dataSource,
@@ -26,6 +36,14 @@ public class HibernateMultiTenancyConfig {
         properties.put("hibernate.hbm2ddl.auto", "update"); // ✅ add this here
         properties.put("hibernate.show_sql", "true");
         properties.put("hibernate.format_sql", "true");
+        // Sequence value n reserves ids n .. n + allocationSize - 1 (see IdSequences).
+        properties.put("hibernate.id.optimizer.pooled.preferred", "pooled-lo");
+        if (batchingEnabled) {
+            // Only has an effect for sequence ids; IDENTITY inserts are always sent one by one.
+            properties.put("hibernate.jdbc.batch_size", batchSize);
+            properties.put("hibernate.order_inserts", "true");
+            properties.put("hibernate.order_updates", "true");
+        }
 
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
         em.setDataSource(dataSource);
@@ -34,4 +52,10 @@ public class HibernateMultiTenancyConfig {
         em.setJpaPropertyMap(properties);
         return em;
     }
-}
\ No newline at end of file
+
+    // Replaces Boot's default JpaTransactionManager; enables the tenant filter on every transaction's session.
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new TenantAwareJpaTransactionManager(entityManagerFactory);
+    }
+}
@@ -0,0 +1,57 @@
+package com.thewealthweb.srbackend.tenant.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JpaTransactionManager that applies the Hibernate "tenantFilter" to the session the
+ * transaction actually uses (including the repositories' own read-only transactions),
+ * instead of to a throwaway EntityManager.
+ * The filter is enabled for authenticated tenant users only: SUPER_ADMIN sees every tenant,
+ * and unauthenticated or background work (login, webhooks, schedulers) is not tenant-scoped.
+ */
+public class TenantAwareJpaTransactionManager extends JpaTransactionManager {
+
+    static final String TENANT_FILTER = "tenantFilter";
+
+    public TenantAwareJpaTransactionManager(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+
+        EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+        if (holder == null) {
+            return;
+        }
+        EntityManager entityManager = holder.getEntityManager();
+        Session session = entityManager.unwrap(Session.class);
+
+        String tenantId = TenantContext.getTenantId();
+        if (tenantId != null && isTenantScopedUser()) {
+            session.enableFilter(TENANT_FILTER).setParameter("tenantIdentifier", tenantId);
+        } else if (session.getEnabledFilter(TENANT_FILTER) != null) {
+            // The session may outlive one transaction (open-in-view); never carry a stale tenant over.
+            session.disableFilter(TENANT_FILTER);
+        }
+    }
+
+    private static boolean isTenantScopedUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return false;
+        }
+        return authentication.getAuthorities().stream()
+                .noneMatch(a -> a.getAuthority().equals("ROLE_SUPER_ADMIN"));
+    }
+}
@@ -1,7 +1,23 @@
 package com.thewealthweb.srbackend.tenant.config;
 
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.function.Function;
+
+/**
+ * Logical tenant id of the work running on the current thread.
+ * TenantFilter sets it for the whole request. Nested work should use {@link #open(String)},
+ * {@link #runWithTenant} or {@link #callWithTenant}, which restore the outer tenant when they end,
+ * like ScopedValue bindings do (ScopedValue itself is still a preview API on Java 21).
+ * To cross threads, see {@link #wrap(Runnable)} (executors, Reactor schedulers) and
+ * {@link #reactorContext()} (Reactor pipelines such as WebClient calls).
+ */
 public class TenantContext {
 
+    // Key of the tenant id in a Reactor Context.
+    public static final String REACTOR_CONTEXT_KEY = TenantContext.class.getName() + ".tenantId";
+
     private static final ThreadLocal<String> CURRENT_TENANT = new ThreadLocal<>();
 
     public static void setTenantId(String tenantId) {
@@ -15,4 +31,85 @@ public class TenantContext {
     public static void clear() {
         CURRENT_TENANT.remove();
     }
+
+    /**
+     * Binds a tenant until the returned scope is closed, then restores whatever was bound before.
+     * Use with try-with-resources or close it in a finally block.
+     */
+    public static Scope open(String tenantId) {
+        Scope scope = new Scope(CURRENT_TENANT.get());
+        set(tenantId);
+        return scope;
+    }
+
+    public static void runWithTenant(String tenantId, Runnable action) {
+        try (Scope ignored = open(tenantId)) {
+            action.run();
+        }
+    }
+
+    public static <T, E extends Exception> T callWithTenant(String tenantId, TenantCall<T, E> call) throws E {
+        try (Scope ignored = open(tenantId)) {
+            return call.call();
+        }
+    }
+
+    /**
+     * Captures the current tenant now and binds it around the task wherever it later runs.
+     * A task captured without a tenant runs without one, even on a thread that has one bound.
+     */
+    public static Runnable wrap(Runnable task) {
+        String tenantId = CURRENT_TENANT.get();
+        return () -> runWithTenant(tenantId, task);
+    }
+
+    /**
+     * For {@code contextWrite(...)} at the end of a Reactor pipeline: copies the subscribing
+     * thread's tenant into the Reactor Context, unless an outer subscriber already put one there.
+     */
+    public static Function<Context, Context> reactorContext() {
+        return context -> {
+            String tenantId = CURRENT_TENANT.get();
+            return tenantId == null || context.hasKey(REACTOR_CONTEXT_KEY)
+                    ? context
+                    : context.put(REACTOR_CONTEXT_KEY, tenantId);
+        };
+    }
+
+    /**
+     * @return The tenant carried by a Reactor Context (see {@link #reactorContext()}), or null.
+     */
+    public static String fromReactorContext(ContextView context) {
+        return context.getOrDefault(REACTOR_CONTEXT_KEY, null);
+    }
+
+    private static void set(String tenantId) {
+        if (tenantId != null) {
+            CURRENT_TENANT.set(tenantId);
+        } else {
+            CURRENT_TENANT.remove();
+        }
+    }
+
+    @FunctionalInterface
+    public interface TenantCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    /**
+     * An open tenant binding. Closing it restores the tenant bound before it was opened.
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final String previousTenantId;
+
+        private Scope(String previousTenantId) {
+            this.previousTenantId = previousTenantId;
+        }
+
+        @Override
+        public void close() {
+            set(previousTenantId);
+        }
+    }
 }
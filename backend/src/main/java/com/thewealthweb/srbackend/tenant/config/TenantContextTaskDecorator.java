@@ -0,0 +1,20 @@
+package com.thewealthweb.srbackend.tenant.config;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carries the submitting thread's TenantContext into tasks run on another thread.
+ * TenantContext is a plain ThreadLocal, so without this a task on a pooled or virtual thread
+ * sees no tenant (or, on a reused pool thread, whatever the previous task left behind).
+ * Applied to the retry, backfill and MVC async executors (WebAsyncConfig), the last of which runs
+ * StreamingResponseBody and Callable handlers.
+ */
+@Component
+public class TenantContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return TenantContext.wrap(runnable);
+    }
+}
@@ -1,28 +1,22 @@
 package com.thewealthweb.srbackend.tenant.config;
 
+import com.thewealthweb.srbackend.security.JwtTokenProvider;
+import com.thewealthweb.srbackend.tenant.dto.TenantSnapshot;
+import com.thewealthweb.srbackend.tenant.service.TenantRegistry;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
-import org.hibernate.Session;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.Order;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
-import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import javax.crypto.SecretKey;
 import java.io.IOException;
-import java.util.List; // Import List
+import java.util.Optional;
 
 @Component
 // Place your TenantFilter after Spring Security's main authentication filter
@@ -38,21 +32,14 @@ public class TenantFilter implements Filter {
     private static final String DEFAULT_TENANT = "dev-tenant";
     private static final String MAIN_DOMAIN = "thewealthweb.in"; // Your main domain
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
-
     @Autowired
-    private EntityManagerFactory entityManagerFactory; // Correct injection
+    private JwtTokenProvider jwtTokenProvider; // Shares the claims verified by JwtAuthenticationFilter
 
-    // Cache the SecretKey for performance
-    private SecretKey cachedSecretKey;
+    @Autowired
+    private TenantRegistry tenantRegistry; // Cached, negatively cached tenant lookups
 
-    private SecretKey getSecretKey() {
-        if (cachedSecretKey == null) {
-            cachedSecretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        }
-        return cachedSecretKey;
-    }
+    @Autowired
+    private TenantRequestMetrics tenantRequestMetrics; // Bounded per-tenant request counters
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
@@ -60,10 +47,7 @@ public class TenantFilter implements Filter {
 
         HttpServletRequest httpRequest = (HttpServletRequest) request;
         String tenantId = null; // Initialize to null
-
-        EntityManager entityManager = null;
-        Session session = null;
-        boolean filterEnabled = false; // Flag to track if the filter was enabled
+        String source = "jwt"; // How the tenant was resolved, for the tenant.requests metric
 
         try {
             // First, try to resolve tenant from JWT in case it's an authenticated request
@@ -72,94 +56,67 @@ public class TenantFilter implements Filter {
 
             // Fallback to other resolution methods if JWT tenant is not found
             if (tenantId == null) {
-                tenantId = resolveTenantFromHeaderAndSubdomain(httpRequest);
+                tenantId = resolveTenantFromHeader(httpRequest);
+                source = "header";
+            }
+            if (tenantId == null) {
+                tenantId = resolveTenantFromSubdomain(httpRequest);
+                source = "subdomain";
             }
 
             // Fallback to default if no tenant is resolved
             if (tenantId == null || tenantId.isBlank()) {
                 tenantId = DEFAULT_TENANT;
+                source = "default";
             }
+            tenantRequestMetrics.recordRequest(tenantId, source);
 
             // Set tenant ID in context early for any components that need it
             TenantContext.setTenantId(tenantId);
 
-            // Get an EntityManager and unwrap the Session
-            entityManager = entityManagerFactory.createEntityManager();
-            session = entityManager.unwrap(Session.class);
-
-            if (session != null) {
-                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-
-                // Check if the current user is SUPER_ADMIN
-                boolean isSuperAdmin = false;
-                if (authentication != null && authentication.isAuthenticated()) {
-                    isSuperAdmin = authentication.getAuthorities().stream()
-                            .anyMatch(a -> a.getAuthority().equals("ROLE_SUPER_ADMIN"));
-                }
-
-                // IMPORTANT: Activate the Hibernate filter conditionally.
-                // If SUPER_ADMIN, DO NOT activate the tenant filter
-                if (!isSuperAdmin) {
-                    session.enableFilter("tenantFilter").setParameter("tenantIdentifier", tenantId);
-                    filterEnabled = true; // Mark as enabled
-                } else {
-                    // Log or handle the SUPER_ADMIN case where filter is bypassed
-                    System.out.println("SUPER_ADMIN detected: Bypassing Hibernate tenant filter.");
-                    // You might set a specific context property if other parts of your app
-                    // need to know it's a SUPER_ADMIN global access.
-                }
-            }
+            // The Hibernate tenant filter is enabled on the transaction's own session by
+            // TenantAwareJpaTransactionManager; no EntityManager is opened here.
 
             chain.doFilter(request, response);
 
         } finally {
             // Clear the tenant context regardless of success or failure
             TenantContext.clear();
-
-            // Disable the Hibernate filter ONLY IF it was enabled
-            if (session != null && filterEnabled) {
-                session.disableFilter("tenantFilter");
-            }
-            // IMPORTANT: Close the EntityManager you created
-            if (entityManager != null && entityManager.isOpen()) {
-                entityManager.close();
-            }
         }
     }
 
-    // This method now only handles header and subdomain, JWT is handled separately first.
-    private String resolveTenantFromHeaderAndSubdomain(HttpServletRequest request) {
-        // 1. Header (for specific client requests or testing)
+    // Header and subdomain are handled here, JWT is handled separately first.
+    // Unlike the JWT claim, these values are client-controlled, so only known, active tenants are accepted.
+    private String resolveTenantFromHeader(HttpServletRequest request) {
+        // Header (for specific client requests or testing)
         String headerTenant = request.getHeader(TENANT_HEADER);
-        if (headerTenant != null && !headerTenant.isBlank()) return headerTenant.trim();
+        if (headerTenant != null && !headerTenant.isBlank()) {
+            Optional<TenantSnapshot> tenant = tenantRegistry.findByTenantId(headerTenant.trim());
+            if (tenant.isPresent() && tenant.get().active()) return tenant.get().tenantId();
+        }
+        return null;
+    }
 
-        // 2. Subdomain (for branding/routing)
+    private String resolveTenantFromSubdomain(HttpServletRequest request) {
+        // Subdomain (for branding/routing); a registered subDomain wins over a label equal to a tenant id
         String subdomainTenant = extractTenantFromSubdomain(request.getServerName());
-        if (subdomainTenant != null) return subdomainTenant;
+        if (subdomainTenant != null) {
+            Optional<TenantSnapshot> tenant = tenantRegistry.findBySubDomain(subdomainTenant)
+                    .or(() -> tenantRegistry.findByTenantId(subdomainTenant));
+            if (tenant.isPresent() && tenant.get().active()) return tenant.get().tenantId();
+        }
 
-        return null; // Return null if not found
+        return null; // Return null if not found or unknown
     }
 
     private String extractTenantFromJWT(HttpServletRequest request) {
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            try {
-                String token = authHeader.substring(7);
-                Claims claims = Jwts.parserBuilder()
-                        .setSigningKey(getSecretKey()) // Use cached key
-                        .build()
-                        .parseClaimsJws(token)
-                        .getBody();
-
-                // It's possible for a JWT to exist but not contain tenantId if it's
-                // a system-level token or an old token.
-                if (claims.containsKey("tenantId")) { // Check for existence before getting
-                    return claims.get("tenantId", String.class);
-                }
-            } catch (Exception e) {
-                // Log the exception for debugging. Do not throw, as other resolution methods might exist.
-                System.err.println("JWT parsing failed during tenant extraction: " + e.getMessage());
-            }
+        // The security chain runs first and has already verified the token; this is an attribute lookup.
+        Claims claims = jwtTokenProvider.resolveClaims(request);
+
+        // It's possible for a JWT to exist but not contain tenantId if it's
+        // a system-level token or an old token.
+        if (claims != null && claims.containsKey("tenantId")) { // Check for existence before getting
+            return claims.get("tenantId", String.class);
         }
         return null; // Return null if JWT not present, invalid, or no tenantId claim
     }
@@ -0,0 +1,28 @@
+package com.thewealthweb.srbackend.tenant.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Carries TenantContext across Reactor scheduler hops (publishOn, subscribeOn, timeouts),
+ * the same way TenantContextTaskDecorator does for executors.
+ * Work resumed on Netty event-loop threads is not scheduled through Reactor, so pipelines that
+ * need the tenant there read it from the Reactor Context instead (TenantContext.reactorContext()).
+ */
+@Configuration
+public class TenantReactorConfig {
+
+    private static final String SCHEDULE_HOOK = "tenantContext";
+
+    @PostConstruct
+    void installScheduleHook() {
+        Schedulers.onScheduleHook(SCHEDULE_HOOK, TenantContext::wrap);
+    }
+
+    @PreDestroy
+    void removeScheduleHook() {
+        Schedulers.resetOnScheduleHook(SCHEDULE_HOOK);
+    }
+}
@@ -0,0 +1,58 @@
+package com.thewealthweb.srbackend.tenant.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-tenant request counter ("tenant.requests", tagged with tenant and how it was resolved).
+ * Only the first max-tenants tenants seen get their own tag value; later ones are counted
+ * under "other", so the number of series stays bounded however many tenants exist.
+ */
+@Component
+public class TenantRequestMetrics {
+
+    static final String OTHER = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxTenants;
+    private final Set<String> taggedTenants = ConcurrentHashMap.newKeySet();
+    private final Map<CounterKey, Counter> counters = new ConcurrentHashMap<>();
+
+    public TenantRequestMetrics(MeterRegistry meterRegistry,
+                                @Value("${metrics.tenant-tags.max-tenants:100}") int maxTenants) {
+        this.meterRegistry = meterRegistry;
+        this.maxTenants = maxTenants;
+    }
+
+    /**
+     * @param tenantId The resolved tenant.
+     * @param source How it was resolved: jwt, header, subdomain or default.
+     */
+    public void recordRequest(String tenantId, String source) {
+        counters.computeIfAbsent(new CounterKey(tagFor(tenantId), source), key -> Counter.builder("tenant.requests")
+                .description("Requests per resolved tenant")
+                .tag("tenant", key.tenant())
+                .tag("source", key.source())
+                .register(meterRegistry)).increment();
+    }
+
+    private String tagFor(String tenantId) {
+        if (taggedTenants.contains(tenantId)) {
+            return tenantId;
+        }
+        // May overshoot by a few under a race; the bound only has to be approximate.
+        if (taggedTenants.size() < maxTenants && taggedTenants.add(tenantId)) {
+            return tenantId;
+        }
+        return OTHER;
+    }
+
+    private record CounterKey(String tenant, String source) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.thewealthweb.srbackend.tenant.dto;
+
+import com.thewealthweb.srbackend.tenant.entity.Tenant;
+
+/**
+ * Immutable view of a tenant row, safe to share between request threads.
+ * @param id Primary key of the tenants row.
+ * @param tenantId Logical tenant id (e.g. "acme-corp").
+ */
+public record TenantSnapshot(Long id, String tenantId, String name, boolean active, String subDomain) {
+
+    public static TenantSnapshot of(Tenant tenant) {
+        return new TenantSnapshot(tenant.getId(), tenant.getTenantId(), tenant.getName(),
+                tenant.isActive(), tenant.getSubDomain());
+    }
+}
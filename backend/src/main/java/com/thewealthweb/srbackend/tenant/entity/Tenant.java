@@ -1,6 +1,7 @@
 package com.thewealthweb.srbackend.tenant.entity;
 
 import com.thewealthweb.srbackend.common.entity.BaseEntity;
+import com.thewealthweb.srbackend.common.entity.IdSequences;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -14,7 +15,8 @@ import lombok.*;
 public class Tenant extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = IdSequences.TENANTS)
+    @SequenceGenerator(name = IdSequences.TENANTS, sequenceName = IdSequences.TENANTS, allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -1,5 +1,10 @@
 package com.thewealthweb.srbackend.tenant.exception;
 
+import com.thewealthweb.srbackend.audit.entity.AuditOutcome;
+import com.thewealthweb.srbackend.audit.service.SecurityAuditTrail;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -8,17 +13,29 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 @ControllerAdvice
+@RequiredArgsConstructor
+@Slf4j
 public class GlobalExceptionHandler {
 
+    private final SecurityAuditTrail securityAuditTrail;
+
     @ExceptionHandler(AccessDeniedException.class)
-    public ResponseEntity<String> handleAccessDeniedException(AccessDeniedException ex) {
-        System.err.println("PreAuthorize failed: " + ex.getMessage());
+    public ResponseEntity<String> handleAccessDeniedException(AccessDeniedException ex, HttpServletRequest request) {
+        log.debug("PreAuthorize failed: {}", ex.getMessage());
+        // Method security refuses before SecurityAuditAspect runs, so denials are recorded here.
+        securityAuditTrail.record(request.getMethod() + " " + request.getRequestURI(), null, AuditOutcome.DENIED, ex.getMessage());
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Not authorized");
     }
 
     @ExceptionHandler(AuthenticationException.class)
     public ResponseEntity<String> handleAuthenticationException(AuthenticationException ex) {
-        System.err.println("Authentication error: " + ex.getMessage());
+        log.debug("Authentication error: {}", ex.getMessage());
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Authentication required");
     }
+
+    // Definitions rejected by the services (an invalid retry policy, an unknown tenant id) are client errors.
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
 }
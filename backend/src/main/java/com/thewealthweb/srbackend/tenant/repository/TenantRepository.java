@@ -8,5 +8,6 @@ import java.util.Optional;
 public interface TenantRepository extends JpaRepository<Tenant, Long> {
     Optional<Tenant> findByName(String name);
     Optional<Tenant> findByTenantId(String tenantId);
+    Optional<Tenant> findBySubDomain(String subDomain);
 
 }
\ No newline at end of file
@@ -6,12 +6,14 @@ import com.thewealthweb.srbackend.tenant.repository.TenantRepository;
 import com.thewealthweb.srbackend.user.entity.Role;
 import com.thewealthweb.srbackend.user.entity.User;
 import com.thewealthweb.srbackend.user.helper.RoleServiceHelper;
-import com.thewealthweb.srbackend.user.repository.RoleRepository;
 import com.thewealthweb.srbackend.user.repository.UserRepository;
+import com.thewealthweb.srbackend.user.service.RoleCatalog;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Collections; // For creating singleton set
 import java.util.HashSet;
@@ -23,9 +25,10 @@ public class TenantOnboardingService {
 
     private final TenantRepository tenantRepository;
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository; // Inject RoleRepository directly or via RoleServiceHelper
+    private final RoleCatalog roleCatalog;
     private final PasswordEncoder passwordEncoder;
     private final RoleServiceHelper roleServiceHelper; // Use your existing helper
+    private final TenantRegistry tenantRegistry;
 
     @Transactional // Ensures atomicity: both tenant and user are created or none are
     public Tenant onboardNewTenant(TenantOnboardingRequest request) {
@@ -53,10 +56,19 @@ public class TenantOnboardingService {
                 .build();
 
         newTenant = tenantRepository.save(newTenant); // Save tenant to get its ID if needed, and persist
+        // A lookup of this id before onboarding left a cached miss; drop it once the row is visible.
+        String onboardedTenantId = newTenant.getTenantId();
+        String onboardedSubDomain = newTenant.getSubDomain();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tenantRegistry.invalidate(onboardedTenantId, onboardedSubDomain);
+            }
+        });
 
         // 4. Create Initial User (Company Admin) for this Tenant
         // Always assign the "COMPANY_ADMIN" role
-        Role companyAdminRole = roleRepository.findByName("COMPANY_ADMIN")
+        Role companyAdminRole = roleCatalog.find("COMPANY_ADMIN")
                 .orElseThrow(() -> new RuntimeException("COMPANY_ADMIN role not found in database. Please configure roles."));
 
         Set<Role> initialRoles = new HashSet<>(Collections.singletonList(companyAdminRole));
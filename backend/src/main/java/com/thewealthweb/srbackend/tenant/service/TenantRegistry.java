@@ -0,0 +1,112 @@
+package com.thewealthweb.srbackend.tenant.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.thewealthweb.srbackend.tenant.dto.TenantSnapshot;
+import com.thewealthweb.srbackend.tenant.entity.Tenant;
+import com.thewealthweb.srbackend.tenant.repository.TenantRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cache of resolved tenants by logical tenant id and by subdomain.
+ * Misses are cached too (as an empty Optional, with a shorter TTL), so a bogus
+ * X-Tenant-ID header or host name costs one query per TTL instead of one per request.
+ */
+@Component
+public class TenantRegistry {
+
+    private final TenantRepository tenantRepository;
+    private final Cache<String, Optional<TenantSnapshot>> byTenantId;
+    private final Cache<String, Optional<TenantSnapshot>> bySubDomain;
+
+    public TenantRegistry(TenantRepository tenantRepository,
+                          @Value("${tenant.registry.max-entries:10000}") long maxEntries,
+                          @Value("${tenant.registry.ttl:PT10M}") Duration ttl,
+                          @Value("${tenant.registry.negative-ttl:PT30S}") Duration negativeTtl) {
+        this.tenantRepository = tenantRepository;
+        this.byTenantId = newCache(maxEntries, ttl, negativeTtl);
+        this.bySubDomain = newCache(maxEntries, ttl, negativeTtl);
+    }
+
+    /**
+     * @param tenantId Logical tenant id, as carried in the JWT or X-Tenant-ID header.
+     * @return The tenant, or empty if no tenant has this id.
+     */
+    public Optional<TenantSnapshot> findByTenantId(String tenantId) {
+        if (tenantId == null || tenantId.isBlank()) {
+            return Optional.empty();
+        }
+        return byTenantId.get(tenantId, id -> tenantRepository.findByTenantId(id).map(TenantSnapshot::of));
+    }
+
+    /**
+     * @param subDomain First label of the request host (e.g. "acme" for acme.thewealthweb.in).
+     * @return The tenant registered under this subdomain, or empty if there is none.
+     */
+    public Optional<TenantSnapshot> findBySubDomain(String subDomain) {
+        if (subDomain == null || subDomain.isBlank()) {
+            return Optional.empty();
+        }
+        return bySubDomain.get(subDomain, sd -> tenantRepository.findBySubDomain(sd).map(TenantSnapshot::of));
+    }
+
+    /**
+     * Resolves a tenant to an entity reference for use as a foreign key (User.tenant, etc.).
+     * The reference is an uninitialised proxy, so no tenants query is issued.
+     * @return The reference, or empty if no tenant has this id.
+     */
+    public Optional<Tenant> getReference(String tenantId) {
+        return findByTenantId(tenantId).map(snapshot -> tenantRepository.getReferenceById(snapshot.id()));
+    }
+
+    /**
+     * Drops every cached entry for the given tenant state. Call with both the old and the
+     * new state when a tenant is renamed, so neither key keeps serving stale data.
+     */
+    public void invalidate(TenantSnapshot tenant) {
+        if (tenant == null) {
+            return;
+        }
+        invalidate(tenant.tenantId(), tenant.subDomain());
+    }
+
+    public void invalidate(String tenantId, String subDomain) {
+        if (tenantId != null) {
+            byTenantId.invalidate(tenantId);
+        }
+        if (subDomain != null) {
+            bySubDomain.invalidate(subDomain);
+        }
+    }
+
+    private static Cache<String, Optional<TenantSnapshot>> newCache(long maxEntries, Duration ttl, Duration negativeTtl) {
+        long ttlNanos = ttl.toNanos();
+        long negativeTtlNanos = negativeTtl.toNanos();
+        return Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<String, Optional<TenantSnapshot>>() {
+                    @Override
+                    public long expireAfterCreate(String key, Optional<TenantSnapshot> value, long currentTime) {
+                        return value.isPresent() ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Optional<TenantSnapshot> value, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Optional<TenantSnapshot> value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+}
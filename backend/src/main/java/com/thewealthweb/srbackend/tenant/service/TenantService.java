@@ -1,18 +1,21 @@
 package com.thewealthweb.srbackend.tenant.service;
 
 import com.thewealthweb.srbackend.tenant.dto.TenantDTO;
+import com.thewealthweb.srbackend.tenant.dto.TenantSnapshot;
 import com.thewealthweb.srbackend.tenant.entity.Tenant;
 import com.thewealthweb.srbackend.tenant.repository.TenantRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class TenantService {
 
     private final TenantRepository tenantRepository;
+    private final TenantRegistry tenantRegistry;
 
     public Tenant createTenant(TenantDTO dto) {
         Tenant tenant = Tenant.builder()
@@ -23,7 +26,9 @@ public class TenantService {
                 .active(dto.isActive())
                 .build();
 
-        return tenantRepository.save(tenant);
+        Tenant saved = tenantRepository.save(tenant);
+        tenantRegistry.invalidate(TenantSnapshot.of(saved)); // Drop a cached "unknown tenant" entry
+        return saved;
     }
 
     public List<Tenant> getAllTenants() {
@@ -37,16 +42,23 @@ public class TenantService {
 
     public Tenant updateTenant(Long id, TenantDTO dto) {
         Tenant existing = getTenantById(id);
+        TenantSnapshot before = TenantSnapshot.of(existing);
         existing.setTenantId(dto.getTenantId());
         existing.setName(dto.getName());
         existing.setContactEmail(dto.getContactEmail());
         existing.setPhone(dto.getPhone());
         existing.setActive(dto.isActive());
 
-        return tenantRepository.save(existing);
+        Tenant saved = tenantRepository.save(existing);
+        // Evict under both the old and the new keys in case the logical id changed.
+        tenantRegistry.invalidate(before);
+        tenantRegistry.invalidate(TenantSnapshot.of(saved));
+        return saved;
     }
 
     public void deleteTenant(Long id) {
+        Optional<Tenant> existing = tenantRepository.findById(id);
         tenantRepository.deleteById(id);
+        existing.map(TenantSnapshot::of).ifPresent(tenantRegistry::invalidate);
     }
 }
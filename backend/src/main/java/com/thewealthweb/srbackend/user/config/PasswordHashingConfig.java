@@ -0,0 +1,64 @@
+package com.thewealthweb.srbackend.user.config;
+
+import com.thewealthweb.srbackend.user.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+@Configuration
+public class PasswordHashingConfig {
+
+    @Value("${security.password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${security.password-hashing.request.threads:0}")
+    private int requestThreads;
+
+    @Value("${security.password-hashing.request.queue-capacity:64}")
+    private int requestQueueCapacity;
+
+    // BCrypt is pure CPU work: one platform thread per core, even when the rest of the app runs on
+    // virtual threads, so bulk hashing saturates the cores without starving request handling further.
+    @Bean(name = "passwordHashExecutor")
+    public TaskExecutor passwordHashExecutor() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("password-hash-");
+        return executor;
+    }
+
+    // Hashing for logins, sign-ups and password changes. Half the cores by default, so a login storm
+    // leaves the other half to the rest of the API; a full queue rejects (AbortPolicy) instead of growing.
+    @Bean(name = "passwordHashRequestExecutor")
+    public ThreadPoolTaskExecutor passwordHashRequestExecutor() {
+        int poolSize = requestThreads > 0 ? requestThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(requestQueueCapacity);
+        executor.setThreadNamePrefix("password-hash-request-");
+        return executor;
+    }
+
+    // Hashes on the calling thread; for work that already runs on passwordHashExecutor (bulk import).
+    @Bean(name = "bcryptPasswordEncoder")
+    public PasswordEncoder bcryptPasswordEncoder() {
+        return new BCryptPasswordEncoder(); // Secure password hashing
+    }
+
+    @Bean
+    @Primary
+    public PasswordEncoder passwordEncoder(@Qualifier("passwordHashRequestExecutor") ThreadPoolTaskExecutor passwordHashRequestExecutor,
+                                           MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(bcryptPasswordEncoder(), passwordHashRequestExecutor, meterRegistry);
+    }
+}
@@ -2,6 +2,7 @@ package com.thewealthweb.srbackend.user.config;
 
 import com.thewealthweb.srbackend.user.entity.Role;
 import com.thewealthweb.srbackend.user.repository.RoleRepository;
+import com.thewealthweb.srbackend.user.service.RoleCatalog;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
@@ -13,6 +14,7 @@ import java.util.List;
 public class RoleInitializer implements CommandLineRunner {
 
     private final RoleRepository roleRepository;
+    private final RoleCatalog roleCatalog;
 
     @Override
     public void run(String... args) {
@@ -30,5 +32,6 @@ public class RoleInitializer implements CommandLineRunner {
                 return roleRepository.save(role);
             });
         }
+        roleCatalog.refresh();
     }
 }
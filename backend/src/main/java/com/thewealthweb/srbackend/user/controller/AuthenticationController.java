@@ -28,8 +28,8 @@ public class AuthenticationController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
-        return ResponseEntity.ok(authService.authenticate(request));
+    public ResponseEntity<?> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        return ResponseEntity.ok(authService.authenticate(request, httpRequest.getRemoteAddr()));
     }
 
     @PostMapping("/refresh")
@@ -39,8 +39,9 @@ public class AuthenticationController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<?> logout(@RequestParam String username) {
-        authService.logout(username);
+    public ResponseEntity<?> logout(@RequestParam String username,
+                                    @RequestParam(required = false) String refreshToken) {
+        authService.logout(username, refreshToken);
         return ResponseEntity.ok("Logged out successfully");
     }
     @PostMapping("/changePassword")
@@ -51,9 +52,8 @@ public class AuthenticationController {
 
     @GetMapping("/validate")
     public ResponseEntity<?> validateToken(HttpServletRequest request) {
-        String token = jwtTokenProvider.resolveToken(request);
-        System.out.println("validateToken::token: "  +token);
-        if (token != null && jwtTokenProvider.validateToken(token)) {
+        // Already verified by the security filter chain for this request; no second signature check.
+        if (jwtTokenProvider.resolveClaims(request) != null) {
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -1,9 +1,13 @@
 package com.thewealthweb.srbackend.user.controller;
 
 import com.thewealthweb.srbackend.security.CustomUserDetails;
+import com.thewealthweb.srbackend.user.dto.BulkUserImportResult;
 import com.thewealthweb.srbackend.user.dto.UserDTO;
 import com.thewealthweb.srbackend.user.entity.User;
 import com.thewealthweb.srbackend.user.mapper.UserMapper;
+import com.thewealthweb.srbackend.user.security.CachedUserLookup;
+import com.thewealthweb.srbackend.user.security.UserCreationPolicy;
+import com.thewealthweb.srbackend.user.service.UserBulkImportService;
 import com.thewealthweb.srbackend.user.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -19,14 +23,37 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final UserBulkImportService userBulkImportService;
     private final UserMapper userMapper;
+    private final CachedUserLookup cachedUserLookup;
+    private final UserCreationPolicy userCreationPolicy;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('COMPANY_ADMIN', 'SUPER_ADMIN')")
-    public ResponseEntity<User> createUser(@RequestBody UserDTO userDTO) {
+    public ResponseEntity<UserDTO> createUser(@AuthenticationPrincipal CustomUserDetails userDetails,
+                                              @RequestBody UserDTO userDTO) {
+        userCreationPolicy.check(userDetails, userDTO);
         return ResponseEntity.ok(userService.createUser(userDTO));
     }
 
+    /**
+     * Creates many users at once (e.g. onboarding a customer's staff).
+     * Rows without a tenantId are created in the caller's tenant. Invalid rows, and rows the caller
+     * may not create (see UserCreationPolicy), are reported in the result and skipped; the rest of
+     * the import still goes through.
+     */
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAnyRole('COMPANY_ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<BulkUserImportResult> importUsers(@AuthenticationPrincipal CustomUserDetails userDetails,
+                                                            @RequestBody List<UserDTO> users) {
+        for (UserDTO user : users) {
+            if (user.getTenantId() == null) {
+                user.setTenantId(userDetails.getTenantId());
+            }
+        }
+        return ResponseEntity.ok(userBulkImportService.importUsers(users, userDetails));
+    }
+
     @GetMapping
     @PreAuthorize("hasAnyRole('COMPANY_ADMIN', 'SUPER_ADMIN')")
     public ResponseEntity<List<UserDTO>> getAllUsers() {
@@ -54,8 +81,8 @@ public class UserController {
 
     @GetMapping("/me")
     public ResponseEntity<UserDTO> getCurrentUser(@AuthenticationPrincipal CustomUserDetails userDetails) {
-        User user = userDetails.getUser(); // access your entity
-        System.out.println();
+        // Claims-only principals carry no entity; the profile needs the full user.
+        User user = userDetails.getUser() != null ? userDetails.getUser() : cachedUserLookup.getUser(userDetails.getUsername());
         return ResponseEntity.ok(userMapper.toDto(user));
     }
 
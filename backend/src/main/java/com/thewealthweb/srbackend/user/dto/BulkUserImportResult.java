@@ -0,0 +1,9 @@
+package com.thewealthweb.srbackend.user.dto;
+
+import java.util.List;
+
+/**
+ * Result of a bulk user import: one entry per requested row, in request order.
+ */
+public record BulkUserImportResult(int requested, int created, int failed, List<BulkUserImportRowResult> rows) {
+}
@@ -0,0 +1,22 @@
+package com.thewealthweb.srbackend.user.dto;
+
+/**
+ * Outcome of one row of a bulk user import.
+ * @param index Position of the row in the request, starting at 0.
+ * @param userId Id of the created user; null when the row failed.
+ * @param error Why the row was rejected; null when it was created.
+ */
+public record BulkUserImportRowResult(int index, String username, Long userId, String error) {
+
+    public static BulkUserImportRowResult created(int index, String username, Long userId) {
+        return new BulkUserImportRowResult(index, username, userId, null);
+    }
+
+    public static BulkUserImportRowResult failed(int index, String username, String error) {
+        return new BulkUserImportRowResult(index, username, null, error);
+    }
+
+    public boolean isCreated() {
+        return error == null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.thewealthweb.srbackend.user.dto;
+
+import java.time.Instant;
+
+/**
+ * What a refresh token grants, as cached by RefreshTokenService.
+ * @param id Id of the refresh_tokens row.
+ * @param username Owner of the token.
+ */
+public record RefreshTokenSession(Long id, String username, Instant expiresAt) {
+}
@@ -1,5 +1,6 @@
 package com.thewealthweb.srbackend.user.entity;
 
+import com.thewealthweb.srbackend.common.entity.IdSequences;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -8,22 +9,36 @@ import lombok.NoArgsConstructor;
 
 import java.time.Instant;
 
+/**
+ * One refresh token of one device; a user has one per active login.
+ * Only the SHA-256 of the token is stored, so a leaked table cannot be replayed against /auth/refresh.
+ * Replaces the RefreshToken table, which allowed a single token per user and stored it in clear.
+ */
 @Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_user", columnList = "user_id"),
+        @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class RefreshToken {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = IdSequences.REFRESH_TOKENS)
+    @SequenceGenerator(name = IdSequences.REFRESH_TOKENS, sequenceName = IdSequences.REFRESH_TOKENS, allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
-    @OneToOne
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash; // Hex SHA-256 of the token handed to the client
 
-    @Column(nullable = false)
-    private Instant expiryDate;
-}
\ No newline at end of file
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -1,6 +1,7 @@
 package com.thewealthweb.srbackend.user.entity;
 
 import com.thewealthweb.srbackend.common.entity.BaseEntity;
+import com.thewealthweb.srbackend.common.entity.IdSequences;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -14,7 +15,8 @@ import lombok.*;
 public class Role extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = IdSequences.ROLES)
+    @SequenceGenerator(name = IdSequences.ROLES, sequenceName = IdSequences.ROLES, allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
     @Column(unique = true, nullable = false)
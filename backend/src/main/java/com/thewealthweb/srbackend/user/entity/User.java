@@ -1,6 +1,7 @@
 package com.thewealthweb.srbackend.user.entity;
 
 import com.thewealthweb.srbackend.common.entity.BaseEntity;
+import com.thewealthweb.srbackend.common.entity.IdSequences;
 import com.thewealthweb.srbackend.tenant.entity.Tenant;
 import jakarta.persistence.*;
 import lombok.*;
@@ -19,14 +20,17 @@ import java.util.Set;
 @AllArgsConstructor
 @Builder
 
-// Define the filter here. The 'condition' refers to properties of the entity.
-// 'tenant.tenantId' navigates through the 'tenant' ManyToOne relationship to its 'tenantId' property.
-@FilterDef(name = "tenantFilter", parameters = @ParamDef(name = "tenantIdentifier", type = String.class))
-@Filter(name = "tenantFilter", condition = "tenant.tenantId = :tenantIdentifier") // Apply the filter condition
+// Define the filter here. The 'condition' is a SQL fragment on the users table: the logical tenant id
+// lives on tenants, so it is matched through the tenant_id foreign key.
+// applyToLoadByKey also scopes findById, not only queries.
+// Enabled per transaction by TenantAwareJpaTransactionManager.
+@FilterDef(name = "tenantFilter", parameters = @ParamDef(name = "tenantIdentifier", type = String.class), applyToLoadByKey = true)
+@Filter(name = "tenantFilter", condition = "tenant_id = (select t.id from tenants t where t.tenantId = :tenantIdentifier)") // Apply the filter condition
 public class User extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = IdSequences.USERS)
+    @SequenceGenerator(name = IdSequences.USERS, sequenceName = IdSequences.USERS, allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.EAGER) // Many Users to One Tenant
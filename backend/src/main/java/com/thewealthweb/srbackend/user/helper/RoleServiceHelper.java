@@ -1,7 +1,7 @@
 package com.thewealthweb.srbackend.user.helper;
 
 import com.thewealthweb.srbackend.user.entity.Role;
-import com.thewealthweb.srbackend.user.repository.RoleRepository;
+import com.thewealthweb.srbackend.user.service.RoleCatalog;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
@@ -12,18 +12,18 @@ import java.util.Set;
 @RequiredArgsConstructor
 public class RoleServiceHelper {
 
-    private final RoleRepository roleRepository;
+    private final RoleCatalog roleCatalog;
 
     public Set<Role> resolveRolesOrDefault(Set<String> roleNames) {
         Set<Role> roles = new HashSet<>();
         if (roleNames == null || roleNames.isEmpty()) {
-            roles.add(roleRepository.findByName("USER")
+            roles.add(roleCatalog.find("USER")
                     .orElseThrow(() -> new RuntimeException("Default USER role not found")));
             return roles;
         }
 
         for (String roleName : roleNames) {
-            Role role = roleRepository.findByName(roleName)
+            Role role = roleCatalog.find(roleName)
                     .orElseThrow(() -> new RuntimeException("Role not found: " + roleName));
             roles.add(role);
         }
@@ -18,6 +18,12 @@ public interface UserMapper {
     @Mapping(target = "roles", source = "roles", qualifiedByName = "rolesToNames")
     UserDTO toDto(User user);
 
+    // For a user whose tenant is an uninitialised reference (TenantRegistry.getReference): reading
+    // tenant.tenantId would load it, so the caller passes the logical tenant id it already has.
+    @Mapping(target = "tenantId", source = "tenantId")
+    @Mapping(target = "roles", source = "user.roles", qualifiedByName = "rolesToNames")
+    UserDTO toDto(User user, String tenantId);
+
     // If you need to map a list/set of entities
     Set<UserDTO> toDtoSet(Set<User> users);
 
@@ -1,16 +1,34 @@
 package com.thewealthweb.srbackend.user.repository;
 
+import com.thewealthweb.srbackend.user.dto.RefreshTokenSession;
 import com.thewealthweb.srbackend.user.entity.RefreshToken;
 import com.thewealthweb.srbackend.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
-public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    Optional<RefreshToken> findByToken(String token);
-    void deleteByUser(User user);
-    Optional<RefreshToken> findByUser(User user);
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long>, RefreshTokenRepositoryCustom {
 
+    // Unique index lookup; only the owner's username is read from users.
+    @Query("select new com.thewealthweb.srbackend.user.dto.RefreshTokenSession(t.id, u.username, t.expiresAt) " +
+            "from RefreshToken t join t.user u where t.tokenHash = :tokenHash")
+    Optional<RefreshTokenSession> findSessionByTokenHash(@Param("tokenHash") String tokenHash);
+
+    // Whoever deletes the row consumed the token; a concurrent or replayed refresh deletes nothing.
+    @Modifying
+    @Query("delete from RefreshToken t where t.id = :id")
+    int deleteIfPresent(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.user = :user")
+    int deleteByUser(@Param("user") User user);
 }
@@ -0,0 +1,13 @@
+package com.thewealthweb.srbackend.user.repository;
+
+import java.time.Instant;
+
+public interface RefreshTokenRepositoryCustom {
+
+    /**
+     * Deletes up to limit refresh tokens that expired before the given instant.
+     * Rows another node is deleting at the same time are skipped.
+     * @return Number of rows deleted.
+     */
+    int deleteExpiredBatch(Instant before, int limit);
+}
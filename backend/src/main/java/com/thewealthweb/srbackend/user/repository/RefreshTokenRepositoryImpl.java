@@ -0,0 +1,27 @@
+package com.thewealthweb.srbackend.user.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+@RequiredArgsConstructor
+public class RefreshTokenRepositoryImpl implements RefreshTokenRepositoryCustom {
+
+    // Range scan on idx_refresh_tokens_expires_at; each batch is its own short transaction.
+    private static final String DELETE_EXPIRED_SQL = """
+            DELETE FROM refresh_tokens
+            WHERE id IN (SELECT id FROM refresh_tokens
+                         WHERE expires_at < ?
+                         LIMIT ?
+                         FOR UPDATE SKIP LOCKED)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int deleteExpiredBatch(Instant before, int limit) {
+        return jdbcTemplate.update(DELETE_EXPIRED_SQL, Timestamp.from(before), limit);
+    }
+}
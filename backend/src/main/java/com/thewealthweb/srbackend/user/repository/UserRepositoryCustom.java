@@ -0,0 +1,25 @@
+package com.thewealthweb.srbackend.user.repository;
+
+import com.thewealthweb.srbackend.user.entity.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Looks up which of the given usernames are taken, across all tenants (usernames are globally unique).
+     * @return The subset of usernames that already exist.
+     */
+    Set<String> findExistingUsernames(Collection<String> usernames);
+
+    /**
+     * Inserts new users and their role links with JDBC batches.
+     * Users must carry a tenant (a reference is enough) and their resolved roles; passwords must be encoded.
+     * Usernames taken concurrently since they were checked are skipped.
+     * @param createdBy Auditor written to createdBy/updatedBy; may be null.
+     * @return Generated user ids in the same order as the users; null where the username was already taken.
+     */
+    List<Long> insertBatch(List<User> users, String createdBy);
+}
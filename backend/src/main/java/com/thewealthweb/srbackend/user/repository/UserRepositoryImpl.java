@@ -0,0 +1,127 @@
+package com.thewealthweb.srbackend.user.repository;
+
+import com.thewealthweb.srbackend.common.entity.IdSequences;
+import com.thewealthweb.srbackend.user.entity.Role;
+import com.thewealthweb.srbackend.user.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Plain JDBC paths for bulk user provisioning. Inserting thousands of users through the persistence
+ * context would hold every entity in memory, and these lookups must see every tenant's usernames,
+ * which the Hibernate tenant filter would hide.
+ */
+@RequiredArgsConstructor
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private static final String INSERT_USER_SQL = """
+            INSERT INTO users
+                (id, tenant_id, username, password, email, fullName, enabled,
+                 createdAt, updatedAt, createdBy, updatedBy, deleted, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false, 0)
+            ON CONFLICT (username) DO NOTHING
+            """;
+
+    // One nextval per block of ALLOCATION_SIZE ids, read the same way Hibernate's pooled-lo optimizer reads it.
+    private static final String ALLOCATE_ID_BLOCKS_SQL =
+            "SELECT nextval('" + IdSequences.USERS + "') FROM generate_series(1, ?)";
+
+    private static final String INSERT_USER_ROLE_SQL = "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Override
+    public Set<String> findExistingUsernames(Collection<String> usernames) {
+        if (usernames.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT username FROM users WHERE username IN (:usernames)",
+                Map.of("usernames", usernames), String.class));
+    }
+
+    @Override
+    public List<Long> insertBatch(List<User> users, String createdBy) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Long> allocatedIds = allocateIds(users.size());
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_USER_SQL, new String[]{"id", "username"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        User user = users.get(i);
+                        ps.setLong(1, allocatedIds.get(i));
+                        ps.setLong(2, user.getTenant().getId());
+                        ps.setString(3, user.getUsername());
+                        ps.setString(4, user.getPassword());
+                        ps.setString(5, user.getEmail());
+                        ps.setString(6, user.getFullName());
+                        ps.setBoolean(7, user.isEnabled());
+                        ps.setTimestamp(8, now);
+                        ps.setTimestamp(9, now);
+                        ps.setString(10, createdBy);
+                        ps.setString(11, createdBy);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return users.size();
+                    }
+                },
+                keyHolder);
+
+        // Conflicting rows return no key (their reserved id is simply skipped), so match the ids back by username.
+        Map<String, Long> idsByUsername = new HashMap<>();
+        for (Map<String, Object> key : keyHolder.getKeyList()) {
+            idsByUsername.put((String) key.get("username"), ((Number) key.get("id")).longValue());
+        }
+        List<Long> ids = new ArrayList<>(users.size());
+        List<Entry<Long, Long>> userRoles = new ArrayList<>();
+        for (User user : users) {
+            Long id = idsByUsername.get(user.getUsername());
+            ids.add(id);
+            if (id != null) {
+                for (Role role : user.getRoles()) {
+                    userRoles.add(Map.entry(id, role.getId()));
+                }
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_USER_ROLE_SQL, userRoles, userRoles.size(), (ps, link) -> {
+            ps.setLong(1, link.getKey());
+            ps.setLong(2, link.getValue());
+        });
+        return ids;
+    }
+
+    private List<Long> allocateIds(int count) {
+        int blocks = (count + IdSequences.ALLOCATION_SIZE - 1) / IdSequences.ALLOCATION_SIZE;
+        List<Long> blockStarts = jdbcTemplate.queryForList(ALLOCATE_ID_BLOCKS_SQL, Long.class, blocks);
+        List<Long> ids = new ArrayList<>(count);
+        for (Long start : blockStarts) {
+            for (int offset = 0; offset < IdSequences.ALLOCATION_SIZE && ids.size() < count; offset++) {
+                ids.add(start + offset);
+            }
+        }
+        return ids;
+    }
+}
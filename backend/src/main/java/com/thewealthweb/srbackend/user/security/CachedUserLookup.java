@@ -0,0 +1,54 @@
+package com.thewealthweb.srbackend.user.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.thewealthweb.srbackend.user.entity.User;
+import com.thewealthweb.srbackend.user.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Short-lived cache of user entities for authenticated requests that need more than the JWT claims.
+ * Never used for login, which must always see the current password hash.
+ */
+@Component
+public class CachedUserLookup {
+
+    private final UserRepository userRepository;
+    private final Cache<String, User> users; // Null when the cache is disabled
+
+    public CachedUserLookup(UserRepository userRepository,
+                            @Value("${security.user-cache.enabled:true}") boolean enabled,
+                            @Value("${security.user-cache.max-entries:10000}") long maxEntries,
+                            @Value("${security.user-cache.ttl:PT30S}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.users = enabled
+                ? Caffeine.newBuilder().maximumSize(maxEntries).expireAfterWrite(ttl).build()
+                : null;
+    }
+
+    /**
+     * @return The user with tenant and roles loaded (both are EAGER, so the entity is safe to use detached).
+     * @throws UsernameNotFoundException if there is no such user.
+     */
+    public User getUser(String username) {
+        if (users == null) {
+            return load(username);
+        }
+        return users.get(username, this::load);
+    }
+
+    public void evict(String username) {
+        if (users != null && username != null) {
+            users.invalidate(username);
+        }
+    }
+
+    private User load(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    }
+}
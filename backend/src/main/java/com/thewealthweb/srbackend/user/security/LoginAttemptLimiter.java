@@ -0,0 +1,122 @@
+package com.thewealthweb.srbackend.user.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed-window login attempt counters per client IP and per username, checked before any password is hashed.
+ * A credential-stuffing source is cut off by its IP counter, a distributed attack on one account by the
+ * username counter; a successful login clears its username counter. Counters are node-local.
+ * The counters are split over lock stripes, each a small LRU map, so concurrent logins rarely contend
+ * and memory stays bounded however many addresses an attack comes from.
+ */
+@Component
+public class LoginAttemptLimiter {
+
+    private static final int STRIPES = 64; // Power of two, see stripeFor
+
+    private final long windowNanos;
+    private final int maxAttemptsPerIp;
+    private final int maxAttemptsPerUsername;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final Counter ipThrottled;
+    private final Counter usernameThrottled;
+
+    public LoginAttemptLimiter(@Value("${security.login-throttle.window:PT1M}") Duration window,
+                               @Value("${security.login-throttle.max-attempts-per-ip:30}") int maxAttemptsPerIp,
+                               @Value("${security.login-throttle.max-attempts-per-username:10}") int maxAttemptsPerUsername,
+                               @Value("${security.login-throttle.max-keys-per-stripe:4096}") int maxKeysPerStripe,
+                               MeterRegistry meterRegistry) {
+        this.windowNanos = window.toNanos();
+        this.maxAttemptsPerIp = maxAttemptsPerIp;
+        this.maxAttemptsPerUsername = maxAttemptsPerUsername;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(maxKeysPerStripe);
+        }
+        this.ipThrottled = Counter.builder("auth.login.throttled").tag("reason", "ip")
+                .description("Login attempts refused before password hashing")
+                .register(meterRegistry);
+        this.usernameThrottled = Counter.builder("auth.login.throttled").tag("reason", "username")
+                .description("Login attempts refused before password hashing")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counts a login attempt.
+     * @return false if the IP or the username has used up its attempts for the current window.
+     */
+    public boolean tryAcquire(String username, String clientIp) {
+        if (!increment("ip:" + clientIp, maxAttemptsPerIp)) {
+            ipThrottled.increment();
+            return false;
+        }
+        if (!increment("user:" + username, maxAttemptsPerUsername)) {
+            usernameThrottled.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public void recordSuccess(String username) {
+        String key = "user:" + username;
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            stripe.windows.remove(key);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private boolean increment(String key, int maxAttempts) {
+        long now = System.nanoTime();
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Window window = stripe.windows.get(key);
+            if (window == null || now - window.startedAt >= windowNanos) {
+                window = new Window(now);
+                stripe.windows.put(key, window);
+            }
+            return ++window.attempts <= maxAttempts;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private Stripe stripeFor(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static final class Stripe {
+        // ReentrantLock rather than synchronized: does not pin the carrier when requests run on virtual threads.
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<String, Window> windows;
+
+        Stripe(int maxKeys) {
+            this.windows = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Window> eldest) {
+                    return size() > maxKeys;
+                }
+            };
+        }
+    }
+
+    private static final class Window {
+        final long startedAt;
+        int attempts;
+
+        Window(long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.thewealthweb.srbackend.user.security;
+
+import com.thewealthweb.srbackend.security.CustomUserDetails;
+import com.thewealthweb.srbackend.user.dto.UserDTO;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Which users a caller may create. A SUPER_ADMIN may create any user in any tenant; anyone else
+ * (i.e. a COMPANY_ADMIN) only users of their own tenant, and never a SUPER_ADMIN.
+ * Single and bulk creation both go through here, so neither reaches further than the other.
+ */
+@Component
+public class UserCreationPolicy {
+
+    private static final String SUPER_ADMIN = "SUPER_ADMIN";
+
+    /**
+     * @param caller The authenticated user creating the account.
+     * @param user The user to create, with its tenantId already filled in.
+     * @return Why the caller may not create this user, or null if they may.
+     */
+    public String denialReason(CustomUserDetails caller, UserDTO user) {
+        if (caller.getAuthorities().stream().anyMatch(a -> ("ROLE_" + SUPER_ADMIN).equals(a.getAuthority()))) {
+            return null;
+        }
+        if (caller.getTenantId() == null || !caller.getTenantId().equals(user.getTenantId())) {
+            return "Users can only be created in your own tenant";
+        }
+        if (user.getRoles() != null && user.getRoles().contains(SUPER_ADMIN)) {
+            return "Only a SUPER_ADMIN can grant the SUPER_ADMIN role";
+        }
+        return null;
+    }
+
+    /**
+     * @throws ResponseStatusException with 403 if the caller may not create this user.
+     */
+    public void check(CustomUserDetails caller, UserDTO user) {
+        String reason = denialReason(caller, user);
+        if (reason != null) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, reason);
+        }
+    }
+}
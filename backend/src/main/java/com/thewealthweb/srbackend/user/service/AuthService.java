@@ -4,16 +4,19 @@ import com.thewealthweb.srbackend.security.CustomUserDetails;
 import com.thewealthweb.srbackend.security.JwtTokenProvider;
 import com.thewealthweb.srbackend.tenant.config.TenantContext;
 import com.thewealthweb.srbackend.tenant.entity.Tenant;
-import com.thewealthweb.srbackend.tenant.repository.TenantRepository;
+import com.thewealthweb.srbackend.tenant.service.TenantRegistry;
 import com.thewealthweb.srbackend.user.dto.AuthResponse;
 import com.thewealthweb.srbackend.user.dto.LoginRequest;
+import com.thewealthweb.srbackend.user.dto.RefreshTokenSession;
 import com.thewealthweb.srbackend.user.dto.RegisterRequest;
-import com.thewealthweb.srbackend.user.entity.RefreshToken;
 import com.thewealthweb.srbackend.user.entity.Role;
 import com.thewealthweb.srbackend.user.entity.User;
 import com.thewealthweb.srbackend.user.helper.RoleServiceHelper;
 import com.thewealthweb.srbackend.user.repository.UserRepository;
+import com.thewealthweb.srbackend.user.security.CachedUserLookup;
+import com.thewealthweb.srbackend.user.security.LoginAttemptLimiter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -21,6 +24,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Set;
 
@@ -34,10 +39,20 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final RoleServiceHelper roleServiceHelper;
     private final RefreshTokenService refreshTokenService;
-    private final TenantRepository tenantRepository;
-
-    // In AuthService
-    public AuthResponse authenticate(LoginRequest request) {
+    private final TenantRegistry tenantRegistry;
+    private final CachedUserLookup cachedUserLookup;
+    private final LoginAttemptLimiter loginAttemptLimiter;
+
+    /**
+     * Logs a user in.
+     * @param clientIp Address the request came from, for the login attempt counters.
+     * @throws ResponseStatusException with 429 if the IP or username is out of attempts, or hashing is saturated.
+     */
+    public AuthResponse authenticate(LoginRequest request, String clientIp) {
+        // Checked before the AuthenticationManager, so refused attempts never reach BCrypt.
+        if (!loginAttemptLimiter.tryAcquire(request.getUsername(), clientIp)) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many login attempts. Please try again later.");
+        }
         // Let Spring Security do the checking
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
@@ -54,12 +69,13 @@ public class AuthService {
             throw new IllegalStateException("Principal is not an instance of CustomUserDetails");
         }
         User authenticatedUser = ((CustomUserDetails) userDetails).getUser();
+        loginAttemptLimiter.recordSuccess(request.getUsername());
 
         // Generate access token (ensure JwtTokenProvider includes tenant_id from authenticatedUser)
         String token = jwtTokenProvider.generateToken(userDetails); // This method should already use userDetails to get tenant_id
 
         // Create refresh token by passing the *authenticated User object*
-        String refreshToken = refreshTokenService.createRefreshToken(authenticatedUser).getToken();
+        String refreshToken = refreshTokenService.createRefreshToken(authenticatedUser);
 
         return new AuthResponse(token, refreshToken);
     }
@@ -76,7 +92,7 @@ public class AuthService {
         if (currentTenantIdStr == null || currentTenantIdStr.equals("default_tenant_id_from_your_config")) { // Replace with your actual default
             throw new RuntimeException("Tenant context not found for user registration. This endpoint is likely for existing tenants only.");
         }
-        Tenant tenant = tenantRepository.findByTenantId(currentTenantIdStr)
+        Tenant tenant = tenantRegistry.getReference(currentTenantIdStr)
                 .orElseThrow(() -> new RuntimeException("Tenant not found for ID: " + currentTenantIdStr));
         // --- CRITICAL CHANGE END ---
 
@@ -93,28 +109,34 @@ public class AuthService {
 
         UserDetails userDetails = new CustomUserDetails(user); // Ensure CustomUserDetails wraps the User object
         String token = jwtTokenProvider.generateToken(userDetails); // This MUST include tenant_id in JWT claims
-        String refreshToken = refreshTokenService.createRefreshToken(user).getToken(); // Pass User object directly
+        String refreshToken = refreshTokenService.createRefreshToken(user); // Pass User object directly
         return new AuthResponse(token, refreshToken);
     }
 
-    // In AuthService.refreshAccessToken
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token; the presented one is used up.
+     * @throws ResponseStatusException with 401 if the refresh token is unknown, expired or already used.
+     */
+    @Transactional
     public AuthResponse refreshAccessToken(String refreshTokenStr) {
-        RefreshToken refreshToken = refreshTokenService
-                .findByToken(refreshTokenStr)
-                .map(refreshTokenService::verifyExpiration)
-                .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
-
-        // String username = refreshToken.getUser().getUsername(); // This line is not strictly needed
-        User user = refreshToken.getUser(); // Get the user directly from the refresh token
+        RefreshTokenSession session = refreshTokenService.consume(refreshTokenStr);
+        User user = cachedUserLookup.getUser(session.username());
 
         // Ensure CustomUserDetails is used, providing access to the tenant
         UserDetails userDetails = new CustomUserDetails(user);
 
         String newAccessToken = jwtTokenProvider.generateToken(userDetails); // This token MUST include tenant_id
-        return new AuthResponse(newAccessToken, refreshTokenStr);
+        return new AuthResponse(newAccessToken, refreshTokenService.createRefreshToken(user));
     }
 
-    public void logout(String username) {
+    /**
+     * Logs out one device when its refresh token is given, otherwise every device of the user.
+     */
+    public void logout(String username, String refreshToken) {
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revoke(refreshToken);
+            return;
+        }
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
@@ -127,6 +149,7 @@ public class AuthService {
 
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        cachedUserLookup.evict(username);
 
         // Invalidate all refresh tokens for this user
         refreshTokenService.deleteByUser(user);
@@ -1,52 +1,156 @@
 package com.thewealthweb.srbackend.user.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.thewealthweb.srbackend.user.dto.RefreshTokenSession;
 import com.thewealthweb.srbackend.user.entity.RefreshToken;
 import com.thewealthweb.srbackend.user.entity.User;
 import com.thewealthweb.srbackend.user.repository.RefreshTokenRepository;
-import com.thewealthweb.srbackend.user.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
 import java.util.Optional;
-import java.util.UUID;
 
+/**
+ * Issues, rotates and revokes refresh tokens; a user holds one per device.
+ * Tokens are random 256-bit values handed to the client once; the table only keeps their SHA-256.
+ * Each token is single use: refreshing consumes it and issues a new one. The consuming delete is what
+ * decides, so the short-lived lookup cache never lets a token be used twice, even across nodes.
+ */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class RefreshTokenService {
 
+    private static final int TOKEN_BYTES = 32;
+
     @Value("${jwt.refresh.expiration.ms:86400000}") // 24 hours default
     private Long refreshTokenDurationMs;
 
+    @Value("${security.refresh-tokens.sweep-batch-size:1000}")
+    private int sweepBatchSize;
+
     private final RefreshTokenRepository refreshTokenRepository;
-    private final UserRepository userRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Cache<String, RefreshTokenSession> sessionsByHash;
 
-    // In RefreshTokenService
-    public RefreshToken createRefreshToken(User user) { // Change parameter type from String username to User user
-        Optional<RefreshToken> existingTokenOpt = refreshTokenRepository.findByUser(user);
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${security.refresh-tokens.cache.max-entries:10000}") long maxEntries,
+                               @Value("${security.refresh-tokens.cache.ttl:PT5M}") Duration ttl) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.sessionsByHash = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+    }
 
-        RefreshToken refreshToken = existingTokenOpt.orElse(new RefreshToken());
-        refreshToken.setUser(user);
-        refreshToken.setToken(UUID.randomUUID().toString());
-        refreshToken.setExpiryDate(Instant.now().plusMillis(refreshTokenDurationMs));
+    /**
+     * Issues a new refresh token for one login; tokens of the user's other devices stay valid.
+     * @param user The user logging in; a detached entity or reference is enough.
+     * @return The token to hand to the client. It is not stored and cannot be recovered.
+     */
+    @Transactional
+    public String createRefreshToken(User user) {
+        byte[] random = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(random);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
 
-        return refreshTokenRepository.save(refreshToken);
+        Instant now = Instant.now();
+        RefreshToken refreshToken = refreshTokenRepository.save(RefreshToken.builder()
+                .user(user)
+                .tokenHash(hash(token))
+                .expiresAt(now.plusMillis(refreshTokenDurationMs))
+                .createdAt(now)
+                .build());
+        sessionsByHash.put(refreshToken.getTokenHash(),
+                new RefreshTokenSession(refreshToken.getId(), user.getUsername(), refreshToken.getExpiresAt()));
+        return token;
     }
 
-    public RefreshToken verifyExpiration(RefreshToken token) {
-        if (token.getExpiryDate().isBefore(Instant.now())) {
-            refreshTokenRepository.delete(token);
-            throw new RuntimeException("Refresh token expired. Please login again.");
+    /**
+     * Consumes a refresh token: it is valid for exactly one refresh.
+     * @param token The token presented by the client.
+     * @return The session it granted; the caller issues the replacement token.
+     * @throws ResponseStatusException with 401 if the token is unknown, expired or already used.
+     */
+    @Transactional
+    public RefreshTokenSession consume(String token) {
+        if (token == null || token.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
         }
-        return token;
+        String tokenHash = hash(token);
+        RefreshTokenSession session = Optional.ofNullable(sessionsByHash.getIfPresent(tokenHash))
+                .or(() -> refreshTokenRepository.findSessionByTokenHash(tokenHash))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token"));
+        sessionsByHash.invalidate(tokenHash);
+
+        if (session.expiresAt().isBefore(Instant.now())) {
+            // Left to sweepExpired: a delete here would be rolled back with the 401.
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token expired. Please login again.");
+        }
+        if (refreshTokenRepository.deleteIfPresent(session.id()) != 1) {
+            log.warn("Refresh token of {} presented again after it was used or revoked", session.username());
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+        }
+        return session;
     }
 
-    public Optional<RefreshToken> findByToken(String token) {
-        return refreshTokenRepository.findByToken(token);
+    /**
+     * Revokes the refresh token of a single device.
+     */
+    @Transactional
+    public void revoke(String token) {
+        String tokenHash = hash(token);
+        sessionsByHash.invalidate(tokenHash);
+        refreshTokenRepository.deleteByTokenHash(tokenHash);
     }
 
+    /**
+     * Revokes the refresh tokens of every device of the user.
+     */
+    @Transactional
     public void deleteByUser(User user) {
+        sessionsByHash.asMap().values().removeIf(session -> session.username().equals(user.getUsername()));
         refreshTokenRepository.deleteByUser(user);
     }
+
+    /**
+     * Deletes expired refresh tokens in bounded batches, so the table only holds live logins
+     * and no single statement locks a large share of it. Safe to run on every node.
+     */
+    @Scheduled(fixedDelayString = "${security.refresh-tokens.sweep-interval-ms:300000}",
+            initialDelayString = "${security.refresh-tokens.sweep-initial-delay-ms:60000}")
+    public void sweepExpired() {
+        Instant now = Instant.now();
+        int deleted = 0;
+        int batch;
+        do {
+            batch = refreshTokenRepository.deleteExpiredBatch(now, sweepBatchSize);
+            deleted += batch;
+        } while (batch == sweepBatchSize);
+        if (deleted > 0) {
+            log.info("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 }
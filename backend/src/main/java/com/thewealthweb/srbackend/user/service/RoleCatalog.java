@@ -0,0 +1,62 @@
+package com.thewealthweb.srbackend.user.service;
+
+import com.thewealthweb.srbackend.user.entity.Role;
+import com.thewealthweb.srbackend.user.repository.RoleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory copy of the roles table, which only holds the handful of roles seeded by RoleInitializer.
+ * Lookups are served from an immutable map that is swapped as a whole on refresh, so creating,
+ * registering or updating a user resolves its roles without a query.
+ * The roles handed out are loaded (detached) entities rather than references, so their names can be
+ * read (JWT claims, DTOs) without initialising a proxy. Treat them as read-only: they are shared.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoleCatalog {
+
+    private final RoleRepository roleRepository;
+
+    private volatile Map<String, Role> rolesByName;
+
+    /**
+     * @param name Role name, e.g. "USER" or "COMPANY_ADMIN".
+     * @return The role, or empty if no role has this name.
+     */
+    public Optional<Role> find(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        Map<String, Role> roles = rolesByName;
+        if (roles == null) {
+            roles = refresh();
+        }
+        Role role = roles.get(name);
+        if (role == null && roleRepository.findByName(name).isPresent()) {
+            // Added since the last refresh (e.g. by another instance): reload the whole catalog once.
+            role = refresh().get(name);
+        }
+        return Optional.ofNullable(role);
+    }
+
+    /**
+     * Reloads every role from the database and replaces the catalog.
+     * @return The new catalog, keyed by role name.
+     */
+    public synchronized Map<String, Role> refresh() {
+        Map<String, Role> roles = new HashMap<>();
+        for (Role role : roleRepository.findAll()) {
+            roles.put(role.getName(), role);
+        }
+        rolesByName = Map.copyOf(roles);
+        log.info("Role catalog loaded with {} roles", roles.size());
+        return rolesByName;
+    }
+}
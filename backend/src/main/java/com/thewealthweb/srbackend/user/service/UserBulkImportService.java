@@ -0,0 +1,219 @@
+package com.thewealthweb.srbackend.user.service;
+
+import com.thewealthweb.srbackend.security.CustomUserDetails;
+import com.thewealthweb.srbackend.tenant.entity.Tenant;
+import com.thewealthweb.srbackend.tenant.service.TenantRegistry;
+import com.thewealthweb.srbackend.user.dto.BulkUserImportResult;
+import com.thewealthweb.srbackend.user.dto.BulkUserImportRowResult;
+import com.thewealthweb.srbackend.user.dto.UserDTO;
+import com.thewealthweb.srbackend.user.entity.Role;
+import com.thewealthweb.srbackend.user.entity.User;
+import com.thewealthweb.srbackend.user.repository.UserRepository;
+import com.thewealthweb.srbackend.user.security.UserCreationPolicy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Creates many users in one call, e.g. a customer's whole staff at onboarding.
+ * Work that createUser repeats per user is done once per import: tenants come from the registry
+ * cache, roles come from the RoleCatalog and taken usernames with one query per chunk.
+ * Passwords are hashed in parallel on the passwordHashExecutor and rows are inserted with JDBC
+ * batches, one transaction per chunk. Invalid rows are reported and skipped; they never fail the import.
+ */
+@Service
+@Slf4j
+public class UserBulkImportService {
+
+    private static final String DEFAULT_ROLE = "USER";
+
+    @Value("${users.bulk-import.max-rows:10000}")
+    private int maxRows;
+
+    @Value("${users.bulk-import.chunk-size:500}")
+    private int chunkSize;
+
+    private final UserRepository userRepository;
+    private final RoleCatalog roleCatalog;
+    private final TenantRegistry tenantRegistry;
+    private final PasswordEncoder passwordEncoder;
+    private final AuditorAware<String> auditorAware;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor passwordHashExecutor;
+    private final UserCreationPolicy userCreationPolicy;
+
+    public UserBulkImportService(UserRepository userRepository,
+                                 RoleCatalog roleCatalog,
+                                 TenantRegistry tenantRegistry,
+                                 @Qualifier("bcryptPasswordEncoder") PasswordEncoder passwordEncoder,
+                                 AuditorAware<String> auditorAware,
+                                 PlatformTransactionManager transactionManager,
+                                 @Qualifier("passwordHashExecutor") TaskExecutor passwordHashExecutor,
+                                 UserCreationPolicy userCreationPolicy) {
+        this.userRepository = userRepository;
+        this.roleCatalog = roleCatalog;
+        this.tenantRegistry = tenantRegistry;
+        this.passwordEncoder = passwordEncoder;
+        this.auditorAware = auditorAware;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordHashExecutor = passwordHashExecutor;
+        this.userCreationPolicy = userCreationPolicy;
+    }
+
+    /**
+     * Imports users, each with its own tenantId and role names (USER when none are given).
+     * @param rows The users to create; passwords in plain text.
+     * @param caller The importing user; rows UserCreationPolicy does not allow them to create are rejected.
+     * @return One result per row, in request order.
+     * @throws ResponseStatusException with 400 if the request has more than users.bulk-import.max-rows rows.
+     */
+    public BulkUserImportResult importUsers(List<UserDTO> rows, CustomUserDetails caller) {
+        if (rows.size() > maxRows) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxRows + " users can be imported per request, got " + rows.size());
+        }
+        BulkUserImportRowResult[] results = new BulkUserImportRowResult[rows.size()];
+        Map<String, Role> rolesByName = loadRoles(rows);
+        Map<String, Optional<Tenant>> tenants = new HashMap<>();
+        Set<String> seenUsernames = new HashSet<>();
+        String createdBy = auditorAware.getCurrentAuditor().orElse(null);
+
+        // Validate and resolve everything that does not need a per-row query.
+        List<PendingUser> pending = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            UserDTO dto = rows.get(i);
+            String error = validate(dto, seenUsernames);
+            if (error == null) {
+                error = userCreationPolicy.denialReason(caller, dto);
+            }
+            Tenant tenant = null;
+            Set<Role> roles = null;
+            if (error == null) {
+                tenant = tenants.computeIfAbsent(dto.getTenantId(), tenantRegistry::getReference).orElse(null);
+                if (tenant == null) {
+                    error = "Tenant not found with ID: " + dto.getTenantId();
+                }
+            }
+            if (error == null) {
+                roles = new HashSet<>();
+                for (String roleName : roleNamesOf(dto)) {
+                    Role role = rolesByName.get(roleName);
+                    if (role == null) {
+                        error = "Role not found: " + roleName;
+                        break;
+                    }
+                    roles.add(role);
+                }
+            }
+            if (error != null) {
+                results[i] = BulkUserImportRowResult.failed(i, dto.getUsername(), error);
+            } else {
+                pending.add(new PendingUser(i, dto, tenant, roles));
+            }
+        }
+
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            importChunk(pending.subList(from, Math.min(from + chunkSize, pending.size())), createdBy, results);
+        }
+
+        int created = (int) Arrays.stream(results).filter(BulkUserImportRowResult::isCreated).count();
+        log.info("Bulk user import: {} requested, {} created, {} failed", rows.size(), created, rows.size() - created);
+        return new BulkUserImportResult(rows.size(), created, rows.size() - created, List.of(results));
+    }
+
+    private void importChunk(List<PendingUser> chunk, String createdBy, BulkUserImportRowResult[] results) {
+        Set<String> taken = userRepository.findExistingUsernames(chunk.stream().map(p -> p.dto().getUsername()).toList());
+        List<PendingUser> toInsert = new ArrayList<>(chunk.size());
+        for (PendingUser p : chunk) {
+            if (taken.contains(p.dto().getUsername())) {
+                results[p.index()] = BulkUserImportRowResult.failed(p.index(), p.dto().getUsername(), "Username already exists");
+            } else {
+                toInsert.add(p);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        // BCrypt dominates the cost of an import; spread it over every core.
+        List<CompletableFuture<String>> hashes = toInsert.stream()
+                .map(p -> CompletableFuture.supplyAsync(() -> passwordEncoder.encode(p.dto().getPassword()), passwordHashExecutor))
+                .toList();
+        List<User> users = new ArrayList<>(toInsert.size());
+        for (int i = 0; i < toInsert.size(); i++) {
+            UserDTO dto = toInsert.get(i).dto();
+            users.add(User.builder()
+                    .username(dto.getUsername())
+                    .password(hashes.get(i).join())
+                    .email(dto.getEmail())
+                    .fullName(dto.getFullName())
+                    .tenant(toInsert.get(i).tenant())
+                    .enabled(dto.isEnabled())
+                    .roles(toInsert.get(i).roles())
+                    .build());
+        }
+
+        List<Long> ids = transactionTemplate.execute(status -> userRepository.insertBatch(users, createdBy));
+        for (int i = 0; i < toInsert.size(); i++) {
+            PendingUser p = toInsert.get(i);
+            Long id = ids.get(i);
+            results[p.index()] = id != null
+                    ? BulkUserImportRowResult.created(p.index(), p.dto().getUsername(), id)
+                    : BulkUserImportRowResult.failed(p.index(), p.dto().getUsername(), "Username already exists");
+        }
+    }
+
+    // Every role name used anywhere in the import, resolved once.
+    private Map<String, Role> loadRoles(List<UserDTO> rows) {
+        Set<String> names = new HashSet<>();
+        for (UserDTO dto : rows) {
+            names.addAll(roleNamesOf(dto));
+        }
+        Map<String, Role> rolesByName = new HashMap<>();
+        for (String name : names) {
+            roleCatalog.find(name).ifPresent(role -> rolesByName.put(name, role));
+        }
+        return rolesByName;
+    }
+
+    private static Set<String> roleNamesOf(UserDTO dto) {
+        return dto.getRoles() == null || dto.getRoles().isEmpty() ? Set.of(DEFAULT_ROLE) : dto.getRoles();
+    }
+
+    private static String validate(UserDTO dto, Set<String> seenUsernames) {
+        if (dto.getUsername() == null || dto.getUsername().isBlank()) {
+            return "Username is required";
+        }
+        if (dto.getPassword() == null || dto.getPassword().isBlank()) {
+            return "Password is required";
+        }
+        if (dto.getTenantId() == null || dto.getTenantId().isBlank()) {
+            return "Tenant ID is required";
+        }
+        if (!seenUsernames.add(dto.getUsername())) {
+            return "Duplicate username in request";
+        }
+        return null;
+    }
+
+    private record PendingUser(int index, UserDTO dto, Tenant tenant, Set<Role> roles) {
+    }
+}
@@ -1,13 +1,14 @@
 package com.thewealthweb.srbackend.user.service;
 
 import com.thewealthweb.srbackend.tenant.entity.Tenant;
-import com.thewealthweb.srbackend.tenant.repository.TenantRepository;
+import com.thewealthweb.srbackend.tenant.service.TenantRegistry;
 import com.thewealthweb.srbackend.user.dto.UserDTO;
 import com.thewealthweb.srbackend.user.entity.User;
 import com.thewealthweb.srbackend.user.entity.Role;
 import com.thewealthweb.srbackend.user.helper.RoleServiceHelper;
 import com.thewealthweb.srbackend.user.mapper.UserMapper;
 import com.thewealthweb.srbackend.user.repository.UserRepository;
+import com.thewealthweb.srbackend.user.security.CachedUserLookup;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -22,14 +23,16 @@ public class UserService {
     private final UserRepository userRepository;
     private final RoleServiceHelper roleServiceHelper;
     private final PasswordEncoder passwordEncoder;
-    private final TenantRepository tenantRepository;
+    private final TenantRegistry tenantRegistry;
     private final UserMapper userMapper;
+    private final CachedUserLookup cachedUserLookup;
+    private final RefreshTokenService refreshTokenService;
 
-    public User createUser(UserDTO dto) {
+    public UserDTO createUser(UserDTO dto) {
 
         // 1. Fetch the Tenant entity using the logical tenant ID from the DTO
-        //    We use findByTenantId, which you added to TenantRepository earlier.
-        Tenant tenant = tenantRepository.findByTenantId(dto.getTenantId())
+        //    The registry serves it from cache and hands back a reference, so no tenants query is issued.
+        Tenant tenant = tenantRegistry.getReference(dto.getTenantId())
                 .orElseThrow(() -> new IllegalArgumentException("Tenant not found with ID: " + dto.getTenantId()));
 
         Set<Role> roles = roleServiceHelper.resolveRolesOrDefault(dto.getRoles());
@@ -44,7 +47,8 @@ public class UserService {
                 .roles(roles)
                 .build();
 
-        return userRepository.save(user);
+        // The tenant is a reference proxy: map without touching it rather than handing the entity to Jackson.
+        return userMapper.toDto(userRepository.save(user), dto.getTenantId());
     }
 
     public List<UserDTO> getAllUsers() {
@@ -64,6 +68,7 @@ public class UserService {
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
 
+        cachedUserLookup.evict(existingUser.getUsername());
         existingUser.setUsername(dto.getUsername());
         existingUser.setEmail(dto.getEmail());
         existingUser.setFullName(dto.getFullName());
@@ -85,7 +90,9 @@ public class UserService {
     public void deleteUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        refreshTokenService.deleteByUser(user); // Logged-in devices would otherwise block the delete
         userRepository.delete(user);
+        cachedUserLookup.evict(user.getUsername());
     }
 }
 
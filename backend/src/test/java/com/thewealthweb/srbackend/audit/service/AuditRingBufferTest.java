@@ -0,0 +1,89 @@
+package com.thewealthweb.srbackend.audit.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuditRingBufferTest {
+
+    @Test
+    void roundsCapacityUpToAPowerOfTwo() {
+        assertThat(new AuditRingBuffer<Integer>(5).capacity()).isEqualTo(8);
+        assertThat(new AuditRingBuffer<Integer>(8).capacity()).isEqualTo(8);
+        assertThatThrownBy(() -> new AuditRingBuffer<Integer>(1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void refusesOffersWhenFullAndAcceptsThemOnceDrained() {
+        AuditRingBuffer<Integer> ring = new AuditRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(ring.offer(i)).isTrue();
+        }
+        assertThat(ring.offer(4)).isFalse();
+        assertThat(ring.size()).isEqualTo(4);
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(ring.drainTo(drained, 3)).isEqualTo(3);
+        assertThat(drained).containsExactly(0, 1, 2);
+
+        // Wraps around into the freed slots.
+        assertThat(ring.offer(4)).isTrue();
+        assertThat(ring.offer(5)).isTrue();
+        assertThat(ring.offer(6)).isTrue();
+        assertThat(ring.offer(7)).isFalse();
+
+        drained.clear();
+        assertThat(ring.drainTo(drained, 10)).isEqualTo(4);
+        assertThat(drained).containsExactly(3, 4, 5, 6);
+        assertThat(ring.size()).isZero();
+    }
+
+    @Test
+    void concurrentProducersLoseNothingThatWasAccepted() throws Exception {
+        int producers = 8;
+        int perProducer = 20_000;
+        AuditRingBuffer<Integer> ring = new AuditRingBuffer<>(1024);
+        CountDownLatch start = new CountDownLatch(1);
+        Set<Integer> accepted = new HashSet<>();
+        List<Integer> consumed = new ArrayList<>();
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(producers)) {
+            List<Future<List<Integer>>> results = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int base = p * perProducer;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    List<Integer> mine = new ArrayList<>();
+                    for (int i = 0; i < perProducer; i++) {
+                        if (ring.offer(base + i)) {
+                            mine.add(base + i);
+                        }
+                    }
+                    return mine;
+                }));
+            }
+            start.countDown();
+            while (!results.stream().allMatch(Future::isDone)) {
+                ring.drainTo(consumed, 256);
+            }
+            for (Future<List<Integer>> result : results) {
+                accepted.addAll(result.get(10, TimeUnit.SECONDS));
+            }
+        }
+        ring.drainTo(consumed, Integer.MAX_VALUE);
+
+        assertThat(consumed).as("consumed elements are exactly the accepted ones").hasSize(accepted.size());
+        assertThat(new HashSet<>(consumed)).isEqualTo(accepted);
+    }
+}
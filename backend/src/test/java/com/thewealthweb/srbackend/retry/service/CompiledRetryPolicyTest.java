@@ -0,0 +1,93 @@
+package com.thewealthweb.srbackend.retry.service;
+
+import com.thewealthweb.srbackend.retry.entity.RetryBackoffType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompiledRetryPolicyTest {
+
+    private static final long MINUTE_MS = 60_000L;
+    private static final long FAILED_AT = 1_700_000_000_000L;
+
+    @Test
+    void fixedRetriesAfterTheSameDelay() {
+        CompiledRetryPolicy policy = CompiledRetryPolicy.compile(RetryBackoffType.FIXED, 30L, null, null, null, 3, null, null);
+
+        assertThat(policy.maxAttempts()).isEqualTo(3);
+        assertThat(policy.nextAttemptAt(1, null, FAILED_AT)).isEqualTo(FAILED_AT + 30 * MINUTE_MS);
+        assertThat(policy.nextAttemptAt(3, null, FAILED_AT)).isEqualTo(FAILED_AT + 30 * MINUTE_MS);
+        assertThat(policy.nextAttemptAt(4, null, FAILED_AT)).isEqualTo(CompiledRetryPolicy.NO_RETRY);
+        assertThat(policy.nextAttemptAt(0, null, FAILED_AT)).isEqualTo(CompiledRetryPolicy.NO_RETRY);
+    }
+
+    @Test
+    void exponentialGrowsUntilTheMaxDelay() {
+        CompiledRetryPolicy policy = CompiledRetryPolicy.compile(RetryBackoffType.EXPONENTIAL, 60L, 2.0d, 200L, null, 4, null, null);
+
+        assertThat(policy.nextAttemptAt(1, null, FAILED_AT)).isEqualTo(FAILED_AT + 60 * MINUTE_MS);
+        assertThat(policy.nextAttemptAt(2, null, FAILED_AT)).isEqualTo(FAILED_AT + 120 * MINUTE_MS);
+        assertThat(policy.nextAttemptAt(3, null, FAILED_AT)).isEqualTo(FAILED_AT + 200 * MINUTE_MS);
+        assertThat(policy.nextAttemptAt(4, null, FAILED_AT)).isEqualTo(FAILED_AT + 200 * MINUTE_MS);
+    }
+
+    @Test
+    void exponentialWithoutMaxDelayStaysInTheFuture() {
+        CompiledRetryPolicy policy = CompiledRetryPolicy.compile(RetryBackoffType.EXPONENTIAL,
+                CompiledRetryPolicy.MAX_DELAY_MINUTES, CompiledRetryPolicy.MAX_MULTIPLIER, null, null, 20, null, null);
+
+        for (int attempt = 1; attempt <= 20; attempt++) {
+            assertThat(policy.nextAttemptAt(attempt, null, FAILED_AT))
+                    .as("retry %d", attempt)
+                    .isEqualTo(FAILED_AT + CompiledRetryPolicy.MAX_DELAY_MINUTES * MINUTE_MS);
+        }
+    }
+
+    @Test
+    void customUsesTheFirstMaxAttemptsDelays() {
+        CompiledRetryPolicy policy = CompiledRetryPolicy.compile(RetryBackoffType.CUSTOM, null, null, null,
+                List.of(10L, 20L, 30L), 2, null, null);
+
+        assertThat(policy.maxAttempts()).isEqualTo(2);
+        assertThat(policy.nextAttemptAt(2, null, FAILED_AT)).isEqualTo(FAILED_AT + 20 * MINUTE_MS);
+        assertThat(policy.nextAttemptAt(3, null, FAILED_AT)).isEqualTo(CompiledRetryPolicy.NO_RETRY);
+    }
+
+    @Test
+    void zeroMaxAttemptsDisablesRetriesForEveryType() {
+        for (RetryBackoffType type : RetryBackoffType.values()) {
+            CompiledRetryPolicy policy = CompiledRetryPolicy.compile(type, 10L, null, null, List.of(10L), 0, null, null);
+            assertThat(policy.nextAttemptAt(1, null, FAILED_AT)).as(type.name()).isEqualTo(CompiledRetryPolicy.NO_RETRY);
+        }
+    }
+
+    @Test
+    void declineCodesAreMatchedCaseInsensitively() {
+        CompiledRetryPolicy policy = CompiledRetryPolicy.compile(RetryBackoffType.FIXED, 10L, null, null, null, 1,
+                Set.of(" Stolen_Card "), Set.of("insufficient_funds", "stolen_card"));
+
+        assertThat(policy.nextAttemptAt(1, "stolen_card", FAILED_AT)).isEqualTo(CompiledRetryPolicy.NO_RETRY);
+        assertThat(policy.nextAttemptAt(1, "do_not_honor", FAILED_AT)).isEqualTo(CompiledRetryPolicy.NO_RETRY);
+        assertThat(policy.nextAttemptAt(1, "insufficient_funds", FAILED_AT)).isEqualTo(FAILED_AT + 10 * MINUTE_MS);
+        assertThat(policy.nextAttemptAt(1, null, FAILED_AT)).isEqualTo(FAILED_AT + 10 * MINUTE_MS);
+    }
+
+    @Test
+    void rejectsOutOfBoundsDefinitions() {
+        assertThatThrownBy(() -> CompiledRetryPolicy.compile(RetryBackoffType.FIXED,
+                CompiledRetryPolicy.MAX_DELAY_MINUTES + 1, null, null, null, 1, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CompiledRetryPolicy.compile(RetryBackoffType.EXPONENTIAL, 10L, 11.0d, null, null, 1, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CompiledRetryPolicy.compile(RetryBackoffType.EXPONENTIAL, 10L, Double.NaN, null, null, 1, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CompiledRetryPolicy.compile(RetryBackoffType.CUSTOM, null, null, null, List.of(10L), 2, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CompiledRetryPolicy.compile(RetryBackoffType.FIXED, 10L, null, null, null, -1, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
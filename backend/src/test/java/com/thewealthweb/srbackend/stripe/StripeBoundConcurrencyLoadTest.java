@@ -0,0 +1,197 @@
+package com.thewealthweb.srbackend.stripe;
+
+import com.thewealthweb.srbackend.config.BoundedVirtualThreadExecutor;
+import com.thewealthweb.srbackend.security.JwtTokenProvider;
+import com.thewealthweb.srbackend.tenant.config.TenantContext;
+import com.thewealthweb.srbackend.tenant.config.TenantContextTaskDecorator;
+import com.thewealthweb.srbackend.tenant.config.TenantFilter;
+import com.thewealthweb.srbackend.tenant.config.TenantRequestMetrics;
+import com.thewealthweb.srbackend.tenant.dto.TenantSnapshot;
+import com.thewealthweb.srbackend.tenant.service.TenantRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Load test for spring.threads.virtual.enabled: an embedded Tomcat serves requests that block
+ * on a simulated Stripe call, first on the platform worker pool, then on virtual threads, and we
+ * measure how many requests are inside the Stripe call at the same time.
+ * Each request also goes through the real TenantFilter and hops to a worker executor decorated
+ * with TenantContextTaskDecorator, checking the tenant arrives intact in both modes.
+ * Excluded from the default build; run with mvn test -Pload.
+ */
+@Tag("load")
+class StripeBoundConcurrencyLoadTest {
+
+    private static final int PLATFORM_MAX_THREADS = 200; // Tomcat's default server.tomcat.threads.max
+    private static final int CLIENTS = 600;
+    private static final int TENANTS = 50;
+    private static final Duration STRIPE_LATENCY = Duration.ofMillis(250);
+
+    @Test
+    void virtualThreadsServeMoreConcurrentStripeBoundRequests() throws Exception {
+        LoadResult platform = run(false);
+        LoadResult virtual = run(true);
+
+        assertThat(platform.ok()).as("platform requests answered 200").isEqualTo(CLIENTS);
+        assertThat(virtual.ok()).as("virtual requests answered 200").isEqualTo(CLIENTS);
+        assertThat(platform.peakConcurrency())
+                .as("platform peak in Stripe call (wall %d ms)", platform.wallMillis())
+                .isLessThanOrEqualTo(PLATFORM_MAX_THREADS);
+        assertThat(virtual.peakConcurrency())
+                .as("virtual peak in Stripe call (wall %d ms, platform wall %d ms)", virtual.wallMillis(), platform.wallMillis())
+                .isGreaterThan(PLATFORM_MAX_THREADS);
+        assertThat(platform.tenantMismatches()).as("platform tenant mismatches").isZero();
+        assertThat(virtual.tenantMismatches()).as("virtual tenant mismatches").isZero();
+    }
+
+    private LoadResult run(boolean virtualThreads) throws Exception {
+        TaskExecutor worker = workerExecutor(virtualThreads);
+        StripeBoundServlet servlet = new StripeBoundServlet(worker);
+
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        if (virtualThreads) {
+            // What Spring Boot's TomcatVirtualThreadsWebServerFactoryCustomizer installs.
+            factory.addProtocolHandlerCustomizers(handler -> handler.setExecutor(new VirtualThreadExecutor("tomcat-handler-")));
+        } else {
+            factory.addConnectorCustomizers(connector ->
+                    ((AbstractProtocol<?>) connector.getProtocolHandler()).setMaxThreads(PLATFORM_MAX_THREADS));
+        }
+        WebServer server = factory.getWebServer(servletContext -> {
+            servletContext.addFilter("tenantFilter", tenantFilter()).addMappingForUrlPatterns(null, false, "/*");
+            servletContext.addServlet("stripe", servlet).addMapping("/stripe");
+        });
+        server.start();
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        URI uri = URI.create("http://localhost:" + server.getPort() + "/stripe");
+        AtomicInteger ok = new AtomicInteger();
+        long start = System.nanoTime();
+        long wallMillis;
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> calls = new ArrayList<>(CLIENTS);
+            for (int i = 0; i < CLIENTS; i++) {
+                String tenantId = "tenant-" + (i % TENANTS);
+                calls.add(clients.submit(() -> {
+                    HttpRequest request = HttpRequest.newBuilder(uri).header("X-Tenant-ID", tenantId).build();
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        ok.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> call : calls) {
+                call.get(60, TimeUnit.SECONDS);
+            }
+            wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        } finally {
+            server.stop();
+            if (worker instanceof ThreadPoolTaskExecutor pool) {
+                pool.shutdown();
+            } else if (worker instanceof BoundedVirtualThreadExecutor bounded) {
+                bounded.destroy();
+            }
+        }
+        return new LoadResult(ok.get(), servlet.peak.get(), servlet.mismatches.get(), wallMillis);
+    }
+
+    // Mirrors RetryConfig/BackfillConfig: a small platform pool, or bounded virtual threads.
+    private static TaskExecutor workerExecutor(boolean virtualThreads) {
+        TenantContextTaskDecorator decorator = new TenantContextTaskDecorator();
+        if (virtualThreads) {
+            return new BoundedVirtualThreadExecutor("worker-", 64, false, decorator, Duration.ofSeconds(5));
+        }
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(8);
+        pool.setMaxPoolSize(8);
+        pool.setThreadNamePrefix("worker-");
+        pool.setTaskDecorator(decorator);
+        pool.initialize();
+        return pool;
+    }
+
+    private static TenantFilter tenantFilter() {
+        TenantRegistry registry = mock(TenantRegistry.class);
+        when(registry.findByTenantId(anyString())).thenAnswer(invocation -> {
+            String tenantId = invocation.getArgument(0);
+            return Optional.of(new TenantSnapshot(1L, tenantId, tenantId, true, null));
+        });
+        TenantFilter filter = new TenantFilter();
+        ReflectionTestUtils.setField(filter, "jwtTokenProvider", mock(JwtTokenProvider.class)); // No bearer token
+        ReflectionTestUtils.setField(filter, "tenantRegistry", registry);
+        ReflectionTestUtils.setField(filter, "tenantRequestMetrics", new TenantRequestMetrics(new SimpleMeterRegistry(), 100));
+        return filter;
+    }
+
+    private static final class StripeBoundServlet extends HttpServlet {
+
+        private final TaskExecutor worker;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger peak = new AtomicInteger();
+        private final AtomicInteger mismatches = new AtomicInteger();
+
+        private StripeBoundServlet(TaskExecutor worker) {
+            this.worker = worker;
+        }
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            String expectedTenant = request.getHeader("X-Tenant-ID");
+            if (!expectedTenant.equals(TenantContext.getTenantId())) {
+                mismatches.incrementAndGet();
+            }
+
+            // Blocking Stripe call (Subscription.list, OAuth token exchange .block()).
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(STRIPE_LATENCY.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+
+            // Follow-up work handed to a worker, like an enqueued backfill or retry attempt.
+            CompletableFuture<String> seenByWorker = new CompletableFuture<>();
+            worker.execute(() -> seenByWorker.complete(TenantContext.getTenantId()));
+            if (!expectedTenant.equals(seenByWorker.join())) {
+                mismatches.incrementAndGet();
+            }
+            response.setStatus(HttpServletResponse.SC_OK);
+        }
+    }
+
+    private record LoadResult(int ok, int peakConcurrency, int tenantMismatches, long wallMillis) {
+    }
+}
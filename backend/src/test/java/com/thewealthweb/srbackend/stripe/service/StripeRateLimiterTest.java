@@ -0,0 +1,70 @@
+package com.thewealthweb.srbackend.stripe.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class StripeRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long ROUNDING = 1_000L; // Nanos lost converting fractional tokens
+
+    @Test
+    void startsFullWithOneSecondOfBurst() {
+        StripeRateLimiter.TokenBucket bucket = new StripeRateLimiter.TokenBucket(10);
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(bucket.reserve(now)).as("token %d", i).isZero();
+        }
+        assertThat(bucket.reserve(now)).isCloseTo(SECOND / 10, within(ROUNDING));
+    }
+
+    @Test
+    void queuedCallersWaitInOrder() {
+        StripeRateLimiter.TokenBucket bucket = new StripeRateLimiter.TokenBucket(10);
+        long now = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            bucket.reserve(now);
+        }
+
+        assertThat(bucket.reserve(now)).isCloseTo(SECOND / 10, within(ROUNDING));
+        assertThat(bucket.reserve(now)).isCloseTo(2 * SECOND / 10, within(ROUNDING));
+        assertThat(bucket.reserve(now)).isCloseTo(3 * SECOND / 10, within(ROUNDING));
+    }
+
+    @Test
+    void refillsOverTimeButNeverBeyondCapacity() {
+        StripeRateLimiter.TokenBucket bucket = new StripeRateLimiter.TokenBucket(10);
+        long now = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            bucket.reserve(now);
+        }
+
+        // Half a second refills five tokens.
+        now += SECOND / 2 + ROUNDING;
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.reserve(now)).as("refilled token %d", i).isZero();
+        }
+        assertThat(bucket.reserve(now)).isPositive();
+
+        // An idle minute still only allows one second of burst.
+        now += 60 * SECOND;
+        for (int i = 0; i < 10; i++) {
+            assertThat(bucket.reserve(now)).as("burst token %d", i).isZero();
+        }
+        assertThat(bucket.reserve(now)).isPositive();
+    }
+
+    @Test
+    void slowRatesStillAllowOneCall() {
+        StripeRateLimiter.TokenBucket bucket = new StripeRateLimiter.TokenBucket(0.5d);
+        long now = System.nanoTime();
+
+        assertThat(bucket.reserve(now)).isZero();
+        assertThat(bucket.reserve(now)).isCloseTo(2 * SECOND, within(ROUNDING));
+    }
+}
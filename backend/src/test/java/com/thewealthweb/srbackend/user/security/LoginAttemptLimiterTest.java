@@ -0,0 +1,62 @@
+package com.thewealthweb.srbackend.user.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginAttemptLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void throttlesAUsernameAfterItsAttempts() {
+        LoginAttemptLimiter limiter = new LoginAttemptLimiter(Duration.ofMinutes(1), 100, 3, 1000, meterRegistry);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("alice", "10.0.0." + i)).as("attempt %d", i).isTrue();
+        }
+        assertThat(limiter.tryAcquire("alice", "10.0.0.99")).isFalse();
+        assertThat(limiter.tryAcquire("bob", "10.0.0.99")).isTrue();
+        assertThat(throttled("username")).isEqualTo(1.0d);
+    }
+
+    @Test
+    void throttlesAnIpAcrossUsernames() {
+        LoginAttemptLimiter limiter = new LoginAttemptLimiter(Duration.ofMinutes(1), 3, 100, 1000, meterRegistry);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("user" + i, "10.0.0.1")).as("attempt %d", i).isTrue();
+        }
+        assertThat(limiter.tryAcquire("user9", "10.0.0.1")).isFalse();
+        assertThat(limiter.tryAcquire("user9", "10.0.0.2")).isTrue();
+        assertThat(throttled("ip")).isEqualTo(1.0d);
+    }
+
+    @Test
+    void successClearsTheUsernameCounter() {
+        LoginAttemptLimiter limiter = new LoginAttemptLimiter(Duration.ofMinutes(1), 100, 2, 1000, meterRegistry);
+
+        assertThat(limiter.tryAcquire("alice", "10.0.0.1")).isTrue();
+        assertThat(limiter.tryAcquire("alice", "10.0.0.1")).isTrue();
+        limiter.recordSuccess("alice");
+
+        assertThat(limiter.tryAcquire("alice", "10.0.0.1")).isTrue();
+    }
+
+    @Test
+    void countersStartOverInANewWindow() {
+        // A zero window expires every counter before the next attempt.
+        LoginAttemptLimiter limiter = new LoginAttemptLimiter(Duration.ZERO, 1, 1, 1000, meterRegistry);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("alice", "10.0.0.1")).as("attempt %d", i).isTrue();
+        }
+    }
+
+    private double throttled(String reason) {
+        return meterRegistry.counter("auth.login.throttled", "reason", reason).count();
+    }
+}
@@ -0,0 +1,49 @@
+package com.thewealthweb.srbackend.user.security;
+
+import com.thewealthweb.srbackend.security.CustomUserDetails;
+import com.thewealthweb.srbackend.user.dto.UserDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserCreationPolicyTest {
+
+    private final UserCreationPolicy policy = new UserCreationPolicy();
+
+    private final CustomUserDetails companyAdmin = CustomUserDetails.fromClaims(1L, "admin", "acme", List.of("ROLE_COMPANY_ADMIN"));
+    private final CustomUserDetails superAdmin = CustomUserDetails.fromClaims(2L, "root", "platform", List.of("ROLE_SUPER_ADMIN"));
+
+    @Test
+    void companyAdminCreatesOrdinaryUsersInTheirOwnTenant() {
+        assertThat(policy.denialReason(companyAdmin, user("acme", Set.of("USER", "COMPANY_ADMIN")))).isNull();
+        assertThat(policy.denialReason(companyAdmin, user("acme", null))).isNull();
+    }
+
+    @Test
+    void companyAdminCannotReachAnotherTenantOrGrantSuperAdmin() {
+        assertThat(policy.denialReason(companyAdmin, user("globex", Set.of("USER")))).isNotNull();
+        assertThat(policy.denialReason(companyAdmin, user(null, Set.of("USER")))).isNotNull();
+        assertThat(policy.denialReason(companyAdmin, user("acme", Set.of("USER", "SUPER_ADMIN")))).isNotNull();
+        assertThatThrownBy(() -> policy.check(companyAdmin, user("globex", null)))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("403");
+    }
+
+    @Test
+    void superAdminCreatesAnyUser() {
+        assertThat(policy.denialReason(superAdmin, user("globex", Set.of("SUPER_ADMIN")))).isNull();
+    }
+
+    private static UserDTO user(String tenantId, Set<String> roles) {
+        UserDTO dto = new UserDTO();
+        dto.setUsername("new-user");
+        dto.setTenantId(tenantId);
+        dto.setRoles(roles);
+        return dto;
+    }
+}
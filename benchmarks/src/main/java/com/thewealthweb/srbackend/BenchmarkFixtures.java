@@ -0,0 +1,81 @@
+package com.thewealthweb.srbackend;
+
+import com.thewealthweb.srbackend.security.JwtTokenProvider;
+import com.thewealthweb.srbackend.tenant.entity.Tenant;
+import com.thewealthweb.srbackend.user.entity.Role;
+import com.thewealthweb.srbackend.user.entity.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Objects shaped like production data, shared by the benchmarks so their numbers stay comparable.
+ */
+public final class BenchmarkFixtures {
+
+    public static final String JWT_SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret!";
+    public static final String TENANT_ID = "acme-corp";
+    public static final String SUB_DOMAIN = "acme";
+    public static final List<String> ROLE_NAMES = List.of("SUPER_ADMIN", "COMPANY_ADMIN", "MANAGER", "SUPPORT", "USER");
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * A JwtTokenProvider initialised the way Spring does it (@Value secret, then @PostConstruct).
+     */
+    public static JwtTokenProvider jwtTokenProvider() {
+        JwtTokenProvider tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", JWT_SECRET);
+        ReflectionTestUtils.invokeMethod(tokenProvider, "initParser");
+        return tokenProvider;
+    }
+
+    public static Tenant tenant() {
+        Tenant tenant = Tenant.builder()
+                .tenantId(TENANT_ID)
+                .name("Acme Corp")
+                .subDomain(SUB_DOMAIN)
+                .active(true)
+                .build();
+        tenant.setId(7L);
+        return tenant;
+    }
+
+    public static List<Role> roles() {
+        List<Role> roles = new ArrayList<>();
+        long id = 1;
+        for (String name : ROLE_NAMES) {
+            Role role = Role.builder().name(name).build();
+            role.setId(id++);
+            roles.add(role);
+        }
+        return roles;
+    }
+
+    /**
+     * A company admin of {@link #tenant()}, as loaded for a login or a database-mode request.
+     */
+    public static User user() {
+        Set<Role> roles = new HashSet<>();
+        for (Role role : roles()) {
+            if (role.getName().equals("COMPANY_ADMIN") || role.getName().equals("USER")) {
+                roles.add(role);
+            }
+        }
+        User user = User.builder()
+                .username("alice")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3jY8Jt5r0pJxA1sPqWl0Kxa")
+                .email("alice@acme.example")
+                .fullName("Alice Example")
+                .enabled(true)
+                .tenant(tenant())
+                .roles(roles)
+                .build();
+        user.setId(42L);
+        return user;
+    }
+}
@@ -0,0 +1,239 @@
+package com.thewealthweb.srbackend.retry;
+
+import com.thewealthweb.srbackend.retry.entity.RetryAttempt;
+import com.thewealthweb.srbackend.retry.entity.RetryAttemptStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.jdbc.connections.internal.DriverManagerConnectionProviderImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Inserts/sec of retry attempts written through Hibernate, IDENTITY ids against the pooled-lo
+ * sequence ids of IdSequences, with and without hibernate.jdbc.batch_size.
+ * IDENTITY needs the generated key of every row, so Hibernate sends its inserts one by one whatever
+ * the batch size; the sequence ids are assigned up front and the inserts go out in JDBC batches.
+ * Defaults to in-memory H2, which has no network round-trip: roundTripMicros adds one per statement
+ * execution, batch and commit, which is where the difference shows. For real Postgres numbers pass
+ * -Dbenchmark.jdbc.url=jdbc:postgresql://... (plus .user/.password) and -p roundTripMicros=0.
+ * Run with: java -jar target/benchmarks.jar RetryAttemptInsertBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RetryAttemptInsertBenchmark {
+
+    private static final int ROWS_PER_FLUSH = 1000;
+
+    @Param({"identity", "pooled-lo"})
+    public String idStrategy;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    @Param({"0", "200"})
+    public int roundTripMicros;
+
+    // Read by LatencyConnectionProvider, which Hibernate instantiates itself.
+    private static volatile long roundTripNanos;
+
+    private final AtomicLong invoiceCounter = new AtomicLong();
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() {
+        roundTripNanos = TimeUnit.MICROSECONDS.toNanos(roundTripMicros);
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(RetryAttempt.class)
+                .addAnnotatedClass(IdentityRetryAttempt.class)
+                .setProperty("hibernate.connection.url",
+                        System.getProperty("benchmark.jdbc.url", "jdbc:h2:mem:inserts;MODE=PostgreSQL;DB_CLOSE_DELAY=-1"))
+                .setProperty("hibernate.connection.username", System.getProperty("benchmark.jdbc.user", "sa"))
+                .setProperty("hibernate.connection.password", System.getProperty("benchmark.jdbc.password", ""))
+                .setProperty("hibernate.connection.provider_class", LatencyConnectionProvider.class.getName())
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                // Same id and batching settings as HibernateMultiTenancyConfig
+                .setProperty("hibernate.id.optimizer.pooled.preferred", "pooled-lo")
+                .setProperty("hibernate.jdbc.batch_size", Integer.toString(batchSize))
+                .setProperty("hibernate.order_inserts", "true");
+        sessionFactory = configuration.buildSessionFactory();
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        sessionFactory.inTransaction(session -> {
+            session.createMutationQuery("delete from RetryAttempt").executeUpdate();
+            session.createMutationQuery("delete from IdentityRetryAttempt").executeUpdate();
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_FLUSH)
+    public void insert() {
+        boolean identity = "identity".equals(idStrategy);
+        Instant now = Instant.now();
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < ROWS_PER_FLUSH; i++) {
+                String invoiceId = "in_" + invoiceCounter.incrementAndGet();
+                if (identity) {
+                    session.persist(new IdentityRetryAttempt("acme-corp", "acct_bench", invoiceId, 1,
+                            RetryAttemptStatus.SCHEDULED.name(), now));
+                } else {
+                    session.persist(RetryAttempt.builder()
+                            .tenantId("acme-corp")
+                            .stripeAccountId("acct_bench")
+                            .invoiceId(invoiceId)
+                            .attemptNumber(1)
+                            .status(RetryAttemptStatus.SCHEDULED)
+                            .scheduledAt(now)
+                            .createdAt(now)
+                            .build());
+                }
+            }
+        });
+    }
+
+    /**
+     * The same row as RetryAttempt, with the IDENTITY id it had before IdSequences.
+     */
+    @Entity(name = "IdentityRetryAttempt")
+    @Table(name = "retry_attempts_identity")
+    public static class IdentityRetryAttempt {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        @Column(name = "tenant_id", nullable = false)
+        private String tenantId;
+
+        @Column(name = "stripe_account_id", nullable = false)
+        private String stripeAccountId;
+
+        @Column(name = "invoice_id", nullable = false)
+        private String invoiceId;
+
+        @Column(name = "attempt_number", nullable = false)
+        private int attemptNumber;
+
+        @Column(name = "status", nullable = false, length = 20)
+        private String status;
+
+        @Column(name = "scheduled_at", nullable = false)
+        private Instant scheduledAt;
+
+        @Column(name = "created_at", nullable = false)
+        private Instant createdAt;
+
+        @Version
+        private Long version;
+
+        protected IdentityRetryAttempt() {
+        }
+
+        IdentityRetryAttempt(String tenantId, String stripeAccountId, String invoiceId, int attemptNumber,
+                             String status, Instant now) {
+            this.tenantId = tenantId;
+            this.stripeAccountId = stripeAccountId;
+            this.invoiceId = invoiceId;
+            this.attemptNumber = attemptNumber;
+            this.status = status;
+            this.scheduledAt = now;
+            this.createdAt = now;
+        }
+    }
+
+    /**
+     * Hibernate's built-in pool, handing out connections that wait one round-trip per database call.
+     */
+    public static class LatencyConnectionProvider extends DriverManagerConnectionProviderImpl {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    new RoundTripHandler(connection));
+        }
+
+        @Override
+        public void closeConnection(Connection connection) throws SQLException {
+            super.closeConnection((Connection) ((RoundTripHandler) Proxy.getInvocationHandler(connection)).target);
+        }
+    }
+
+    private static final class RoundTripHandler implements InvocationHandler {
+
+        private final Object target;
+
+        private RoundTripHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute") || name.equals("commit")) {
+                LockSupport.parkNanos(roundTripNanos);
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof PreparedStatement statement) {
+                return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                        new RoundTripHandler(statement));
+            }
+            if (result instanceof Statement statement) {
+                return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Statement.class},
+                        new RoundTripHandler(statement));
+            }
+            return result;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(new String[]{RetryAttemptInsertBenchmark.class.getSimpleName()});
+    }
+}
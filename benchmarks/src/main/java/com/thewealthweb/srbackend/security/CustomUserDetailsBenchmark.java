@@ -0,0 +1,53 @@
+package com.thewealthweb.srbackend.security;
+
+import com.thewealthweb.srbackend.BenchmarkFixtures;
+import com.thewealthweb.srbackend.user.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the request principal: from a loaded User (database auth mode, login) and from the
+ * claims of a verified token (claims auth mode, the default).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class CustomUserDetailsBenchmark {
+
+    private User user;
+    private List<String> roleClaims;
+
+    @Setup
+    public void setUp() {
+        user = BenchmarkFixtures.user();
+        roleClaims = List.of("ROLE_COMPANY_ADMIN", "ROLE_USER");
+    }
+
+    @Benchmark
+    public CustomUserDetails fromUser() {
+        return new CustomUserDetails(user);
+    }
+
+    @Benchmark
+    public CustomUserDetails fromClaims() {
+        return CustomUserDetails.fromClaims(42L, "alice", BenchmarkFixtures.TENANT_ID, roleClaims);
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(new String[]{CustomUserDetailsBenchmark.class.getSimpleName()});
+    }
+}
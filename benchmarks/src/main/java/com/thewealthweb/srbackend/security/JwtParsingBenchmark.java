@@ -0,0 +1,89 @@
+package com.thewealthweb.srbackend.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT cost of an authenticated call: TenantFilter, JwtAuthenticationFilter and a
+ * controller each needing the token. "before" mirrors the old code (three full verifications,
+ * a parser built per call); "after" verifies once through JwtTokenProvider.resolveClaims.
+ * Run with: java -jar target/benchmarks.jar JwtParsingBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtParsingBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret!";
+
+    private JwtTokenProvider tokenProvider;
+    private SecretKey tenantFilterKey;
+    private String bearer;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", SECRET);
+        tokenProvider.initParser();
+        tenantFilterKey = Keys.hmacShaKeyFor(SECRET.getBytes());
+
+        String token = Jwts.builder()
+                .setSubject("alice")
+                .claim("roles", List.of("ROLE_COMPANY_ADMIN"))
+                .claim("tenantId", "acme-corp")
+                .claim("userId", 42L)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(SignatureAlgorithm.HS512, SECRET.getBytes())
+                .compact();
+        bearer = "Bearer " + token;
+    }
+
+    @Benchmark
+    public Object before() {
+        String token = bearer.substring(7);
+        // JwtAuthenticationFilter: validateToken, then getUsernameFromToken
+        Jwts.parser().setSigningKey(SECRET.getBytes()).parseClaimsJws(token);
+        String username = Jwts.parser().setSigningKey(SECRET.getBytes()).parseClaimsJws(token).getBody().getSubject();
+        // TenantFilter: extractTenantFromJWT
+        Claims claims = Jwts.parserBuilder().setSigningKey(tenantFilterKey).build().parseClaimsJws(token).getBody();
+        return username + claims.get("tenantId", String.class);
+    }
+
+    @Benchmark
+    public Object after() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", bearer);
+        // JwtAuthenticationFilter, TenantFilter and /auth/validate all go through resolveClaims
+        Claims authClaims = tokenProvider.resolveClaims(request);
+        Claims tenantClaims = tokenProvider.resolveClaims(request);
+        Claims validateClaims = tokenProvider.resolveClaims(request);
+        return authClaims.getSubject() + tenantClaims.get("tenantId", String.class) + (validateClaims != null);
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(new String[]{JwtParsingBenchmark.class.getSimpleName()});
+    }
+}
@@ -0,0 +1,76 @@
+package com.thewealthweb.srbackend.stripe;
+
+import org.jasypt.encryption.pbe.PooledPBEStringEncryptor;
+import org.jasypt.encryption.pbe.config.SimpleStringPBEConfig;
+import org.jasypt.iv.RandomIvGenerator;
+import org.jasypt.salt.RandomSaltGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decrypting a stored Stripe access token, which StripeOAuthService pays on every connection cache
+ * load, and encrypting one at OAuth onboarding.
+ * The encryptor is configured like jasypt-spring-boot's default StringEncryptor; the key derivation
+ * (keyObtentionIterations rounds of PBKDF2) runs on every call and dominates the cost.
+ * The algorithm is the one application.yaml configures (jasypt.encryptor.algorithm).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class JasyptTokenDecryptBenchmark {
+
+    @Param({"PBEWITHHMACSHA512ANDAES_256"})
+    public String algorithm;
+
+    @Param({"1000"})
+    public int keyObtentionIterations;
+
+    private PooledPBEStringEncryptor encryptor;
+    private String accessToken;
+    private String encryptedToken;
+
+    @Setup
+    public void setUp() {
+        SimpleStringPBEConfig config = new SimpleStringPBEConfig();
+        config.setPassword("benchmark-jasypt-password");
+        config.setAlgorithm(algorithm);
+        config.setKeyObtentionIterations(keyObtentionIterations);
+        config.setPoolSize(1);
+        config.setSaltGenerator(new RandomSaltGenerator());
+        config.setIvGenerator(new RandomIvGenerator());
+        config.setStringOutputType("base64");
+        encryptor = new PooledPBEStringEncryptor();
+        encryptor.setConfig(config);
+
+        accessToken = "sk_test_51BenchmarkConnectedAccountAccessToken0000000000000000000000000000000000000000000000";
+        encryptedToken = encryptor.encrypt(accessToken);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return encryptor.decrypt(encryptedToken);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return encryptor.encrypt(accessToken);
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(new String[]{JasyptTokenDecryptBenchmark.class.getSimpleName()});
+    }
+}
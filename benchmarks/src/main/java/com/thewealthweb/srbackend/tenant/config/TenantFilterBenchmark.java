@@ -0,0 +1,88 @@
+package com.thewealthweb.srbackend.tenant.config;
+
+import com.thewealthweb.srbackend.BenchmarkFixtures;
+import com.thewealthweb.srbackend.security.CustomUserDetails;
+import com.thewealthweb.srbackend.security.JwtTokenProvider;
+import com.thewealthweb.srbackend.tenant.repository.TenantRepository;
+import com.thewealthweb.srbackend.tenant.service.TenantRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tenant resolution cost of one request through TenantFilter, for each way a tenant is found.
+ * jwt includes the one signature verification a request pays (normally done by JwtAuthenticationFilter,
+ * whose result TenantFilter reuses); header and subdomain are served by the warm TenantRegistry cache.
+ * The repository behind the registry is a mock that is only hit on the first, cold lookup.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class TenantFilterBenchmark {
+
+    @Param({"jwt", "header", "subdomain", "default"})
+    public String source;
+
+    private TenantFilter tenantFilter;
+    private String bearer;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        TenantRepository tenantRepository = mock(TenantRepository.class);
+        when(tenantRepository.findByTenantId(BenchmarkFixtures.TENANT_ID)).thenReturn(Optional.of(BenchmarkFixtures.tenant()));
+        when(tenantRepository.findBySubDomain(BenchmarkFixtures.SUB_DOMAIN)).thenReturn(Optional.of(BenchmarkFixtures.tenant()));
+        TenantRegistry tenantRegistry = new TenantRegistry(tenantRepository, 10_000, Duration.ofMinutes(10), Duration.ofSeconds(30));
+        JwtTokenProvider jwtTokenProvider = BenchmarkFixtures.jwtTokenProvider();
+
+        tenantFilter = new TenantFilter();
+        ReflectionTestUtils.setField(tenantFilter, "jwtTokenProvider", jwtTokenProvider);
+        ReflectionTestUtils.setField(tenantFilter, "tenantRegistry", tenantRegistry);
+        ReflectionTestUtils.setField(tenantFilter, "tenantRequestMetrics", new TenantRequestMetrics(new SimpleMeterRegistry(), 100));
+
+        bearer = "Bearer " + jwtTokenProvider.generateToken(new CustomUserDetails(BenchmarkFixtures.user()));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public void doFilter(Blackhole blackhole) throws Exception {
+        // A fresh request each time, as from Tomcat: nothing cached in its attributes yet.
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+        switch (source) {
+            case "jwt" -> request.addHeader("Authorization", bearer);
+            case "header" -> request.addHeader("X-Tenant-ID", BenchmarkFixtures.TENANT_ID);
+            case "subdomain" -> request.setServerName(BenchmarkFixtures.SUB_DOMAIN + ".thewealthweb.in");
+            default -> request.setServerName("localhost");
+        }
+        FilterChain chain = (req, res) -> blackhole.consume(TenantContext.getTenantId());
+        tenantFilter.doFilter(request, response, chain);
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(new String[]{TenantFilterBenchmark.class.getSimpleName()});
+    }
+}
@@ -0,0 +1,66 @@
+package com.thewealthweb.srbackend.user.helper;
+
+import com.thewealthweb.srbackend.BenchmarkFixtures;
+import com.thewealthweb.srbackend.user.entity.Role;
+import com.thewealthweb.srbackend.user.repository.RoleRepository;
+import com.thewealthweb.srbackend.user.service.RoleCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Role resolution for user creation, registration and update, served by a loaded RoleCatalog.
+ * The repository is a mock that only answers the initial catalog load.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class RoleServiceHelperBenchmark {
+
+    // default = no roles requested (register), one = a single role, many = every seeded role
+    @Param({"default", "one", "many"})
+    public String requested;
+
+    private RoleServiceHelper roleServiceHelper;
+    private Set<String> roleNames;
+
+    @Setup
+    public void setUp() {
+        RoleRepository roleRepository = mock(RoleRepository.class);
+        when(roleRepository.findAll()).thenReturn(BenchmarkFixtures.roles());
+        RoleCatalog roleCatalog = new RoleCatalog(roleRepository);
+        roleCatalog.refresh();
+        roleServiceHelper = new RoleServiceHelper(roleCatalog);
+        roleNames = switch (requested) {
+            case "one" -> Set.of("MANAGER");
+            case "many" -> Set.copyOf(BenchmarkFixtures.ROLE_NAMES);
+            default -> null;
+        };
+    }
+
+    @Benchmark
+    public Set<Role> resolveRolesOrDefault() {
+        return roleServiceHelper.resolveRolesOrDefault(roleNames);
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(new String[]{RoleServiceHelperBenchmark.class.getSimpleName()});
+    }
+}